@@ -0,0 +1,62 @@
+package pet;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks DeathThreshold.isDeadCondition over a table of random health values,
+ * so the result cannot be constant-folded and branches are not perfectly predicted.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeathThresholdBenchmark {
+  private static final int TABLE_SIZE = 1024;
+
+  @Param({"PET", "FOX", "SNAKE"})
+  public Species species;
+
+  private DeathThreshold threshold;
+  private int[] values;
+  private int index;
+
+  /**
+   * Builds the random health value table.
+   */
+  @Setup
+  public void setUp() {
+    threshold = species.getDeathThreshold();
+    SplittableRandom random = new SplittableRandom(42);
+    values = new int[TABLE_SIZE * 4];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = random.nextInt(101);
+    }
+  }
+
+  /**
+   * Checks the next set of health values against the thresholds.
+   *
+   * @return whether those values are a death condition
+   */
+  @Benchmark
+  public boolean isDeadCondition() {
+    int base = index;
+    index = (index + 4) & (values.length - 1);
+    return threshold.isDeadCondition(values[base], values[base + 1], values[base + 2],
+        values[base + 3]);
+  }
+}
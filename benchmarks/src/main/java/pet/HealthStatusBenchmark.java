@@ -0,0 +1,81 @@
+package pet;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks HealthStatus construction, equality and hashing,
+ * plus the packed codec that replaced HealthStatus on the step path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HealthStatusBenchmark {
+  private int hunger = 50;
+  private int hygiene = 60;
+  private int social = 70;
+  private int sleep = 80;
+  private HealthStatus first;
+  private HealthStatus second;
+
+  /**
+   * Creates two equal but distinct HealthStatus objects.
+   */
+  @Setup
+  public void setUp() {
+    first = new HealthStatus(hunger, hygiene, social, sleep);
+    second = new HealthStatus(hunger, hygiene, social, sleep);
+  }
+
+  /**
+   * Measures constructing a HealthStatus.
+   *
+   * @return the new object
+   */
+  @Benchmark
+  public HealthStatus construct() {
+    return new HealthStatus(hunger, hygiene, social, sleep);
+  }
+
+  /**
+   * Measures comparing two equal HealthStatus objects.
+   *
+   * @return the comparison result
+   */
+  @Benchmark
+  public boolean equalsEqualValues() {
+    return first.equals(second);
+  }
+
+  /**
+   * Measures computing a HealthStatus hash code.
+   *
+   * @return the hash code
+   */
+  @Benchmark
+  public int hashCodeValue() {
+    return first.hashCode();
+  }
+
+  /**
+   * Measures packing four values into a long and reading one back.
+   *
+   * @return the unpacked sleep value
+   */
+  @Benchmark
+  public int packAndUnpack() {
+    return HealthStatus.sleepOf(HealthStatus.pack(hunger, hygiene, social, sleep));
+  }
+}
@@ -0,0 +1,58 @@
+package pet;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks updateMood() for each species.
+ * The pet alternates between a happy and a sad health state so both branches are measured
+ * and the strategy lookup on every mood change is included.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoodUpdateBenchmark {
+  @Param({"PET", "FOX", "SNAKE"})
+  public Species species;
+
+  private AbstractPet pet;
+  private long happyHealth;
+  private long sadHealth;
+  private boolean sad;
+
+  /**
+   * Creates a pet of the benchmarked species and the two health states it alternates between.
+   */
+  @Setup
+  public void setUp() {
+    pet = species.createPet();
+    happyHealth = HealthStatus.pack(50, 50, 50, 50);
+    sadHealth = HealthStatus.pack(75, 50, 50, 50); // Hunger above every species' sad threshold
+  }
+
+  /**
+   * Swaps the pet's health and recomputes its mood.
+   *
+   * @return the new mood
+   */
+  @Benchmark
+  public MoodEnum updateMood() {
+    sad = !sad;
+    pet.setPackedHealth(sad ? sadHealth : happyHealth);
+    pet.updateMood();
+    return pet.getMood();
+  }
+}
@@ -0,0 +1,281 @@
+package pet;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A closed-loop load generator for {@link PetHttpServer}. Each connection is a thread sending one
+ * keep-alive HTTP/1.1 request at a time over a raw socket, so the client adds as little overhead as
+ * possible and the numbers reflect the server. The request mix is mostly reads: eight
+ * {@code GET /pets/{id}} for every action and every step, spread over random pets.
+ *
+ * <p>Options: {@code --host H} and {@code --port N} to target a running server (by default one is
+ * started in this process on a free port), {@code --threads N} handler threads for that server,
+ * {@code --connections N}, {@code --pets N}, {@code --warmup SECONDS} and {@code --seconds N}.
+ * It prints requests per second, latency percentiles and the number of failed requests.
+ */
+public final class PetHttpLoadTest {
+  private static final Action[] ACTIONS = Action.values();
+  private static final Species[] SPECIES = Species.values();
+
+  private PetHttpLoadTest() {
+  }
+
+  /**
+   * Creates the pets, warms up, then measures for the configured duration.
+   *
+   * @param args the options
+   * @throws Exception if the server cannot be started or reached
+   */
+  public static void main(String[] args) throws Exception {
+    String host = "127.0.0.1";
+    int port = -1;
+    int threads = Runtime.getRuntime().availableProcessors();
+    int connections = 16;
+    int pets = 1000;
+    int warmup = 3;
+    int seconds = 10;
+    for (int i = 0; i < args.length; i += 2) {
+      String value = args[i + 1];
+      switch (args[i]) {
+        case "--host":
+          host = value;
+          break;
+        case "--port":
+          port = Integer.parseInt(value);
+          break;
+        case "--threads":
+          threads = Integer.parseInt(value);
+          break;
+        case "--connections":
+          connections = Integer.parseInt(value);
+          break;
+        case "--pets":
+          pets = Integer.parseInt(value);
+          break;
+        case "--warmup":
+          warmup = Integer.parseInt(value);
+          break;
+        case "--seconds":
+          seconds = Integer.parseInt(value);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option: " + args[i]);
+      }
+    }
+
+    PetHttpServer server = null;
+    if (port < 0) {
+      server = new PetHttpServer(new InetSocketAddress(host, 0), threads);
+      server.start();
+      port = server.getPort();
+    }
+    try {
+      int firstId;
+      try (Connection setup = new Connection(host, port)) {
+        firstId = setup.createPets(pets);
+      }
+      System.out.printf(Locale.ROOT, "%s:%d, %d pets, %d connections%s%n", host, port, pets,
+          connections, server == null ? "" : ", in-process server with " + threads + " threads");
+      run(host, port, connections, firstId, pets, warmup, false);
+      run(host, port, connections, firstId, pets, seconds, true);
+    } finally {
+      if (server != null) {
+        server.close();
+      }
+    }
+  }
+
+  private static void run(String host, int port, int connections, int firstId, int pets,
+                          int seconds, boolean report) throws Exception {
+    long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+    List<Worker> workers = new ArrayList<>(connections);
+    for (int i = 0; i < connections; i++) {
+      Worker worker = new Worker(new Connection(host, port), firstId, pets, deadline);
+      workers.add(worker);
+      worker.start();
+    }
+    long requests = 0;
+    long errors = 0;
+    long[] latencies = new long[0];
+    for (Worker worker : workers) {
+      worker.join();
+      if (worker.failure != null) {
+        throw worker.failure;
+      }
+      requests += worker.count;
+      errors += worker.errors;
+      int offset = latencies.length;
+      latencies = Arrays.copyOf(latencies, offset + worker.count);
+      System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+    }
+    if (!report) {
+      return;
+    }
+    Arrays.sort(latencies);
+    System.out.printf(Locale.ROOT,
+        "%,d requests in %d s: %,.0f req/s, latency p50 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, "
+            + "max %.3f ms, %d errors%n",
+        requests, seconds, requests / (double) seconds, percentile(latencies, 0.50),
+        percentile(latencies, 0.99), percentile(latencies, 0.999),
+        percentile(latencies, 1.0), errors);
+  }
+
+  private static double percentile(long[] sorted, double fraction) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+    return sorted[Math.max(0, index)] / 1e6;
+  }
+
+  /**
+   * One connection sending requests back to back until the deadline.
+   */
+  private static final class Worker extends Thread {
+    private final Connection connection;
+    private final int firstId;
+    private final int pets;
+    private final long deadline;
+    private long[] latencies = new long[1 << 16];
+    private int count;
+    private long errors;
+    private Exception failure;
+
+    private Worker(Connection connection, int firstId, int pets, long deadline) {
+      super("load-" + connection.socket.getLocalPort());
+      this.connection = connection;
+      this.firstId = firstId;
+      this.pets = pets;
+      this.deadline = deadline;
+    }
+
+    @Override
+    public void run() {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      try (Connection c = connection) {
+        long now = System.nanoTime();
+        while (now < deadline) {
+          int id = firstId + random.nextInt(pets);
+          int kind = random.nextInt(10);
+          String request;
+          if (kind < 8) {
+            request = "GET /pets/" + id;
+          } else if (kind == 8) {
+            request = "POST /pets/" + id + "/actions?action="
+                + ACTIONS[random.nextInt(ACTIONS.length)];
+          } else {
+            request = "POST /pets/" + id + "/step";
+          }
+          int status = c.send(request);
+          long end = System.nanoTime();
+          if (status >= 300) {
+            errors++;
+          }
+          if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+          }
+          latencies[count++] = end - now;
+          now = end;
+        }
+      } catch (Exception e) {
+        failure = e;
+      }
+    }
+  }
+
+  /**
+   * A keep-alive HTTP/1.1 connection that reads each response fully before the next request.
+   */
+  private static final class Connection implements AutoCloseable {
+    private final Socket socket;
+    private final OutputStream out;
+    private final InputStream in;
+    private final String hostHeader;
+    private final StringBuilder line = new StringBuilder();
+    private byte[] body = new byte[0];
+
+    private Connection(String host, int port) throws IOException {
+      socket = new Socket(host, port);
+      socket.setTcpNoDelay(true);
+      out = new BufferedOutputStream(socket.getOutputStream(), 1024);
+      in = new BufferedInputStream(socket.getInputStream(), 8192);
+      hostHeader = "\r\nHost: " + host + ":" + port + "\r\nContent-Length: 0\r\n\r\n";
+    }
+
+    /**
+     * Creates pets through the API, cycling through the species, and returns the first id.
+     */
+    private int createPets(int pets) throws IOException {
+      int firstId = -1;
+      for (int i = 0; i < pets; i++) {
+        if (send("POST /pets?species=" + SPECIES[i % SPECIES.length]) != 201) {
+          throw new IOException("Could not create pet: " + new String(body,
+              StandardCharsets.UTF_8));
+        }
+        if (i == 0) {
+          String text = new String(body, StandardCharsets.UTF_8);
+          firstId = Integer.parseInt(text.substring(text.indexOf(':') + 1, text.indexOf(',')));
+        }
+      }
+      return firstId;
+    }
+
+    /**
+     * Sends "METHOD target" and returns the response status, keeping the body in {@link #body}.
+     */
+    private int send(String requestLine) throws IOException {
+      out.write((requestLine + " HTTP/1.1" + hostHeader).getBytes(StandardCharsets.US_ASCII));
+      out.flush();
+
+      String statusLine = readLine();
+      int status = Integer.parseInt(statusLine.substring(9, 12));
+      int length = 0;
+      for (String header = readLine(); !header.isEmpty(); header = readLine()) {
+        if (header.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+          length = Integer.parseInt(header.substring(15).trim());
+        }
+      }
+      body = new byte[length];
+      int read = 0;
+      while (read < length) {
+        int n = in.read(body, read, length - read);
+        if (n < 0) {
+          throw new EOFException("Connection closed mid-response");
+        }
+        read += n;
+      }
+      return status;
+    }
+
+    private String readLine() throws IOException {
+      line.setLength(0);
+      for (int b = in.read(); b != '\n'; b = in.read()) {
+        if (b < 0) {
+          throw new EOFException("Connection closed by server");
+        }
+        if (b != '\r') {
+          line.append((char) b);
+        }
+      }
+      return line.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+      socket.close();
+    }
+  }
+}
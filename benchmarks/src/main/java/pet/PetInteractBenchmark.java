@@ -0,0 +1,56 @@
+package pet;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks AbstractPet.interactWith(Action) for each species and action.
+ * A pet that dies (PLAY keeps raising hunger) is reset so every invocation does real work.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PetInteractBenchmark {
+  @Param({"PET", "FOX", "SNAKE"})
+  public Species species;
+
+  @Param({"FEED", "PLAY", "CLEAN", "SLEEP"})
+  public Action action;
+
+  private AbstractPet pet;
+
+  /**
+   * Creates a pet of the benchmarked species.
+   */
+  @Setup
+  public void setUp() {
+    pet = species.createPet();
+  }
+
+  /**
+   * Applies the benchmarked action once, resetting the pet if it died.
+   *
+   * @return the pet's mood, so the interaction cannot be optimized away
+   */
+  @Benchmark
+  public MoodEnum interactWith() {
+    pet.interactWith(action);
+    if (pet.isDead()) {
+      pet.setHealthStateAndUpdateState(50, 50, 50, 50);
+    }
+    return pet.getMood();
+  }
+}
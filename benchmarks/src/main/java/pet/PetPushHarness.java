@@ -0,0 +1,331 @@
+package pet;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.StringJoiner;
+
+/**
+ * Exercises the event streams of {@link PetHttpServer} with many simulated subscribers. An
+ * in-process server serves a population that a driver thread changes at a fixed rate, while one
+ * selector thread reads every subscriber's stream. Some subscribers are slow: they read nothing
+ * until the driver stops, so their sockets fill up and the server has to coalesce their updates.
+ *
+ * <p>It reports events delivered against the events an uncoalesced push would have sent, and
+ * finally checks that every subscriber, fast or slow, ends up with the latest state of each of
+ * its pets. Options: {@code --subscribers N}, {@code --pets N}, {@code --pets-per-subscriber N},
+ * {@code --slow PERCENT}, {@code --changes-per-second N}, {@code --push-millis N},
+ * {@code --threads N} and {@code --seconds N}.
+ */
+public final class PetPushHarness {
+  private static final Action[] ACTIONS = Action.values();
+
+  private PetPushHarness() {
+  }
+
+  /**
+   * Runs the harness and prints its report.
+   *
+   * @param args the options
+   * @throws Exception if the server cannot be started or a subscriber fails
+   */
+  public static void main(String[] args) throws Exception {
+    int subscriberCount = 2000;
+    int petCount = 1000;
+    int petsPerSubscriber = 10;
+    int slowPercent = 10;
+    int changesPerSecond = 20_000;
+    long pushMillis = PetHttpServer.DEFAULT_PUSH_INTERVAL_MILLIS;
+    int threads = Runtime.getRuntime().availableProcessors();
+    int seconds = 10;
+    for (int i = 0; i < args.length; i += 2) {
+      int value = Integer.parseInt(args[i + 1]);
+      switch (args[i]) {
+        case "--subscribers":
+          subscriberCount = value;
+          break;
+        case "--pets":
+          petCount = value;
+          break;
+        case "--pets-per-subscriber":
+          petsPerSubscriber = value;
+          break;
+        case "--slow":
+          slowPercent = value;
+          break;
+        case "--changes-per-second":
+          changesPerSecond = value;
+          break;
+        case "--push-millis":
+          pushMillis = value;
+          break;
+        case "--threads":
+          threads = value;
+          break;
+        case "--seconds":
+          seconds = value;
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option: " + args[i]);
+      }
+    }
+
+    InetAddress loopback = InetAddress.getLoopbackAddress();
+    try (PetHttpServer server = new PetHttpServer(new InetSocketAddress(loopback, 0), threads,
+        pushMillis)) {
+      server.start();
+      Species[] species = Species.values();
+      int firstId = server.createPet(species[0]);
+      for (int i = 1; i < petCount; i++) {
+        server.createPet(species[i % species.length]);
+      }
+
+      SplittableRandom random = new SplittableRandom(42);
+      // Streams per pet, fast ones in [0] and slow ones in [1]
+      int[][] subscribersPerPet = new int[2][petCount];
+      List<Subscriber> subscribers = new ArrayList<>(subscriberCount);
+      Selector selector = Selector.open();
+      for (int i = 0; i < subscriberCount; i++) {
+        int[] ids = random.ints(petsPerSubscriber, 0, petCount).distinct().toArray();
+        boolean slow = i * 100L < (long) subscriberCount * slowPercent;
+        for (int id : ids) {
+          subscribersPerPet[slow ? 1 : 0][id]++;
+        }
+        Subscriber subscriber = new Subscriber(ids, firstId, slow);
+        subscriber.connect(new InetSocketAddress(loopback, server.getPort()), selector);
+        subscribers.add(subscriber);
+      }
+
+      Reader reader = new Reader(selector);
+      reader.start();
+      // Every fast subscriber has the initial state before the driver starts
+      long initial = 0;
+      for (Subscriber subscriber : subscribers) {
+        initial += subscriber.slow ? 0 : subscriber.ids.length;
+      }
+      while (reader.fastEvents() < initial) {
+        Thread.sleep(10);
+      }
+      long before = reader.fastEvents();
+
+      long changes = 0;
+      long uncoalescedFast = 0;
+      long uncoalescedSlow = 0;
+      long intervalNanos = 1_000_000;
+      int perInterval = Math.max(1, changesPerSecond / 1000);
+      long start = System.nanoTime();
+      long next = start;
+      long end = start + seconds * 1_000_000_000L;
+      while (next < end) {
+        for (int i = 0; i < perInterval; i++) {
+          int index = random.nextInt(petCount);
+          if (random.nextInt(4) == 0) {
+            server.step(firstId + index, 1);
+          } else {
+            server.interactWith(firstId + index, ACTIONS[random.nextInt(ACTIONS.length)]);
+          }
+          changes++;
+          uncoalescedFast += subscribersPerPet[0][index];
+          uncoalescedSlow += subscribersPerPet[1][index];
+        }
+        next += intervalNanos;
+        long sleep = next - System.nanoTime();
+        if (sleep > 0) {
+          Thread.sleep(sleep / 1_000_000, (int) (sleep % 1_000_000));
+        }
+      }
+      double elapsed = (System.nanoTime() - start) / 1e9;
+      long delivered = reader.fastEvents() - before;
+
+      // Let the last push arrive and the slow subscribers catch up, until nothing more comes
+      reader.releaseSlow();
+      long quietMillis = Math.max(500, pushMillis * 5);
+      for (long seen = -1; seen != reader.allEvents(); ) {
+        seen = reader.allEvents();
+        Thread.sleep(quietMillis);
+      }
+      reader.interrupt();
+      reader.join();
+
+      int fastCurrent = 0;
+      int slowCurrent = 0;
+      long slowEvents = 0;
+      int slowCount = 0;
+      for (Subscriber subscriber : subscribers) {
+        boolean current = subscriber.isCurrent(server);
+        if (subscriber.slow) {
+          slowCount++;
+          slowEvents += subscriber.events;
+          slowCurrent += current ? 1 : 0;
+        } else {
+          fastCurrent += current ? 1 : 0;
+        }
+        subscriber.channel.close();
+      }
+      int fastCount = subscriberCount - slowCount;
+      System.out.printf(Locale.ROOT, "%d subscribers (%d slow), %d pets, %d pets each, push every "
+          + "%d ms, %d loop threads%n", subscriberCount, slowCount, petCount, petsPerSubscriber,
+          pushMillis, threads);
+      System.out.printf(Locale.ROOT, "%,d changes in %.1f s (%,.0f/s)%n", changes, elapsed,
+          changes / elapsed);
+      System.out.printf(Locale.ROOT, "fast subscribers: %,d events (%,.0f/s, %.1f per subscriber "
+          + "per push), uncoalesced push would send %,d (%.1fx)%n", delivered, delivered / elapsed,
+          fastCount == 0 ? 0.0 : delivered / (double) fastCount / (elapsed * 1000 / pushMillis),
+          uncoalescedFast, delivered == 0 ? 0.0 : uncoalescedFast / (double) delivered);
+      System.out.printf(Locale.ROOT, "slow subscribers: %,d events in total, %.1f each, "
+          + "uncoalesced push would send %,d%n", slowEvents,
+          slowCount == 0 ? 0.0 : slowEvents / (double) slowCount, uncoalescedSlow);
+      System.out.printf(Locale.ROOT, "latest state received: %d/%d fast, %d/%d slow%n",
+          fastCurrent, fastCount, slowCurrent, slowCount);
+      selector.close();
+    }
+  }
+
+  /**
+   * One event stream and the last state it received for each of its pets.
+   */
+  private static final class Subscriber {
+    private final int[] ids;
+    private final int firstId;
+    private final boolean slow;
+    private final Map<Integer, String> latest = new HashMap<>();
+    private final StringBuilder line = new StringBuilder();
+    private SocketChannel channel;
+    private SelectionKey key;
+    private long events;
+
+    private Subscriber(int[] ids, int firstId, boolean slow) {
+      this.ids = ids;
+      this.firstId = firstId;
+      this.slow = slow;
+    }
+
+    private void connect(InetSocketAddress address, Selector selector) throws IOException {
+      channel = SocketChannel.open();
+      if (slow) {
+        // A small window fills within seconds, so the server sees a consumer that cannot keep up
+        channel.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+      }
+      channel.connect(address);
+      StringJoiner list = new StringJoiner(",");
+      for (int id : ids) {
+        list.add(Integer.toString(firstId + id));
+      }
+      channel.write(ByteBuffer.wrap(("GET /events?pets=" + list + " HTTP/1.1\r\nHost: localhost"
+          + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII)));
+      channel.configureBlocking(false);
+      key = channel.register(selector, slow ? 0 : SelectionKey.OP_READ, this);
+    }
+
+    /**
+     * Splits received bytes into lines, keeping the data of each event by pet id.
+     */
+    private void consume(ByteBuffer buffer) {
+      while (buffer.hasRemaining()) {
+        char c = (char) buffer.get();
+        if (c != '\n') {
+          line.append(c);
+          continue;
+        }
+        if (line.length() > 6 && line.charAt(0) == 'd' && line.indexOf("data: ") == 0) {
+          String data = line.substring(6);
+          int id = Integer.parseInt(data.substring(6, data.indexOf(',')));
+          latest.put(id, data);
+          events++;
+        }
+        line.setLength(0);
+      }
+    }
+
+    private boolean isCurrent(PetHttpServer server) {
+      for (int id : ids) {
+        String data = latest.get(firstId + id);
+        PetInterface pet = server.getPet(firstId + id);
+        HealthStatus health = pet.getHealth();
+        String expected = "\"health\":{\"hunger\":" + health.getHunger() + ",\"hygiene\":"
+            + health.getHygiene() + ",\"social\":" + health.getSocial() + ",\"sleep\":"
+            + health.getSleep() + "},\"mood\":\"" + pet.getMood().name() + "\",\"dead\":"
+            + pet.isDead() + "}";
+        if (data == null || !data.endsWith(expected)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Reads every subscriber on one selector thread.
+   */
+  private static final class Reader extends Thread {
+    private final Selector selector;
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private volatile long fastEvents;
+    private volatile long allEvents;
+    private volatile boolean releaseSlow;
+
+    private Reader(Selector selector) {
+      super("push-subscribers");
+      this.selector = selector;
+    }
+
+    private long fastEvents() {
+      return fastEvents;
+    }
+
+    private long allEvents() {
+      return allEvents;
+    }
+
+    private void releaseSlow() {
+      releaseSlow = true;
+      selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+      boolean released = false;
+      try {
+        while (!isInterrupted()) {
+          selector.select(100);
+          if (releaseSlow && !released) {
+            released = true;
+            for (SelectionKey key : selector.keys()) {
+              key.interestOps(SelectionKey.OP_READ);
+            }
+          }
+          for (SelectionKey key : selector.selectedKeys()) {
+            Subscriber subscriber = (Subscriber) key.attachment();
+            long before = subscriber.events;
+            buffer.clear();
+            while (subscriber.channel.read(buffer) > 0) {
+              buffer.flip();
+              subscriber.consume(buffer);
+              buffer.clear();
+            }
+            // Counted per stream, since one pass over a backlog of streams can take a while
+            allEvents += subscriber.events - before;
+            if (!subscriber.slow) {
+              fastEvents += subscriber.events - before;
+            }
+          }
+          selector.selectedKeys().clear();
+        }
+      } catch (IOException e) {
+        throw new IllegalStateException("Subscriber failed", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package pet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks writing and reading whole-population snapshots with PetSnapshotCodec, raw and
+ * LZ4-compressed. The population is stepped a few times first, so records are not all equal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Thread)
+public class PetSnapshotBenchmark {
+  @Param({"2000000"})
+  public int size;
+
+  @Param({"false", "true"})
+  public boolean compress;
+
+  private PetPopulation population;
+  private byte[] snapshot;
+  private ByteArrayOutputStream out;
+
+  /**
+   * Creates a seeded population and one snapshot of it to read back.
+   *
+   * @throws IOException never, the snapshot is written to memory
+   */
+  @Setup
+  public void setUp() throws IOException {
+    population = new PetPopulation(size);
+    population.setRandomSource(new SplittableRandom(11));
+    Species[] species = Species.values();
+    for (int i = 0; i < size; i++) {
+      population.add(species[i % species.length]);
+    }
+    for (int step = 0; step < 12; step++) {
+      population.stepAll();
+      population.interactWith((step * 7919) % size, Action.values()[step % 4]);
+    }
+    out = new ByteArrayOutputStream(size * PetSnapshotCodec.RECORD_BYTES + 1024);
+    PetSnapshotCodec.write(population, out, compress);
+    snapshot = out.toByteArray();
+  }
+
+  /**
+   * Measures writing the population into a reused in-memory buffer.
+   *
+   * @return the snapshot size in bytes
+   * @throws IOException never, the snapshot is written to memory
+   */
+  @Benchmark
+  public int write() throws IOException {
+    out.reset();
+    PetSnapshotCodec.write(population, out, compress);
+    return out.size();
+  }
+
+  /**
+   * Measures restoring the population from its snapshot.
+   *
+   * @return the restored population
+   * @throws IOException if the snapshot is corrupt
+   */
+  @Benchmark
+  public PetPopulation read() throws IOException {
+    return PetSnapshotCodec.read(new ByteArrayInputStream(snapshot));
+  }
+}
@@ -0,0 +1,55 @@
+package pet;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks AbstractPet.step() for each species.
+ * A pet that dies is reset to default health so every invocation measures a real step.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PetStepBenchmark {
+  @Param({"PET", "FOX", "SNAKE"})
+  public Species species;
+
+  private AbstractPet pet;
+
+  /**
+   * Creates a seeded pet of the benchmarked species.
+   */
+  @Setup
+  public void setUp() {
+    pet = species.createPet();
+    pet.setRandomSource(new SplittableRandom(42));
+  }
+
+  /**
+   * Steps the pet once, resetting it if it died.
+   *
+   * @return the pet's mood, so the step cannot be optimized away
+   */
+  @Benchmark
+  public MoodEnum step() {
+    pet.step();
+    if (pet.isDead()) {
+      pet.setHealthStateAndUpdateState(50, 50, 50, 50);
+    }
+    return pet.getMood();
+  }
+}
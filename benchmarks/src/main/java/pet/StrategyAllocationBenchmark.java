@@ -0,0 +1,68 @@
+package pet;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Allocation benchmark for mood strategies. Run it through the {@code jmh} task, whose
+ * {@code -prof gc} reports the bytes allocated per step as gc.alloc.rate.norm. With the shared
+ * MoodStrategyRegistry a step allocates nothing and a pet only ever sees its species' two
+ * registered strategies, which the teardown checks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StrategyAllocationBenchmark {
+  @Param({"PET", "FOX", "SNAKE"})
+  public Species species;
+
+  private AbstractPet pet;
+
+  /**
+   * Creates a pet of the benchmarked species.
+   */
+  @Setup
+  public void setUp() {
+    pet = species.createPet();
+  }
+
+  /**
+   * Steps the pet once, keeping it alive so every invocation takes the full step path.
+   *
+   * @return the strategy the pet uses after the step
+   */
+  @Benchmark
+  public AbstractMoodStrategy step() {
+    pet.step();
+    if (pet.isDead()) {
+      pet.setHealthStateAndUpdateState(50, 50, 50, 50);
+      pet.revive();
+    }
+    return pet.moodStrategy;
+  }
+
+  /**
+   * Fails the run if stepping ever created a strategy instead of using a registered one.
+   */
+  @TearDown(Level.Iteration)
+  public void checkSharedStrategy() {
+    if (pet.moodStrategy != MoodStrategyRegistry.get(species, pet.getMood())) {
+      throw new IllegalStateException("Strategy for " + species + " is not the shared instance");
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package pet;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the TimingWheel with a ScheduledThreadPoolExecutor at a million scheduled pets.
+ * <ul>
+ *   <li>{@code *ScheduleAndFireAll}: schedule every pet once with a delay of 1-100 ticks
+ *   (microseconds for the executor) and run them all.</li>
+ *   <li>{@code *ScheduleCancel}: add and cancel one task while all pets are scheduled,
+ *   the churn of pets joining and leaving.</li>
+ *   <li>{@code wheelTick}: one tick of the wheel with every pet repeating at an interval of
+ *   50-149 ticks, about 10k steps per tick.</li>
+ * </ul>
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TimingWheelBenchmark {
+  private static final int DELAY_SPREAD = 100;
+  private static final int MIN_INTERVAL = 50;
+
+  @Param({"1000000"})
+  public int pets;
+
+  private List<AbstractPet> population;
+  private TimingWheel steadyWheel;
+  private TimingWheel churnWheel;
+  private ScheduledThreadPoolExecutor churnExecutor;
+  private final Runnable noop = () -> { };
+
+  /**
+   * Creates the pets and the fully populated schedulers used by the per-operation benchmarks.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    population = HeadlessRunner.createPopulation(pets,
+        HeadlessRunner.parseSpeciesMix("PET=1,FOX=1,SNAKE=1"));
+
+    steadyWheel = new TimingWheel();
+    churnWheel = new TimingWheel();
+    // Long delays so nothing fires while the executor holds all pets
+    churnExecutor = new ScheduledThreadPoolExecutor(1);
+    churnExecutor.setRemoveOnCancelPolicy(true);
+    for (int i = 0; i < pets; i++) {
+      AbstractPet pet = population.get(i);
+      steadyWheel.schedulePet(pet, MIN_INTERVAL + i % DELAY_SPREAD);
+      churnWheel.schedulePet(pet, 1_000_000 + i);
+      churnExecutor.scheduleAtFixedRate(pet::step, 3600 + i, 3600, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * Stops the executor threads.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    churnExecutor.shutdownNow();
+  }
+
+  /**
+   * Schedules every pet once on a new wheel and advances until all have stepped.
+   *
+   * @return the number of tasks left, always 0
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Warmup(iterations = 3)
+  @Measurement(iterations = 10)
+  public int wheelScheduleAndFireAll() {
+    TimingWheel wheel = new TimingWheel();
+    for (int i = 0; i < pets; i++) {
+      wheel.scheduleOnce(population.get(i)::step, 1 + i % DELAY_SPREAD);
+    }
+    wheel.advanceTo(DELAY_SPREAD);
+    return wheel.size();
+  }
+
+  /**
+   * Schedules every pet once on a new executor and waits until all have stepped.
+   *
+   * @return the number of tasks left, always 0
+   * @throws InterruptedException if interrupted while waiting
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Warmup(iterations = 3)
+  @Measurement(iterations = 10)
+  public long executorScheduleAndFireAll() throws InterruptedException {
+    ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+    CountDownLatch done = new CountDownLatch(pets);
+    for (int i = 0; i < pets; i++) {
+      AbstractPet pet = population.get(i);
+      executor.schedule(() -> {
+        pet.step();
+        done.countDown();
+      }, 1 + i % DELAY_SPREAD, TimeUnit.MICROSECONDS);
+    }
+    done.await();
+    executor.shutdownNow();
+    return done.getCount();
+  }
+
+  /**
+   * Advances the steady-state wheel by one tick.
+   *
+   * @return the number of scheduled tasks
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Warmup(iterations = 3, time = 1)
+  @Measurement(iterations = 5, time = 1)
+  public int wheelTick() {
+    steadyWheel.advance();
+    return steadyWheel.size();
+  }
+
+  /**
+   * Adds and cancels one task on a wheel holding every pet.
+   *
+   * @return whether the task was cancelled
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 3, time = 1)
+  @Measurement(iterations = 5, time = 1)
+  public boolean wheelScheduleCancel() {
+    TimingWheel.Timeout timeout = churnWheel.scheduleRepeating(noop, 5000);
+    churnWheel.cancel(timeout);
+    return timeout.isCancelled();
+  }
+
+  /**
+   * Adds and cancels one task on an executor holding every pet.
+   *
+   * @return whether the task was cancelled
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 3, time = 1)
+  @Measurement(iterations = 5, time = 1)
+  public boolean executorScheduleCancel() {
+    ScheduledFuture<?> future = churnExecutor.scheduleAtFixedRate(noop, 5000, 5000,
+        TimeUnit.SECONDS);
+    return future.cancel(false);
+  }
+}
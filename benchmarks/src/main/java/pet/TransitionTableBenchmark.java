@@ -0,0 +1,123 @@
+package pet;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the strategy classes against the precomputed TransitionTable for happy steps,
+ * interactions and the mood threshold check. Inputs come from a table of random health values
+ * and cycle through all actions so neither the values nor the switch are predictable.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TransitionTableBenchmark {
+  private static final int TABLE_SIZE = 1024;
+  private static final Action[] ACTIONS = Action.values();
+
+  @Param({"PET", "FOX", "SNAKE"})
+  public Species species;
+
+  private AbstractMoodStrategy happyStrategy;
+  private TransitionTable table;
+  private long[] healths;
+  private int index;
+
+  /**
+   * Builds the random packed health values.
+   */
+  @Setup
+  public void setUp() {
+    happyStrategy = MoodStrategyRegistry.get(species, MoodEnum.HAPPY);
+    table = TransitionTable.of(species);
+    SplittableRandom random = new SplittableRandom(42);
+    healths = new long[TABLE_SIZE];
+    for (int i = 0; i < healths.length; i++) {
+      healths[i] = HealthStatus.pack(random.nextInt(101), random.nextInt(101),
+          random.nextInt(101), random.nextInt(101));
+    }
+  }
+
+  private int next() {
+    index = (index + 1) & (TABLE_SIZE - 1);
+    return index;
+  }
+
+  /**
+   * Happy step through HappyStrategy arithmetic.
+   *
+   * @return the new packed health
+   */
+  @Benchmark
+  public long strategyStep() {
+    return happyStrategy.applyStep(healths[next()]);
+  }
+
+  /**
+   * Happy step through table lookups.
+   *
+   * @return the new packed health
+   */
+  @Benchmark
+  public long tableStep() {
+    return table.applyStep(healths[next()], MoodEnum.HAPPY, null);
+  }
+
+  /**
+   * Interaction through the HappyStrategy switch.
+   *
+   * @return the new packed health
+   */
+  @Benchmark
+  public long strategyInteraction() {
+    int i = next();
+    return happyStrategy.applyInteraction(healths[i], ACTIONS[i & 3]);
+  }
+
+  /**
+   * Interaction through table lookups.
+   *
+   * @return the new packed health
+   */
+  @Benchmark
+  public long tableInteraction() {
+    int i = next();
+    return table.applyInteraction(healths[i], MoodEnum.HAPPY, ACTIONS[i & 3]);
+  }
+
+  /**
+   * Mood threshold check through comparisons.
+   *
+   * @return whether the values are sad
+   */
+  @Benchmark
+  public boolean speciesIsSad() {
+    long health = healths[next()];
+    return species.isSadCondition(HealthStatus.hungerOf(health), HealthStatus.hygieneOf(health),
+        HealthStatus.socialOf(health), HealthStatus.sleepOf(health));
+  }
+
+  /**
+   * Mood threshold check through flag lookups.
+   *
+   * @return whether the values are sad
+   */
+  @Benchmark
+  public boolean tableIsSad() {
+    return table.isSad(healths[next()]);
+  }
+}
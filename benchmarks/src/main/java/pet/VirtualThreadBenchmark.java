@@ -0,0 +1,109 @@
+package pet;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares one virtual thread per pet with the pooled HeadlessRunner scheduler.
+ * For each population size it reports the heap each mode adds per pet once the pets are running, and
+ * how late steps start: the wake-up jitter of the pet threads versus the start lag of the pooled
+ * ticks. It is a plain main rather than a JMH benchmark because both numbers come from one long
+ * run, not from repeated operations.
+ *
+ * <p>Arguments: population sizes (default 100000 and 1000000), then {@code --seconds N} and
+ * {@code --tick-millis N}. Run it on Java 21 or newer; on older runtimes the per-pet mode falls
+ * back to platform threads and is skipped above 10000 pets.
+ */
+public final class VirtualThreadBenchmark {
+  private VirtualThreadBenchmark() {
+  }
+
+  /**
+   * Runs both modes for each population size and prints one line per run.
+   *
+   * @param args population sizes and options
+   * @throws InterruptedException if interrupted while running
+   */
+  public static void main(String[] args) throws InterruptedException {
+    int seconds = 20;
+    long tickMillis = 1000;
+    List<Integer> sizes = new ArrayList<>();
+    for (int i = 0; i < args.length; i++) {
+      if ("--seconds".equals(args[i])) {
+        seconds = Integer.parseInt(args[++i]);
+      } else if ("--tick-millis".equals(args[i])) {
+        tickMillis = Long.parseLong(args[++i]);
+      } else {
+        sizes.add(Integer.parseInt(args[i]));
+      }
+    }
+    if (sizes.isEmpty()) {
+      sizes = List.of(100_000, 1_000_000);
+    }
+    System.out.printf(Locale.ROOT, "Java %s, virtual threads %s, tick %d ms, %d s per run%n",
+        Runtime.version(), VirtualThreadPetRunner.isVirtualThreadSupported() ? "on" : "off",
+        tickMillis, seconds);
+    for (int size : sizes) {
+      runPooled(size, tickMillis, seconds);
+      if (VirtualThreadPetRunner.isVirtualThreadSupported()
+          || size <= VirtualThreadPetRunner.MAX_PLATFORM_THREADS) {
+        runPerPet(size, tickMillis, seconds);
+      } else {
+        System.out.printf(Locale.ROOT, "per-pet %,9d pets: skipped without virtual threads%n",
+            size);
+      }
+    }
+  }
+
+  private static void runPooled(int size, long tickMillis, int seconds)
+      throws InterruptedException {
+    List<AbstractPet> pets = createPets(size);
+    long baseline = usedHeap();
+    try (HeadlessRunner runner = new HeadlessRunner(pets, 1000.0 / tickMillis)) {
+      runner.start();
+      Thread.sleep(seconds * 1000L);
+      long perPet = (usedHeap() - baseline) / size;
+      runner.close();
+      RunnerStats stats = runner.getStats();
+      System.out.printf(Locale.ROOT,
+          "pooled  %,9d pets: %,6d B/pet, lag max %,8.2f ms, tick p99 %,8.2f ms, %,.0f steps/s%n",
+          size, perPet, stats.getMaxLagNanos() / 1e6, stats.getP99LatencyNanos() / 1e6,
+          stats.getStepsPerSecond());
+    }
+  }
+
+  private static void runPerPet(int size, long tickMillis, int seconds)
+      throws InterruptedException {
+    List<AbstractPet> pets = createPets(size);
+    long baseline = usedHeap();
+    try (VirtualThreadPetRunner runner = new VirtualThreadPetRunner(pets, tickMillis * 1_000_000)) {
+      runner.start();
+      Thread.sleep(seconds * 1000L);
+      long perPet = (usedHeap() - baseline) / size;
+      runner.close();
+      System.out.printf(Locale.ROOT,
+          "%s %,9d pets: %,6d B/pet, jitter mean %,8.2f ms, p99 < %,8.2f ms, max %,8.2f ms,"
+              + " %,.0f steps/s%n",
+          runner.usesVirtualThreads() ? "virtual" : "platform", size, perPet,
+          runner.getMeanJitterNanos() / 1e6, runner.getJitterPercentileNanos(0.99) / 1e6,
+          runner.getMaxJitterNanos() / 1e6, runner.getTicks() / (double) seconds);
+    }
+  }
+
+  private static List<AbstractPet> createPets(int size) {
+    return HeadlessRunner.createPopulation(size,
+        HeadlessRunner.parseSpeciesMix("PET=1,FOX=1,SNAKE=1"));
+  }
+
+  private static long usedHeap() throws InterruptedException {
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      Thread.sleep(100);
+    }
+    return memory.getHeapMemoryUsage().getUsed();
+  }
+}
@@ -1,21 +1,107 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JFrame;
+import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
+import pet.ConcurrentPet;
+import pet.HeadlessRunner;
+import pet.ParallelStepper;
+import pet.PetDashboard;
+import pet.PetHttpServer;
 import pet.PetView;
+import pet.Species;
 
 /**
  * Main class to start the Pet Game application.
  * This class initializes the view and starts the game.
  */
 public class Main {
+  // Pets shown by the dashboard when no count is given
+  private static final int DEFAULT_DASHBOARD_PETS = 500;
+  // Time in milliseconds between dashboard simulation steps, as in the single pet game
+  private static final int DASHBOARD_STEP_INTERVAL = 5000;
+
   /**
    * Main method to start the application.
    * It creates the view and initializes the controller.
+   * With {@code --dashboard [count]} it instead shows a dashboard of many simulated pets,
+   * with {@code --headless [options]} it runs a population without any display, and with
+   * {@code --serve [options]} it serves pets over a local HTTP/JSON API.
    *
-   * @param args command line arguments (not used)
+   * @param args command line arguments, optionally {@code --dashboard [count]},
+   *             {@code --headless [options]} or {@code --serve [options]}
+   * @throws InterruptedException if the headless run is interrupted
+   * @throws IOException          if the server port cannot be bound
    */
-  public static void main(String[] args) {
+  public static void main(String[] args) throws InterruptedException, IOException {
+    if (args.length > 0 && args[0].equals("--serve")) {
+      PetHttpServer.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--headless")) {
+      HeadlessRunner.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--dashboard")) {
+      int count;
+      try {
+        count = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_DASHBOARD_PETS;
+        if (count <= 0 || args.length > 2) {
+          throw new IllegalArgumentException("Pet count must be a single positive number");
+        }
+      } catch (IllegalArgumentException e) {
+        System.err.println("Invalid arguments: " + e.getMessage());
+        System.err.println("Usage: --dashboard [COUNT]");
+        System.exit(2);
+        return;
+      }
+      SwingUtilities.invokeLater(() -> showDashboard(count));
+      return;
+    }
+
     // Create the view first (without a pet)
     PetView view = new PetView();
 
     // Let the view handle initial pet selection and then start the controller
     // The controller will be initialized in the view after pet selection
   }
-}
\ No newline at end of file
+
+  /**
+   * Shows a dashboard of randomly mixed pets, stepped in parallel off the EDT. Each pet is wrapped
+   * in a ConcurrentPet, so the EDT paints the state published by the last step.
+   *
+   * @param count the number of pets
+   */
+  private static void showDashboard(int count) {
+    PetDashboard dashboard = new PetDashboard();
+    List<ConcurrentPet> pets = new ArrayList<>(count);
+    Species[] species = Species.values();
+    for (int i = 0; i < count; i++) {
+      Species petSpecies = species[i % species.length];
+      ConcurrentPet pet = new ConcurrentPet(petSpecies.createPet());
+      pets.add(pet);
+      dashboard.addPet(pet, petSpecies);
+    }
+
+    ParallelStepper stepper = new ParallelStepper(pets);
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "dashboard-stepper");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleAtFixedRate(stepper::tick, DASHBOARD_STEP_INTERVAL,
+        DASHBOARD_STEP_INTERVAL, TimeUnit.MILLISECONDS);
+
+    JFrame frame = new JFrame("Virtual Pet Dashboard (" + count + " pets)");
+    frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+    frame.add(new JScrollPane(dashboard));
+    frame.pack();
+    frame.setLocationRelativeTo(null);
+    frame.setVisible(true);
+  }
+}
@@ -1,5 +1,8 @@
 package pet;
 
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
 /**
  * Abstract base class for different mood-based strategies.
  * This class defines how a pet's mood affects its behavior.
@@ -40,7 +43,10 @@ public abstract class AbstractMoodStrategy implements MoodStrategy {
    * @param action The action being performed
    * @return The new health status after the interaction
    */
-  public abstract HealthStatus applyInteraction(HealthStatus health, Action action);
+  @Override
+  public HealthStatus applyInteraction(HealthStatus health, Action action) {
+    return unpack(applyInteraction(packSaturated(health), action), health);
+  }
 
   /**
    * Applies the natural changes that occur each step based on the pet's mood.
@@ -48,7 +54,27 @@ public abstract class AbstractMoodStrategy implements MoodStrategy {
    * @param health The current health status of the pet
    * @return The new health status after a step passes
    */
-  public abstract HealthStatus applyStep(HealthStatus health);
+  @Override
+  public HealthStatus applyStep(HealthStatus health) {
+    return unpack(applyStep(packSaturated(health)), health);
+  }
+
+  @Override
+  public abstract long applyInteraction(long health, Action action);
+
+  /**
+   * Applies the natural changes of one step using the calling thread's random generator.
+   *
+   * @param health The current packed health of the pet
+   * @return The new packed health after a step passes
+   */
+  @Override
+  public long applyStep(long health) {
+    return applyStep(health, ThreadLocalRandom.current());
+  }
+
+  @Override
+  public abstract long applyStep(long health, RandomGenerator random);
 
   /**
    * Helper method to ensure values stay within the valid range [0-100].
@@ -57,5 +83,44 @@ public abstract class AbstractMoodStrategy implements MoodStrategy {
     return Math.max(VALUE_FLOOR, Math.min(VALUE_CEILING, value));
   }
 
+  // The object API has always accepted any int, while packed lanes hold 16 bits. Values beyond
+  // that are saturated for the computation, which gives the same result for every lane a
+  // strategy changes, and a lane it left alone is handed back exactly as given.
+
+  private static long packSaturated(HealthStatus health) {
+    return HealthStatus.pack(saturate(health.getHunger()), saturate(health.getHygiene()),
+        saturate(health.getSocial()), saturate(health.getSleep()));
+  }
+
+  private static HealthStatus unpack(long result, HealthStatus original) {
+    return new HealthStatus(
+        restore(HealthStatus.hungerOf(result), original.getHunger()),
+        restore(HealthStatus.hygieneOf(result), original.getHygiene()),
+        restore(HealthStatus.socialOf(result), original.getSocial()),
+        restore(HealthStatus.sleepOf(result), original.getSleep()));
+  }
+
+  private static int saturate(int value) {
+    return Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+  }
+
+  private static int restore(int result, int original) {
+    int saturated = saturate(original);
+    // A changed lane is clamped into [0-100], so it can only equal a saturated input if untouched
+    return saturated != original && result == saturated ? original : result;
+  }
+
+  /**
+   * Clamps every lane of packed health values into the valid range [0-100], e.g. before
+   * narrowing them to bytes.
+   */
+  static long clampHealth(long health) {
+    return HealthStatus.pack(
+        Math.max(VALUE_FLOOR, Math.min(VALUE_CEILING, HealthStatus.hungerOf(health))),
+        Math.max(VALUE_FLOOR, Math.min(VALUE_CEILING, HealthStatus.hygieneOf(health))),
+        Math.max(VALUE_FLOOR, Math.min(VALUE_CEILING, HealthStatus.socialOf(health))),
+        Math.max(VALUE_FLOOR, Math.min(VALUE_CEILING, HealthStatus.sleepOf(health))));
+  }
+
 
 }
\ No newline at end of file
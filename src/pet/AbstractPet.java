@@ -1,5 +1,8 @@
 package pet;
 
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
 /**
  * Abstract base class for all pet types.
  * Implements common functionality while allowing specific pet types to customize behavior.
@@ -9,8 +12,14 @@ public abstract class AbstractPet implements PetInterface {
   // Initial health value for all pets
   private static final int INITIAL_HEALTH_VALUE = 50;
 
-  // Encapsulated health status
-  protected HealthStatus health;
+  // Marks a threshold that linear happy decay never crosses
+  private static final long NEVER = Long.MAX_VALUE;
+
+  // Encapsulated health status, packed with HealthStatus.pack to avoid allocating per step
+  protected long health;
+
+  // Lazily created HealthStatus view of the packed health, cleared whenever health changes
+  private HealthStatus healthView;
 
   // Pet state
   protected MoodEnum currentMood;
@@ -18,12 +27,15 @@ public abstract class AbstractPet implements PetInterface {
   protected DeathThreshold threshold;
   protected boolean isDead;
 
+  // Per-pet source of randomness for sad steps; never shared, so stepping pets is contention-free
+  private RandomGenerator random = new SplittableRandom();
+
   /**
    * Creates a new pet with default health values.
    */
   public AbstractPet() {
     // Initialize health with default values
-    this.health = new HealthStatus(
+    this.health = HealthStatus.pack(
         INITIAL_HEALTH_VALUE,
         INITIAL_HEALTH_VALUE,
         INITIAL_HEALTH_VALUE,
@@ -48,6 +60,13 @@ public abstract class AbstractPet implements PetInterface {
    */
   protected abstract void initializeThreshold();
 
+  /**
+   * Returns the species of this pet.
+   *
+   * @return the Species describing this pet type
+   */
+  public abstract Species getSpecies();
+
   @Override
   public void step() {
     if (isDead) {
@@ -55,7 +74,7 @@ public abstract class AbstractPet implements PetInterface {
     }
 
     // Apply the strategy to update the health values directly
-    this.health = moodStrategy.applyStep(health);
+    setPackedHealth(moodStrategy.applyStep(health, random));
     updateMood();
     updateMoodStrategy();
     // Check for death
@@ -64,6 +83,96 @@ public abstract class AbstractPet implements PetInterface {
 
   }
 
+  @Override
+  public void fastForward(int steps) {
+    if (steps < 0) {
+      throw new IllegalArgumentException("Steps cannot be negative: " + steps);
+    }
+
+    int remaining = steps;
+    while (remaining > 0 && !isDead) {
+      if (currentMood == MoodEnum.HAPPY && moodStrategy instanceof HappyStrategy
+          && isInValueRange()) {
+        // Every step before the first threshold crossing stays happy and alive,
+        // so those steps can be applied in one jump
+        long jump = Math.min(remaining, happyStepsUntilChange((HappyStrategy) moodStrategy) - 1);
+        if (jump > 0) {
+          setPackedHealth(((HappyStrategy) moodStrategy).applySteps(health, jump));
+          remaining -= (int) jump;
+          continue;
+        }
+      }
+      // Mood changes, death and sad steps go through the normal path
+      step();
+      remaining--;
+    }
+  }
+
+  /**
+   * Finds the first happy step at which a mood threshold or death limit is crossed.
+   *
+   * @param strategy the happy strategy currently in use
+   * @return the 1-based step number, or NEVER if no threshold is ever crossed
+   */
+  private long happyStepsUntilChange(HappyStrategy strategy) {
+    Species species = getSpecies();
+    int hunger = HealthStatus.hungerOf(health);
+    int hygiene = HealthStatus.hygieneOf(health);
+    int social = HealthStatus.socialOf(health);
+    int sleep = HealthStatus.sleepOf(health);
+
+    long first = firstStepAbove(hunger, strategy.hungerChangeRate,
+        Math.min(species.getHungerSadThreshold(), threshold.getHungerLimit()));
+    first = Math.min(first, firstStepBelow(hygiene, strategy.hygieneChangeRate,
+        Math.max(species.getHygieneSadThreshold(), threshold.getHygieneLimit())));
+    first = Math.min(first, firstStepBelow(social, strategy.socialChangeRate,
+        Math.max(species.getSocialSadThreshold(), threshold.getSocialLimit())));
+    first = Math.min(first, firstStepBelow(sleep, strategy.sleepChangeRate,
+        Math.max(species.getSleepSadThreshold(), threshold.getSleepLimit())));
+    return first;
+  }
+
+  /**
+   * Returns the first step k >= 1 at which value + k * rate, clamped, is above the limit.
+   */
+  private static long firstStepAbove(int value, int rate, int limit) {
+    if (value > limit) {
+      return 1;
+    }
+    if (rate <= 0 || limit >= AbstractMoodStrategy.VALUE_CEILING) {
+      return NEVER;
+    }
+    return (limit - value) / rate + 1;
+  }
+
+  /**
+   * Returns the first step k >= 1 at which value - k * rate, clamped, is below the limit.
+   */
+  private static long firstStepBelow(int value, int rate, int limit) {
+    if (value < limit) {
+      return 1;
+    }
+    if (rate <= 0 || limit <= AbstractMoodStrategy.VALUE_FLOOR) {
+      return NEVER;
+    }
+    return (value - limit) / rate + 1;
+  }
+
+  /**
+   * Checks that all health values lie in [0-100], where the closed-form jump is exact.
+   */
+  private boolean isInValueRange() {
+    return inRange(HealthStatus.hungerOf(health))
+        && inRange(HealthStatus.hygieneOf(health))
+        && inRange(HealthStatus.socialOf(health))
+        && inRange(HealthStatus.sleepOf(health));
+  }
+
+  private static boolean inRange(int value) {
+    return value >= AbstractMoodStrategy.VALUE_FLOOR
+        && value <= AbstractMoodStrategy.VALUE_CEILING;
+  }
+
   @Override
   public void interactWith(Action action) {
     if (isDead) {
@@ -71,7 +180,7 @@ public abstract class AbstractPet implements PetInterface {
     }
 
     // Apply the strategy to handle the interaction directly on the pet's attributes
-    this.health = moodStrategy.applyInteraction(health, action);
+    setPackedHealth(moodStrategy.applyInteraction(health, action));
     updateMood();
     updateMoodStrategy();
 
@@ -83,7 +192,22 @@ public abstract class AbstractPet implements PetInterface {
 
   @Override
   public HealthStatus getHealth() {
-    return health;
+    if (healthView == null) {
+      healthView = HealthStatus.fromPacked(health);
+    }
+    return healthView;
+  }
+
+  /**
+   * Replaces the packed health values and invalidates the cached HealthStatus view.
+   *
+   * @param packedHealth the new health values, packed with {@link HealthStatus#pack}
+   */
+  protected void setPackedHealth(long packedHealth) {
+    if (packedHealth != health) {
+      this.health = packedHealth;
+      this.healthView = null;
+    }
   }
 
   @Override
@@ -99,15 +223,31 @@ public abstract class AbstractPet implements PetInterface {
     }
   }
 
+  /**
+   * Replaces the source of randomness used when this pet steps.
+   * Giving a pet a seeded generator, such as {@code new SplittableRandom(seed)}, makes its
+   * behavior exactly reproducible. A generator must not be shared between pets stepped
+   * on different threads.
+   *
+   * @param random the generator to use for future steps
+   * @throws IllegalArgumentException if random is null
+   */
+  public void setRandomSource(RandomGenerator random) {
+    if (random == null) {
+      throw new IllegalArgumentException("Random source cannot be null");
+    }
+    this.random = random;
+  }
+
   /**
    * Checks if the pet's health has crossed any death thresholds.
    */
   protected void updateDeathStatus() {
     if (threshold.isDeadCondition(
-        health.getHunger(),
-        health.getHygiene(),
-        health.getSocial(),
-        health.getSleep())) {
+        HealthStatus.hungerOf(health),
+        HealthStatus.hygieneOf(health),
+        HealthStatus.socialOf(health),
+        HealthStatus.sleepOf(health))) {
       isDead = true;
     } else {
       isDead = false;
@@ -152,15 +292,31 @@ public abstract class AbstractPet implements PetInterface {
    * @param hygiene the new hygiene value
    * @param social  the new social value
    * @param sleep   the new sleep value
+   * @throws IllegalArgumentException if a value is outside the range of a short
    */
   protected void setHealthStateAndUpdateState(int hunger, int hygiene, int social, int sleep) {
-    this.health = new HealthStatus(hunger, hygiene, social, sleep);
+    setPackedHealth(HealthStatus.pack(hunger, hygiene, social, sleep));
     updateMood();
     updateMoodStrategy();
     // Check for death
     updateDeathStatus();
   }
 
+  /**
+   * Restores a previously saved state exactly, without recomputing mood or death status,
+   * so that a manually set mood survives the round trip.
+   *
+   * @param packedHealth the saved health values, packed with {@link HealthStatus#pack}
+   * @param mood         the saved mood
+   * @param dead         the saved dead status
+   */
+  void restoreState(long packedHealth, MoodEnum mood, boolean dead) {
+    setPackedHealth(packedHealth);
+    this.currentMood = mood;
+    updateMoodStrategy();
+    this.isDead = dead;
+  }
+
   /**
    * Revives the pet by setting its dead status to false.
    * This method is intended for testing purposes only.
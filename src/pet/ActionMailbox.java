@@ -0,0 +1,84 @@
+package pet;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * An unbounded lock-free queue of actions with many producers and a single consumer.
+ * Any thread may {@link #offer} actions; only the thread that owns the pet may {@link #drain} them.
+ * Actions from one producer are drained in the order that producer offered them.
+ *
+ * <p>Offering is a single atomic exchange of the tail and never waits, so producers cannot
+ * block each other or the consumer. An action whose offer is still in progress while the
+ * consumer drains is picked up by the next drain.
+ */
+public final class ActionMailbox {
+  // Consumer side: the last node drained, whose next node is the oldest pending action
+  private Node head;
+  // Producer side: the most recently offered node
+  private final AtomicReference<Node> tail;
+
+  private static final class Node {
+    private Action action;
+    private volatile Node next;
+
+    private Node(Action action) {
+      this.action = action;
+    }
+  }
+
+  /**
+   * Creates an empty mailbox.
+   */
+  public ActionMailbox() {
+    Node stub = new Node(null);
+    head = stub;
+    tail = new AtomicReference<>(stub);
+  }
+
+  /**
+   * Queues an action. Safe to call from any thread.
+   *
+   * @param action the action to queue
+   * @throws IllegalArgumentException if action is null
+   */
+  public void offer(Action action) {
+    if (action == null) {
+      throw new IllegalArgumentException("Action cannot be null");
+    }
+    Node node = new Node(action);
+    // Claim the tail first, then link; the consumer stops at the gap until the link is written
+    Node previous = tail.getAndSet(node);
+    previous.next = node;
+  }
+
+  /**
+   * Removes every queued action in order and passes it to the consumer.
+   * Must only be called by the owning thread.
+   *
+   * @param consumer receives each action
+   * @return the number of actions drained
+   */
+  public int drain(Consumer<? super Action> consumer) {
+    int count = 0;
+    Node next;
+    while ((next = head.next) != null) {
+      Action action = next.action;
+      // The drained node becomes the new stub; drop its action so it can be collected
+      next.action = null;
+      head = next;
+      consumer.accept(action);
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Returns whether no action is waiting. Must only be called by the owning thread.
+   *
+   * @return true if a drain would find nothing
+   */
+  public boolean isEmpty() {
+    return head.next == null;
+  }
+}
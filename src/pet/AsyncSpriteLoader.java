@@ -0,0 +1,96 @@
+package pet;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import javax.swing.ImageIcon;
+
+/**
+ * Decodes sprites on a background executor so image I/O never runs on the Event Dispatch Thread.
+ * Concurrent requests for a sprite that is still being decoded share one decode. The returned
+ * futures complete on the background executor; Swing callers hand the icon back to the EDT with
+ * {@code thenAcceptAsync(..., SwingUtilities::invokeLater)}.
+ */
+public class AsyncSpriteLoader {
+  /**
+   * Produces a sprite by name. Runs on the background executor, so it may block on I/O.
+   */
+  @FunctionalInterface
+  public interface Decoder {
+    /**
+     * Decodes a sprite.
+     *
+     * @param name the image name
+     * @return the decoded sprite
+     * @throws IOException if the sprite cannot be loaded
+     */
+    ImageIcon decode(String name) throws IOException;
+  }
+
+  private final Decoder decoder;
+  private final Executor executor;
+  private final Map<String, CompletableFuture<ImageIcon>> pending = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a loader.
+   *
+   * @param decoder  the decoder to run in the background, usually backed by a SpriteCache
+   * @param executor the background executor to decode on
+   * @throws IllegalArgumentException if decoder or executor is null
+   */
+  public AsyncSpriteLoader(Decoder decoder, Executor executor) {
+    if (decoder == null || executor == null) {
+      throw new IllegalArgumentException("Decoder and executor must not be null");
+    }
+    this.decoder = decoder;
+    this.executor = executor;
+  }
+
+  /**
+   * Starts decoding a sprite, or joins a decode of the same sprite already in progress.
+   *
+   * @param name the image name
+   * @return a future completed with the sprite, or exceptionally if it cannot be loaded
+   */
+  public CompletableFuture<ImageIcon> load(String name) {
+    CompletableFuture<ImageIcon> future = new CompletableFuture<>();
+    CompletableFuture<ImageIcon> existing = pending.putIfAbsent(name, future);
+    if (existing != null) {
+      return existing;
+    }
+    executor.execute(() -> {
+      try {
+        ImageIcon sprite = decoder.decode(name);
+        // Later requests are answered by the decoder's own cache
+        pending.remove(name, future);
+        future.complete(sprite);
+      } catch (IOException | RuntimeException e) {
+        pending.remove(name, future);
+        future.completeExceptionally(e);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Starts decoding several sprites without waiting for them.
+   *
+   * @param names the image names to warm
+   */
+  public void warm(Iterable<String> names) {
+    for (String name : names) {
+      load(name);
+    }
+  }
+
+  /**
+   * Returns the number of sprites currently being decoded.
+   *
+   * @return the pending decode count
+   */
+  public int getPendingCount() {
+    return pending.size();
+  }
+}
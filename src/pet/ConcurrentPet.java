@@ -0,0 +1,132 @@
+package pet;
+
+import java.util.function.Consumer;
+
+/**
+ * A pet that many threads can interact with while one thread steps it.
+ * {@link #interactWith} only queues the action in a lock-free {@link ActionMailbox}; the thread
+ * that steps the pet applies every queued action, in order, right before each step. No
+ * interaction is lost and no thread ever takes a lock.
+ *
+ * <p>{@link #step}, {@link #fastForward}, {@link #setMood} and {@link #applyPendingActions} must
+ * be called by one thread at a time, e.g. a ParallelStepper worker or a pet's own loop thread.
+ * The getters may be called from any thread and return the state published after the last of
+ * those calls. Health, mood and death are published together as one immutable snapshot, so a
+ * reader never sees the health of one step with the mood of another.
+ */
+public class ConcurrentPet implements PetInterface {
+  private final PetInterface pet;
+  private final ActionMailbox mailbox = new ActionMailbox();
+  // Bound once so draining before every step does not allocate
+  private final Consumer<Action> apply;
+  // State published by the stepping thread for readers on other threads
+  private volatile State state;
+
+  /**
+   * Wraps a pet. The pet must not be used directly afterwards.
+   *
+   * @param pet the pet to wrap
+   * @throws IllegalArgumentException if pet is null
+   */
+  public ConcurrentPet(PetInterface pet) {
+    if (pet == null) {
+      throw new IllegalArgumentException("Pet cannot be null");
+    }
+    this.pet = pet;
+    this.apply = pet::interactWith;
+    publish();
+  }
+
+  /**
+   * Queues an action, to be applied before the next step. Safe to call from any thread.
+   *
+   * @param action the type of interaction to apply
+   * @throws IllegalArgumentException if action is null
+   */
+  @Override
+  public void interactWith(Action action) {
+    mailbox.offer(action);
+  }
+
+  /**
+   * Applies every queued action, then advances the pet by one step.
+   */
+  @Override
+  public void step() {
+    mailbox.drain(apply);
+    pet.step();
+    publish();
+  }
+
+  /**
+   * Applies every queued action, then advances the pet by the given number of steps.
+   *
+   * @param steps the number of steps to advance
+   * @throws IllegalArgumentException if steps is negative
+   */
+  @Override
+  public void fastForward(int steps) {
+    mailbox.drain(apply);
+    pet.fastForward(steps);
+    publish();
+  }
+
+  /**
+   * Applies every queued action without stepping, e.g. to show their effect right away.
+   *
+   * @return the number of actions applied
+   */
+  public int applyPendingActions() {
+    int applied = mailbox.drain(apply);
+    if (applied > 0) {
+      publish();
+    }
+    return applied;
+  }
+
+  @Override
+  public void setMood(MoodEnum mood) {
+    mailbox.drain(apply);
+    pet.setMood(mood);
+    publish();
+  }
+
+  @Override
+  public HealthStatus getHealth() {
+    return state.health;
+  }
+
+  @Override
+  public MoodEnum getMood() {
+    return state.mood;
+  }
+
+  @Override
+  public boolean isDead() {
+    return state.dead;
+  }
+
+  @Override
+  public DeathThreshold getDeathThreshold() {
+    return pet.getDeathThreshold();
+  }
+
+  private void publish() {
+    state = new State(pet.getHealth(), pet.getMood(), pet.isDead());
+  }
+
+  /**
+   * The pet's state after one call of the stepping thread, published through a single write.
+   */
+  private static final class State {
+    private final HealthStatus health;
+    private final MoodEnum mood;
+    private final boolean dead;
+
+    private State(HealthStatus health, MoodEnum mood, boolean dead) {
+      this.health = health;
+      this.mood = mood;
+      this.dead = dead;
+    }
+  }
+}
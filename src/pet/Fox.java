@@ -7,30 +7,30 @@ package pet;
 public class Fox extends AbstractPet {
 
   // Death threshold constants
-  private static final int HUNGER_LIMIT = 90;
-  private static final int HYGIENE_LIMIT = 20;
-  private static final int SOCIAL_LIMIT = 20;
-  private static final int SLEEP_LIMIT = 10;
+  static final int HUNGER_LIMIT = 90;
+  static final int HYGIENE_LIMIT = 20;
+  static final int SOCIAL_LIMIT = 20;
+  static final int SLEEP_LIMIT = 10;
 
   // Mood threshold constants
-  private static final int HUNGER_SAD_THRESHOLD = 70;
-  private static final int HYGIENE_SAD_THRESHOLD = 35;
-  private static final int SOCIAL_SAD_THRESHOLD = 35;
-  private static final int SLEEP_SAD_THRESHOLD = 25;
+  static final int HUNGER_SAD_THRESHOLD = 70;
+  static final int HYGIENE_SAD_THRESHOLD = 35;
+  static final int SOCIAL_SAD_THRESHOLD = 35;
+  static final int SLEEP_SAD_THRESHOLD = 25;
 
   // Strategy constants for Happy mood
-  private static final int HAPPY_HUNGER_RATE = 3;
-  private static final int HAPPY_HYGIENE_RATE = 2;
-  private static final int HAPPY_SOCIAL_RATE = 2;
-  private static final int HAPPY_SLEEP_RATE = 2;
-  private static final int HAPPY_ACTION_BOOST = 8;
+  static final int HAPPY_HUNGER_RATE = 3;
+  static final int HAPPY_HYGIENE_RATE = 2;
+  static final int HAPPY_SOCIAL_RATE = 2;
+  static final int HAPPY_SLEEP_RATE = 2;
+  static final int HAPPY_ACTION_BOOST = 8;
 
   // Strategy constants for Sad mood
-  private static final int SAD_HUNGER_RATE = 5;
-  private static final int SAD_HYGIENE_RATE = 3;
-  private static final int SAD_SOCIAL_RATE = 3;
-  private static final int SAD_SLEEP_RATE = 3;
-  private static final int SAD_ACTION_BOOST = 4;
+  static final int SAD_HUNGER_RATE = 5;
+  static final int SAD_HYGIENE_RATE = 3;
+  static final int SAD_SOCIAL_RATE = 3;
+  static final int SAD_SLEEP_RATE = 3;
+  static final int SAD_ACTION_BOOST = 4;
 
   /**
    * Creates a new Fox pet with default values.
@@ -39,6 +39,11 @@ public class Fox extends AbstractPet {
     super(); // This will call updateMood() and updateMoodStrategy()
   }
 
+  @Override
+  public Species getSpecies() {
+    return Species.FOX;
+  }
+
   @Override
   protected void initializeThreshold() {
     // Initialize death thresholds
@@ -52,35 +57,20 @@ public class Fox extends AbstractPet {
 
   @Override
   protected void updateMoodStrategy() {
-    if (currentMood == MoodEnum.HAPPY) {
-      this.moodStrategy = new HappyStrategy(
-          HAPPY_HUNGER_RATE,
-          HAPPY_HYGIENE_RATE,
-          HAPPY_SOCIAL_RATE,
-          HAPPY_SLEEP_RATE,
-          HAPPY_ACTION_BOOST
-      );
-    } else {
-      this.moodStrategy = new SadStrategy(
-          SAD_HUNGER_RATE,
-          SAD_HYGIENE_RATE,
-          SAD_SOCIAL_RATE,
-          SAD_SLEEP_RATE,
-          SAD_ACTION_BOOST
-      );
-    }
+    // Strategies are shared flyweights, so no new strategy is built per step
+    this.moodStrategy = MoodStrategyRegistry.get(Species.FOX, currentMood);
   }
 
   @Override
   protected void updateMood() {
     // Determine mood based on current health status
-    if (health.getHunger() > HUNGER_SAD_THRESHOLD
+    if (HealthStatus.hungerOf(health) > HUNGER_SAD_THRESHOLD
         ||
-        health.getHygiene() < HYGIENE_SAD_THRESHOLD
+        HealthStatus.hygieneOf(health) < HYGIENE_SAD_THRESHOLD
         ||
-        health.getSocial() < SOCIAL_SAD_THRESHOLD
+        HealthStatus.socialOf(health) < SOCIAL_SAD_THRESHOLD
         ||
-        health.getSleep() < SLEEP_SAD_THRESHOLD) {
+        HealthStatus.sleepOf(health) < SLEEP_SAD_THRESHOLD) {
       setMood(MoodEnum.SAD);
     } else {
       setMood(MoodEnum.HAPPY);
@@ -1,5 +1,7 @@
 package pet;
 
+import java.util.random.RandomGenerator;
+
 /**
  * Concrete strategy for a pet in a happy mood.
  * When happy, pets decay needs more slowly and respond better to interactions.
@@ -21,11 +23,11 @@ public class HappyStrategy extends AbstractMoodStrategy {
   }
 
   @Override
-  public HealthStatus applyInteraction(HealthStatus health, Action action) {
-    int newHunger = health.getHunger();
-    int newHygiene = health.getHygiene();
-    int newSocial = health.getSocial();
-    int newSleep = health.getSleep();
+  public long applyInteraction(long health, Action action) {
+    int newHunger = HealthStatus.hungerOf(health);
+    int newHygiene = HealthStatus.hygieneOf(health);
+    int newSocial = HealthStatus.socialOf(health);
+    int newSleep = HealthStatus.sleepOf(health);
 
     switch (action) {
       case FEED:
@@ -50,17 +52,42 @@ public class HappyStrategy extends AbstractMoodStrategy {
 
     }
 
-    return new HealthStatus(newHunger, newHygiene, newSocial, newSleep);
+    return HealthStatus.pack(newHunger, newHygiene, newSocial, newSleep);
   }
 
   @Override
-  public HealthStatus applyStep(HealthStatus health) {
-    // When happy, natural decay is at the standard rate
-    int newHunger = clamp(health.getHunger() + hungerChangeRate);
-    int newHygiene = clamp(health.getHygiene() - hygieneChangeRate);
-    int newSocial = clamp(health.getSocial() - socialChangeRate);
-    int newSleep = clamp(health.getSleep() - sleepChangeRate);
+  public long applyStep(long health, RandomGenerator random) {
+    // When happy, natural decay is at the standard rate and does not use the generator
+    int newHunger = clamp(HealthStatus.hungerOf(health) + hungerChangeRate);
+    int newHygiene = clamp(HealthStatus.hygieneOf(health) - hygieneChangeRate);
+    int newSocial = clamp(HealthStatus.socialOf(health) - socialChangeRate);
+    int newSleep = clamp(HealthStatus.sleepOf(health) - sleepChangeRate);
+
+    return HealthStatus.pack(newHunger, newHygiene, newSocial, newSleep);
+  }
 
-    return new HealthStatus(newHunger, newHygiene, newSocial, newSleep);
+  /**
+   * Applies the natural changes of many steps at once.
+   * Happy decay is linear until a value is clamped, so the result equals calling
+   * {@link #applyStep(long)} {@code steps} times on values that start inside [0-100].
+   *
+   * @param health The current packed health of the pet
+   * @param steps  The number of steps to apply
+   * @return The new packed health after the steps pass
+   */
+  public long applySteps(long health, long steps) {
+    int newHunger = clamp(HealthStatus.hungerOf(health) + steps * hungerChangeRate);
+    int newHygiene = clamp(HealthStatus.hygieneOf(health) - steps * hygieneChangeRate);
+    int newSocial = clamp(HealthStatus.socialOf(health) - steps * socialChangeRate);
+    int newSleep = clamp(HealthStatus.sleepOf(health) - steps * sleepChangeRate);
+
+    return HealthStatus.pack(newHunger, newHygiene, newSocial, newSleep);
+  }
+
+  /**
+   * Helper method to clamp a long value, which cannot overflow for large step counts.
+   */
+  private int clamp(long value) {
+    return (int) Math.max(VALUE_FLOOR, Math.min(VALUE_CEILING, value));
   }
 }
\ No newline at end of file
@@ -0,0 +1,305 @@
+package pet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a population of pets on a fixed-rate ScheduledExecutorService tick, without Swing.
+ * Every tick steps all pets through a ParallelStepper and records its latency and how late it
+ * started, so the simulation can run and be measured on hosts without a display. A scheduled
+ * tick that throws is counted as failed and reported, and the schedule keeps running.
+ *
+ * <p>Run it from the command line with {@code Main --headless [options]}; see {@link #main}.
+ */
+public class HeadlessRunner implements AutoCloseable {
+  /** Number of most recent tick latencies kept for the percentiles. */
+  public static final int MAX_LATENCY_SAMPLES = 1 << 16;
+
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  private final ParallelStepper stepper;
+  private final long tickIntervalNanos;
+  private final ScheduledExecutorService scheduler;
+  private final long[] latencies = new long[MAX_LATENCY_SAMPLES];
+  private ScheduledFuture<?> task;
+  private long startNanos;
+  private long ticks;
+  private long petSteps;
+  private long maxLatencyNanos;
+  private long maxLagNanos;
+  private long failedTicks;
+
+  /**
+   * Creates a runner for a fixed collection of pets.
+   *
+   * @param pets           the pets to step on every tick
+   * @param ticksPerSecond how many ticks to run per second, e.g. 0.2 for one step every 5 seconds
+   * @throws IllegalArgumentException if pets is null or ticksPerSecond is not positive
+   */
+  public HeadlessRunner(Collection<? extends PetInterface> pets, double ticksPerSecond) {
+    if (pets == null) {
+      throw new IllegalArgumentException("Pets cannot be null");
+    }
+    if (!(ticksPerSecond > 0) || Double.isInfinite(ticksPerSecond)) {
+      throw new IllegalArgumentException("Tick rate must be positive: " + ticksPerSecond);
+    }
+    this.stepper = new ParallelStepper(pets);
+    this.tickIntervalNanos = Math.max(1, Math.round(NANOS_PER_SECOND / ticksPerSecond));
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "headless-runner");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Starts ticking at the configured rate. The first tick runs immediately.
+   *
+   * @throws IllegalStateException if the runner was already started
+   */
+  public synchronized void start() {
+    if (task != null) {
+      throw new IllegalStateException("Runner already started");
+    }
+    startNanos = System.nanoTime();
+    task = scheduler.scheduleAtFixedRate(this::scheduledTick, 0, tickIntervalNanos,
+        TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Stops ticking and waits for a tick in progress to finish.
+   * The collected statistics remain available.
+   */
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+    try {
+      scheduler.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Runs one tick on the calling thread and records its latency.
+   * Must not be called while the runner is started, or two ticks would step the same pets.
+   *
+   * @return the timing report of the tick
+   */
+  public TickStats tick() {
+    TickStats stats = stepper.tick();
+    record(stats, 0);
+    return stats;
+  }
+
+  /**
+   * Returns the statistics collected since the runner started.
+   *
+   * @return a snapshot of the runner statistics
+   */
+  public synchronized RunnerStats getStats() {
+    int samples = (int) Math.min(ticks, MAX_LATENCY_SAMPLES);
+    long[] sorted = Arrays.copyOf(latencies, samples);
+    Arrays.sort(sorted);
+    long elapsed = startNanos == 0 ? 0 : System.nanoTime() - startNanos;
+    return new RunnerStats(ticks, petSteps, elapsed, percentile(sorted, 0.5),
+        percentile(sorted, 0.99), maxLatencyNanos, maxLagNanos, failedTicks);
+  }
+
+  /**
+   * Returns the time between scheduled ticks.
+   *
+   * @return the tick interval in nanoseconds
+   */
+  public long getTickIntervalNanos() {
+    return tickIntervalNanos;
+  }
+
+  /**
+   * Creates a population whose species follow the given weights.
+   * Species are interleaved deterministically, so every prefix of the population has
+   * roughly the requested mix.
+   *
+   * @param count the number of pets
+   * @param mix   the relative weight of each species; species left out are not created
+   * @return the new pets
+   * @throws IllegalArgumentException if count or a weight is negative, or all weights are zero
+   */
+  public static List<AbstractPet> createPopulation(int count, Map<Species, Integer> mix) {
+    if (count < 0) {
+      throw new IllegalArgumentException("Pet count cannot be negative: " + count);
+    }
+    Species[] species = Species.values();
+    int[] weights = new int[species.length];
+    int total = 0;
+    for (Map.Entry<Species, Integer> entry : mix.entrySet()) {
+      if (entry.getValue() < 0) {
+        throw new IllegalArgumentException("Weight cannot be negative: " + entry);
+      }
+      weights[entry.getKey().ordinal()] = entry.getValue();
+      total += entry.getValue();
+    }
+    if (total == 0) {
+      throw new IllegalArgumentException("At least one species needs a positive weight");
+    }
+
+    // Smooth weighted round robin: each pet goes to the species furthest behind its share
+    List<AbstractPet> pets = new ArrayList<>(count);
+    int[] credit = new int[species.length];
+    for (int i = 0; i < count; i++) {
+      int best = -1;
+      for (int s = 0; s < species.length; s++) {
+        credit[s] += weights[s];
+        if (weights[s] > 0 && (best < 0 || credit[s] > credit[best])) {
+          best = s;
+        }
+      }
+      credit[best] -= total;
+      pets.add(species[best].createPet());
+    }
+    return pets;
+  }
+
+  /**
+   * Parses a species mix such as {@code "FOX=2,SNAKE=1"}.
+   *
+   * @param text comma separated {@code SPECIES=weight} pairs, case insensitive
+   * @return the weights by species
+   * @throws IllegalArgumentException if the text is malformed or names an unknown species
+   */
+  public static Map<Species, Integer> parseSpeciesMix(String text) {
+    Map<Species, Integer> mix = new EnumMap<>(Species.class);
+    for (String part : text.split(",")) {
+      String[] pair = part.trim().split("=");
+      if (pair.length != 2) {
+        throw new IllegalArgumentException("Expected SPECIES=weight but got: " + part);
+      }
+      try {
+        mix.put(Species.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)),
+            Integer.parseInt(pair[1].trim()));
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid weight in: " + part, e);
+      }
+    }
+    return mix;
+  }
+
+  /**
+   * Runs a population headlessly and prints statistics.
+   * Options: {@code --pets N} (default 10000), {@code --tick-rate TICKS_PER_SECOND}
+   * (default 10), {@code --species PET=1,FOX=1,SNAKE=1}, {@code --duration SECONDS}
+   * (default 10) and {@code --report SECONDS} (default 1).
+   *
+   * @param args the command line options
+   * @throws InterruptedException if interrupted while running
+   */
+  public static void main(String[] args) throws InterruptedException {
+    int pets = 10_000;
+    double tickRate = 10;
+    String species = "PET=1,FOX=1,SNAKE=1";
+    double duration = 10;
+    double report = 1;
+    List<AbstractPet> population;
+    HeadlessRunner runner;
+    try {
+      for (int i = 0; i < args.length; i++) {
+        String value = i + 1 < args.length ? args[i + 1] : null;
+        if (value == null) {
+          throw new IllegalArgumentException("Missing value for " + args[i]);
+        }
+        switch (args[i]) {
+          case "--pets":
+            pets = Integer.parseInt(value);
+            break;
+          case "--tick-rate":
+            tickRate = Double.parseDouble(value);
+            break;
+          case "--species":
+            species = value;
+            break;
+          case "--duration":
+            duration = Double.parseDouble(value);
+            break;
+          case "--report":
+            report = Double.parseDouble(value);
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown option: " + args[i]);
+        }
+        i++;
+      }
+      if (!(duration > 0) || !(report > 0)) {
+        throw new IllegalArgumentException("Duration and report interval must be positive");
+      }
+      population = createPopulation(pets, parseSpeciesMix(species));
+      runner = new HeadlessRunner(population, tickRate);
+    } catch (IllegalArgumentException e) {
+      System.err.println("Invalid arguments: " + e.getMessage());
+      System.err.println("Usage: --headless [--pets N] [--tick-rate TICKS_PER_SECOND]"
+          + " [--species PET=1,FOX=1,SNAKE=1] [--duration SECONDS] [--report SECONDS]");
+      System.exit(2);
+      return;
+    }
+
+    System.out.printf(Locale.ROOT, "Running %d pets (%s) at %.2f ticks/s for %.1fs%n",
+        pets, species, tickRate, duration);
+    try (runner) {
+      runner.start();
+      long reportMillis = Math.round(report * 1000);
+      long endNanos = System.nanoTime() + Math.round(duration * NANOS_PER_SECOND);
+      while (System.nanoTime() < endNanos) {
+        long remainingMillis = (endNanos - System.nanoTime()) / 1_000_000;
+        Thread.sleep(Math.max(1, Math.min(reportMillis, remainingMillis)));
+        System.out.println(runner.getStats());
+      }
+    }
+    // The runner is closed, so the population is no longer being stepped
+    long dead = population.stream().filter(AbstractPet::isDead).count();
+    System.out.println("Final: " + runner.getStats() + " dead=" + dead);
+  }
+
+  private void scheduledTick() {
+    long lag;
+    synchronized (this) {
+      lag = System.nanoTime() - (startNanos + ticks * tickIntervalNanos);
+    }
+    try {
+      record(stepper.tick(), Math.max(0, lag));
+    } catch (RuntimeException e) {
+      // An exception escaping here would cancel the fixed-rate schedule for good
+      if (recordFailure() == 1) {
+        System.err.println("Headless tick failed, later failures are only counted:");
+        e.printStackTrace();
+      }
+    }
+  }
+
+  private synchronized long recordFailure() {
+    return ++failedTicks;
+  }
+
+  private synchronized void record(TickStats stats, long lagNanos) {
+    latencies[(int) (ticks % MAX_LATENCY_SAMPLES)] = stats.getWallTimeNanos();
+    ticks++;
+    petSteps += stats.getPetCount();
+    maxLatencyNanos = Math.max(maxLatencyNanos, stats.getWallTimeNanos());
+    maxLagNanos = Math.max(maxLagNanos, lagNanos);
+  }
+
+  private static long percentile(long[] sorted, double fraction) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(fraction * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+  }
+}
@@ -0,0 +1,191 @@
+package pet;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Insets;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import javax.swing.JComponent;
+
+/**
+ * Shows the four health values as bar gauges with their numbers, painted directly with Graphics2D.
+ * By default the gauges are laid out two per row like the old HTML table: hunger and hygiene
+ * on top, social and sleep below. Setting new health only repaints the gauges whose value
+ * changed, so a refresh with unchanged values costs nothing.
+ */
+public class HealthGaugePanel extends JComponent {
+  /** Number of gauges shown, one per health value. */
+  public static final int GAUGE_COUNT = 4;
+
+  private static final long serialVersionUID = 1L;
+  private static final String[] LABELS = {"Hunger:", "Hygiene:", "Social:", "Sleep:"};
+  private static final int GAP = 10;
+  private static final int MAX_VALUE = AbstractMoodStrategy.VALUE_CEILING;
+  // Number strings for every valid value, so painting allocates nothing
+  private static final String[] NUMBERS = new String[MAX_VALUE + 1];
+
+  static {
+    for (int i = 0; i <= MAX_VALUE; i++) {
+      NUMBERS[i] = Integer.toString(i);
+    }
+  }
+
+  private final Color barColor;
+  private final Color trackColor;
+  private final int[] values = new int[GAUGE_COUNT];
+  private int columns = 2;
+  private boolean hasHealth;
+
+  /**
+   * Creates an empty gauge panel; nothing is drawn until the first health update.
+   *
+   * @param font       the font for labels and numbers
+   * @param textColor  the color of labels, numbers and gauge outlines
+   * @param barColor   the fill color of the gauge bars
+   * @param trackColor the color of the empty part of each gauge
+   */
+  public HealthGaugePanel(Font font, Color textColor, Color barColor, Color trackColor) {
+    this.barColor = barColor;
+    this.trackColor = trackColor;
+    setFont(font);
+    setForeground(textColor);
+    setOpaque(false);
+  }
+
+  /**
+   * Shows new health values, repainting only the gauges that changed.
+   *
+   * @param health the health to show
+   */
+  public void setHealth(HealthStatus health) {
+    setValue(0, health.getHunger());
+    setValue(1, health.getHygiene());
+    setValue(2, health.getSocial());
+    setValue(3, health.getSleep());
+    hasHealth = true;
+  }
+
+  /**
+   * Sets how many gauges are placed side by side, e.g. 1 to stack them in a narrow cell.
+   *
+   * @param columns the number of gauge columns, from 1 to {@link #GAUGE_COUNT}
+   * @throws IllegalArgumentException if columns is out of range
+   */
+  public void setColumns(int columns) {
+    if (columns < 1 || columns > GAUGE_COUNT) {
+      throw new IllegalArgumentException("Columns must be between 1 and " + GAUGE_COUNT);
+    }
+    this.columns = columns;
+    revalidate();
+    repaint();
+  }
+
+  /**
+   * Returns the value a gauge currently shows.
+   *
+   * @param index the gauge index: 0 hunger, 1 hygiene, 2 social, 3 sleep
+   * @return the shown value
+   */
+  public int getValue(int index) {
+    return values[index];
+  }
+
+  @Override
+  public Dimension getPreferredSize() {
+    if (isPreferredSizeSet()) {
+      return super.getPreferredSize();
+    }
+    FontMetrics metrics = getFontMetrics(getFont());
+    Insets insets = getInsets();
+    int rowHeight = metrics.getHeight() + GAP;
+    return new Dimension(300 * columns + insets.left + insets.right,
+        getRows() * rowHeight + GAP + insets.top + insets.bottom);
+  }
+
+  @Override
+  protected void paintComponent(Graphics graphics) {
+    if (!hasHealth) {
+      return;
+    }
+    Graphics2D g = (Graphics2D) graphics.create();
+    try {
+      g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+          RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+      g.setFont(getFont());
+      Rectangle clip = g.getClipBounds();
+      for (int i = 0; i < GAUGE_COUNT; i++) {
+        Rectangle bounds = getGaugeBounds(i);
+        if (clip == null || clip.intersects(bounds)) {
+          paintGauge(g, i, bounds);
+        }
+      }
+    } finally {
+      g.dispose();
+    }
+  }
+
+  /**
+   * Returns the area a gauge, including its label and number, occupies.
+   *
+   * @param index the gauge index
+   * @return the gauge bounds in component coordinates
+   */
+  Rectangle getGaugeBounds(int index) {
+    Insets insets = getInsets();
+    int width = getWidth() - insets.left - insets.right;
+    int height = getHeight() - insets.top - insets.bottom;
+    int rows = getRows();
+    int cellWidth = (width - GAP * (columns - 1)) / columns;
+    int cellHeight = (height - GAP * (rows - 1)) / rows;
+    int column = index % columns;
+    int row = index / columns;
+    return new Rectangle(insets.left + column * (cellWidth + GAP),
+        insets.top + row * (cellHeight + GAP), cellWidth, cellHeight);
+  }
+
+  private int getRows() {
+    return (GAUGE_COUNT + columns - 1) / columns;
+  }
+
+  private void setValue(int index, int value) {
+    if (hasHealth && values[index] == value) {
+      return;
+    }
+    values[index] = value;
+    repaint(getGaugeBounds(index));
+  }
+
+  private void paintGauge(Graphics2D g, int index, Rectangle bounds) {
+    FontMetrics metrics = g.getFontMetrics();
+    int value = values[index];
+    String number = value >= 0 && value <= MAX_VALUE ? NUMBERS[value] : Integer.toString(value);
+
+    // Label on the left, number on the right, bar in between
+    int labelWidth = metrics.stringWidth(LABELS[1]); // Widest label, keeps bars aligned
+    int numberWidth = metrics.stringWidth("100");
+    int baseline = bounds.y + (bounds.height + metrics.getAscent() - metrics.getDescent()) / 2;
+    g.setColor(getForeground());
+    g.drawString(LABELS[index], bounds.x, baseline);
+    g.drawString(number, bounds.x + bounds.width - metrics.stringWidth(number), baseline);
+
+    int barX = bounds.x + labelWidth + GAP;
+    int barWidth = bounds.width - labelWidth - numberWidth - 2 * GAP;
+    int barHeight = Math.max(4, metrics.getAscent() - 2);
+    int barY = bounds.y + (bounds.height - barHeight) / 2;
+    if (barWidth <= 0) {
+      return;
+    }
+    int clamped = Math.max(0, Math.min(MAX_VALUE, value));
+    int filled = barWidth * clamped / MAX_VALUE;
+    g.setColor(trackColor);
+    g.fillRect(barX, barY, barWidth, barHeight);
+    g.setColor(barColor);
+    g.fillRect(barX, barY, filled, barHeight);
+    g.setColor(getForeground());
+    g.drawRect(barX, barY, barWidth - 1, barHeight - 1);
+  }
+}
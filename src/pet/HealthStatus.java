@@ -3,8 +3,17 @@ package pet;
 /**
  * HealthStatus is an immutable class encapsulating the
  * pet's health-related attributes.
+ * The static codec methods pack all four attributes into a single long, one signed 16-bit
+ * lane each, so hot paths can keep health state without allocating a HealthStatus per change.
  */
 public class HealthStatus {
+  private static final int LANE_BITS = 16;
+  private static final long LANE_MASK = 0xFFFFL;
+  private static final int HUNGER_SHIFT = 3 * LANE_BITS;
+  private static final int HYGIENE_SHIFT = 2 * LANE_BITS;
+  private static final int SOCIAL_SHIFT = LANE_BITS;
+  private static final int SLEEP_SHIFT = 0;
+
   private final int hunger;
   private final int hygiene;
   private final int social;
@@ -61,6 +70,90 @@ public class HealthStatus {
     return sleep;
   }
 
+  /**
+   * Returns these health values in packed form.
+   *
+   * @return the packed representation of this HealthStatus
+   * @throws IllegalArgumentException if a value does not fit in a signed 16-bit lane
+   */
+  public long toPacked() {
+    return pack(hunger, hygiene, social, sleep);
+  }
+
+  /**
+   * Packs four health values into a single long.
+   *
+   * @param hunger  the hunger level
+   * @param hygiene the hygiene level
+   * @param social  the social level
+   * @param sleep   the sleep level
+   * @return the packed health values
+   * @throws IllegalArgumentException if a value does not fit in a signed 16-bit lane
+   */
+  public static long pack(int hunger, int hygiene, int social, int sleep) {
+    // One combined test keeps the common in-range case to a single branch
+    if (((short) hunger != hunger) | ((short) hygiene != hygiene) | ((short) social != social)
+        | ((short) sleep != sleep)) {
+      throw new IllegalArgumentException(String.format("Health values must be between %d and %d: "
+          + "%d, %d, %d, %d", Short.MIN_VALUE, Short.MAX_VALUE, hunger, hygiene, social, sleep));
+    }
+    return (hunger & LANE_MASK) << HUNGER_SHIFT
+        | (hygiene & LANE_MASK) << HYGIENE_SHIFT
+        | (social & LANE_MASK) << SOCIAL_SHIFT
+        | (sleep & LANE_MASK) << SLEEP_SHIFT;
+  }
+
+  /**
+   * Creates a HealthStatus view of packed health values.
+   *
+   * @param packed the packed health values
+   * @return a new HealthStatus holding the unpacked values
+   */
+  public static HealthStatus fromPacked(long packed) {
+    return new HealthStatus(hungerOf(packed), hygieneOf(packed), socialOf(packed),
+        sleepOf(packed));
+  }
+
+  /**
+   * Extracts the hunger level from packed health values.
+   *
+   * @param packed the packed health values
+   * @return the hunger level
+   */
+  public static int hungerOf(long packed) {
+    return (short) (packed >>> HUNGER_SHIFT);
+  }
+
+  /**
+   * Extracts the hygiene level from packed health values.
+   *
+   * @param packed the packed health values
+   * @return the hygiene level
+   */
+  public static int hygieneOf(long packed) {
+    return (short) (packed >>> HYGIENE_SHIFT);
+  }
+
+  /**
+   * Extracts the social level from packed health values.
+   *
+   * @param packed the packed health values
+   * @return the social level
+   */
+  public static int socialOf(long packed) {
+    return (short) (packed >>> SOCIAL_SHIFT);
+  }
+
+  /**
+   * Extracts the sleep level from packed health values.
+   *
+   * @param packed the packed health values
+   * @return the sleep level
+   */
+  public static int sleepOf(long packed) {
+    return (short) (packed >>> SLEEP_SHIFT);
+  }
+
   @Override
   public String toString() {
     return String.format("HealthStatus{hunger=%d, hygiene=%d, social=%d, sleep=%d}",
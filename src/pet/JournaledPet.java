@@ -0,0 +1,158 @@
+package pet;
+
+/**
+ * A pet whose every state change is recorded in a PetJournal.
+ * Each call is appended to the journal and applied to the wrapped pet while holding the
+ * journal's monitor, so no snapshot can fall between a change and its record and the journal
+ * always replays to the same state, even when pets are stepped on several threads. The record
+ * is buffered first, so a journal that cannot take it leaves the pet unchanged. Getters take
+ * the same monitor to see the state as of the last recorded change. Calls that cannot change a
+ * dead pet are not recorded. Instances are created and recovered by {@link PetJournal}.
+ */
+public class JournaledPet implements PetInterface {
+  private final int id;
+  private final AbstractPet pet;
+  private final SplitMixRandom random;
+  private final PetJournal journal;
+
+  JournaledPet(int id, AbstractPet pet, SplitMixRandom random, PetJournal journal) {
+    this.id = id;
+    this.pet = pet;
+    this.random = random;
+    this.journal = journal;
+    pet.setRandomSource(random);
+  }
+
+  /**
+   * Returns the journal-wide identifier of this pet.
+   *
+   * @return the pet id
+   */
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * Returns the species of this pet.
+   *
+   * @return the Species of the wrapped pet
+   */
+  public Species getSpecies() {
+    return pet.getSpecies();
+  }
+
+  /**
+   * Advances the pet by one step and records it.
+   *
+   * @throws IllegalStateException if the journal is closed
+   */
+  @Override
+  public void step() {
+    synchronized (journal) {
+      journal.checkOpen();
+      if (pet.isDead()) {
+        return;
+      }
+      journal.appendStep(id);
+      pet.step();
+      journal.eventRecorded();
+    }
+  }
+
+  /**
+   * Advances the pet by the given number of steps and records it.
+   *
+   * @param steps the number of steps to advance
+   * @throws IllegalArgumentException if steps is negative
+   * @throws IllegalStateException    if the journal is closed
+   */
+  @Override
+  public void fastForward(int steps) {
+    synchronized (journal) {
+      journal.checkOpen();
+      if (steps < 0) {
+        throw new IllegalArgumentException("Steps cannot be negative: " + steps);
+      }
+      if (pet.isDead() || steps == 0) {
+        return;
+      }
+      journal.appendFastForward(id, steps);
+      pet.fastForward(steps);
+      journal.eventRecorded();
+    }
+  }
+
+  /**
+   * Applies an interaction to the pet and records it.
+   *
+   * @param action the type of interaction to apply
+   * @throws IllegalStateException if the journal is closed
+   */
+  @Override
+  public void interactWith(Action action) {
+    synchronized (journal) {
+      journal.checkOpen();
+      if (pet.isDead()) {
+        return;
+      }
+      journal.appendInteraction(id, action);
+      pet.interactWith(action);
+      journal.eventRecorded();
+    }
+  }
+
+  /**
+   * Sets the pet's mood and records it.
+   *
+   * @param mood the new mood
+   * @throws IllegalStateException if the journal is closed
+   */
+  @Override
+  public void setMood(MoodEnum mood) {
+    synchronized (journal) {
+      journal.checkOpen();
+      if (pet.isDead()) {
+        return;
+      }
+      journal.appendSetMood(id, mood);
+      pet.setMood(mood);
+      journal.eventRecorded();
+    }
+  }
+
+  @Override
+  public HealthStatus getHealth() {
+    synchronized (journal) {
+      return pet.getHealth();
+    }
+  }
+
+  @Override
+  public MoodEnum getMood() {
+    synchronized (journal) {
+      return pet.getMood();
+    }
+  }
+
+  @Override
+  public boolean isDead() {
+    synchronized (journal) {
+      return pet.isDead();
+    }
+  }
+
+  @Override
+  public DeathThreshold getDeathThreshold() {
+    return pet.getDeathThreshold();
+  }
+
+  // Package-private accessors used by PetJournal for snapshots and replay
+
+  AbstractPet getPet() {
+    return pet;
+  }
+
+  SplitMixRandom getRandom() {
+    return random;
+  }
+}
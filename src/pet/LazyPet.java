@@ -0,0 +1,104 @@
+package pet;
+
+/**
+ * A pet that is evaluated lazily against a shared SimulationClock.
+ * Instead of being stepped on every tick, the pet remembers the last tick it was evaluated at
+ * and catches up with {@link AbstractPet#fastForward(int)} whenever its state is read or changed.
+ * Idle pets therefore cost no CPU until someone looks at them.
+ * Like AbstractPet, a LazyPet is not thread-safe.
+ */
+public class LazyPet implements PetInterface {
+  private final AbstractPet pet;
+  private final SimulationClock clock;
+  private long lastEvaluatedTick;
+
+  /**
+   * Creates a lazy pet that starts in sync with the clock's current tick.
+   *
+   * @param pet   the pet whose state is evaluated lazily
+   * @param clock the clock that defines the current tick
+   * @throws IllegalArgumentException if pet or clock is null
+   */
+  public LazyPet(AbstractPet pet, SimulationClock clock) {
+    if (pet == null || clock == null) {
+      throw new IllegalArgumentException("Pet and clock cannot be null");
+    }
+    this.pet = pet;
+    this.clock = clock;
+    this.lastEvaluatedTick = clock.currentTick();
+  }
+
+  /**
+   * Brings the pet up to the clock's current tick.
+   */
+  private void catchUp() {
+    long now = clock.currentTick();
+    long behind = now - lastEvaluatedTick;
+    // fastForward takes an int, so very long idle periods are applied in pieces
+    while (behind > 0 && !pet.isDead()) {
+      int steps = (int) Math.min(behind, Integer.MAX_VALUE);
+      pet.fastForward(steps);
+      behind -= steps;
+    }
+    lastEvaluatedTick = now;
+  }
+
+  /**
+   * Applies one extra step on top of the ticks counted by the clock.
+   */
+  @Override
+  public void step() {
+    catchUp();
+    pet.step();
+  }
+
+  @Override
+  public void fastForward(int steps) {
+    catchUp();
+    pet.fastForward(steps);
+  }
+
+  @Override
+  public void interactWith(Action action) {
+    catchUp();
+    pet.interactWith(action);
+  }
+
+  @Override
+  public HealthStatus getHealth() {
+    catchUp();
+    return pet.getHealth();
+  }
+
+  @Override
+  public MoodEnum getMood() {
+    catchUp();
+    return pet.getMood();
+  }
+
+  @Override
+  public void setMood(MoodEnum mood) {
+    catchUp();
+    pet.setMood(mood);
+  }
+
+  @Override
+  public boolean isDead() {
+    catchUp();
+    return pet.isDead();
+  }
+
+  @Override
+  public DeathThreshold getDeathThreshold() {
+    return pet.getDeathThreshold();
+  }
+
+  /**
+   * Returns the tick this pet was last brought up to date at.
+   *
+   * @return the last evaluated tick
+   */
+  public long getLastEvaluatedTick() {
+    return lastEvaluatedTick;
+  }
+}
@@ -0,0 +1,194 @@
+package pet;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A small compressor for the LZ4 block format: a sequence of literal runs and back references
+ * of at least 4 bytes within the last 64 KB. It favours speed over ratio, with a single hash
+ * probe per position, and decompresses with one bounds-checked copy loop.
+ */
+final class Lz4Block {
+  /** Number of entries the scratch hash table passed to compress needs. */
+  static final int HASH_TABLE_SIZE = 1 << 14;
+
+  private static final int MIN_MATCH = 4;
+  private static final int MAX_OFFSET = 0xFFFF;
+  // The format requires the last 5 bytes to be literals and no match to start in the last 12
+  private static final int LAST_LITERALS = 5;
+  private static final int MATCH_FIND_LIMIT = 12;
+  private static final int RUN_MASK = 15;
+  private static final int HASH_SHIFT = 32 - 14;
+
+  private Lz4Block() {
+  }
+
+  /**
+   * Returns the largest possible compressed size of the given number of bytes.
+   *
+   * @param length the uncompressed length
+   * @return the size the destination buffer needs
+   */
+  static int maxCompressedLength(int length) {
+    return length + length / 255 + 16;
+  }
+
+  /**
+   * Compresses {@code src[srcOff, srcOff + length)} into {@code dst} starting at 0.
+   *
+   * @param src    the bytes to compress
+   * @param srcOff the first byte to compress
+   * @param length the number of bytes to compress
+   * @param dst    the destination, at least {@link #maxCompressedLength} bytes long
+   * @param table  a scratch table of {@link #HASH_TABLE_SIZE} entries, reused between calls
+   * @return the compressed length
+   */
+  static int compress(byte[] src, int srcOff, int length, byte[] dst, int[] table) {
+    int end = srcOff + length;
+    int matchLimit = end - MATCH_FIND_LIMIT;
+    int anchor = srcOff;
+    int out = 0;
+    Arrays.fill(table, 0, HASH_TABLE_SIZE, -1);
+
+    int pos = srcOff;
+    while (pos < matchLimit) {
+      int sequence = readInt(src, pos);
+      int hash = hash(sequence);
+      int candidate = table[hash];
+      table[hash] = pos;
+      if (candidate < srcOff || pos - candidate > MAX_OFFSET
+          || readInt(src, candidate) != sequence) {
+        pos++;
+        continue;
+      }
+      // Extend the match forward, stopping short of the trailing literals
+      int matchEnd = pos + MIN_MATCH;
+      int limit = end - LAST_LITERALS;
+      while (matchEnd < limit && src[matchEnd] == src[candidate + matchEnd - pos]) {
+        matchEnd++;
+      }
+      out = writeSequence(src, anchor, pos - anchor, pos - candidate,
+          matchEnd - pos - MIN_MATCH, dst, out);
+      pos = matchEnd;
+      anchor = pos;
+    }
+    return writeLastLiterals(src, anchor, end - anchor, dst, out);
+  }
+
+  /**
+   * Decompresses a block into {@code dst[0, length)}.
+   *
+   * @param src    the compressed bytes
+   * @param srcOff the first compressed byte
+   * @param srcLen the number of compressed bytes
+   * @param dst    the destination
+   * @param length the expected uncompressed length
+   * @throws IOException if the block is malformed or does not decompress to exactly length bytes
+   */
+  static void decompress(byte[] src, int srcOff, int srcLen, byte[] dst, int length)
+      throws IOException {
+    int in = srcOff;
+    int srcEnd = srcOff + srcLen;
+    int out = 0;
+    while (in < srcEnd) {
+      int token = src[in++] & 0xFF;
+      int literals = token >>> 4;
+      if (literals == RUN_MASK) {
+        int extra;
+        do {
+          if (in >= srcEnd) {
+            throw new IOException("Truncated literal length");
+          }
+          extra = src[in++] & 0xFF;
+          literals += extra;
+        } while (extra == 255);
+      }
+      if (literals > srcEnd - in || literals > length - out) {
+        throw new IOException("Literal run overflows the block");
+      }
+      System.arraycopy(src, in, dst, out, literals);
+      in += literals;
+      out += literals;
+      if (in == srcEnd) {
+        break; // The last sequence has no match
+      }
+
+      if (srcEnd - in < 2) {
+        throw new IOException("Truncated match offset");
+      }
+      int offset = (src[in] & 0xFF) | (src[in + 1] & 0xFF) << 8;
+      in += 2;
+      if (offset == 0 || offset > out) {
+        throw new IOException("Invalid match offset " + offset);
+      }
+      int matchLength = token & RUN_MASK;
+      if (matchLength == RUN_MASK) {
+        int extra;
+        do {
+          if (in >= srcEnd) {
+            throw new IOException("Truncated match length");
+          }
+          extra = src[in++] & 0xFF;
+          matchLength += extra;
+        } while (extra == 255);
+      }
+      matchLength += MIN_MATCH;
+      if (matchLength > length - out) {
+        throw new IOException("Match overflows the block");
+      }
+      // Byte by byte, because a match may overlap the bytes it produces
+      int from = out - offset;
+      for (int i = 0; i < matchLength; i++) {
+        dst[out++] = dst[from + i];
+      }
+    }
+    if (out != length) {
+      throw new IOException("Block decompressed to " + out + " bytes, expected " + length);
+    }
+  }
+
+  private static int writeSequence(byte[] src, int literalStart, int literals, int offset,
+                                   int extraMatch, byte[] dst, int out) {
+    int tokenPos = out++;
+    int token = Math.min(literals, RUN_MASK) << 4 | Math.min(extraMatch, RUN_MASK);
+    dst[tokenPos] = (byte) token;
+    out = writeLength(literals, dst, out);
+    System.arraycopy(src, literalStart, dst, out, literals);
+    out += literals;
+    dst[out++] = (byte) offset;
+    dst[out++] = (byte) (offset >>> 8);
+    return writeLength(extraMatch, dst, out);
+  }
+
+  private static int writeLastLiterals(byte[] src, int start, int literals, byte[] dst, int out) {
+    dst[out++] = (byte) (Math.min(literals, RUN_MASK) << 4);
+    out = writeLength(literals, dst, out);
+    System.arraycopy(src, start, dst, out, literals);
+    return out + literals;
+  }
+
+  /**
+   * Writes the bytes that extend a length of 15 or more beyond its token nibble.
+   */
+  private static int writeLength(int length, byte[] dst, int out) {
+    if (length < RUN_MASK) {
+      return out;
+    }
+    int remaining = length - RUN_MASK;
+    while (remaining >= 255) {
+      dst[out++] = (byte) 255;
+      remaining -= 255;
+    }
+    dst[out++] = (byte) remaining;
+    return out;
+  }
+
+  private static int readInt(byte[] bytes, int pos) {
+    return (bytes[pos] & 0xFF) | (bytes[pos + 1] & 0xFF) << 8 | (bytes[pos + 2] & 0xFF) << 16
+        | (bytes[pos + 3] & 0xFF) << 24;
+  }
+
+  private static int hash(int sequence) {
+    return (sequence * -1640531535) >>> HASH_SHIFT;
+  }
+}
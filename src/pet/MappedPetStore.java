@@ -0,0 +1,378 @@
+package pet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * A population of pets kept in a memory-mapped file instead of on the heap.
+ * Every pet is a fixed-width record of {@value #RECORD_BYTES} bytes, so pet {@code i} always lives
+ * at the same file offset. Stepping and interactions update the mapped pages in place; the
+ * operating system writes them back, and {@link #force()} makes them durable. Opening an existing
+ * file reattaches to its pets without decoding them; the records are only scanned once to
+ * reject a corrupt file before any of its bytes are used as a table index.
+ *
+ * <p>The file starts with a {@value #HEADER_BYTES}-byte header: the magic number, the format
+ * version, the record width and the pet count. Each record holds hunger, hygiene, social, sleep,
+ * the species ordinal, the mood ordinal and the dead flag, one byte each, plus one unused byte.
+ * Pets follow the same rules as {@link PetPopulation}. A store is not thread-safe.
+ */
+public class MappedPetStore implements Closeable {
+  /** Size of the file header in bytes. */
+  public static final int HEADER_BYTES = 16;
+  /** Size of one pet record in bytes. */
+  public static final int RECORD_BYTES = 8;
+  /** Largest number of pets a store can hold, limited by the size of a single mapping. */
+  public static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_BYTES) / RECORD_BYTES;
+
+  private static final int MAGIC = 0x5045544d; // "PETM"
+  private static final short VERSION = 1;
+  private static final int DEFAULT_CAPACITY = 1024;
+  private static final int INITIAL_HEALTH_VALUE = 50;
+
+  // Header fields
+  private static final int MAGIC_OFFSET = 0;
+  private static final int VERSION_OFFSET = 4;
+  private static final int RECORD_BYTES_OFFSET = 6;
+  private static final int SIZE_OFFSET = 8;
+
+  // Record fields
+  private static final int HUNGER = 0;
+  private static final int HYGIENE = 1;
+  private static final int SOCIAL = 2;
+  private static final int SLEEP = 3;
+  private static final int SPECIES_FIELD = 4;
+  private static final int MOOD = 5;
+  private static final int DEAD = 6;
+
+  private static final Species[] SPECIES = Species.values();
+  private static final MoodEnum[] MOODS = MoodEnum.values();
+  private static final byte HAPPY = (byte) MoodEnum.HAPPY.ordinal();
+  private static final byte SAD = (byte) MoodEnum.SAD.ordinal();
+
+  private final FileChannel channel;
+  private MappedByteBuffer buffer;
+  private int capacity;
+  private int size;
+
+  // Source of randomness for sad steps, owned by whichever thread steps this store
+  private RandomGenerator random = new SplittableRandom();
+
+  /**
+   * Opens a store, creating the file if it does not exist.
+   *
+   * @param file the file holding the pets
+   * @throws IOException if the file cannot be opened or mapped, or is not a pet store
+   */
+  public MappedPetStore(Path file) throws IOException {
+    this(file, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Opens a store with room for at least the given number of pets, creating the file if it
+   * does not exist. An existing file keeps its pets and is only ever grown.
+   *
+   * @param file            the file holding the pets
+   * @param initialCapacity the number of pets to reserve space for
+   * @throws IOException              if the file cannot be opened or mapped, or is not a pet store
+   * @throws IllegalArgumentException if initialCapacity is negative or above MAX_CAPACITY
+   */
+  public MappedPetStore(Path file, int initialCapacity) throws IOException {
+    if (initialCapacity < 0 || initialCapacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException("Capacity out of range: " + initialCapacity);
+    }
+    channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    try {
+      long length = channel.size();
+      if (length == 0) {
+        map(initialCapacity);
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+        buffer.putShort(VERSION_OFFSET, VERSION);
+        buffer.putShort(RECORD_BYTES_OFFSET, (short) RECORD_BYTES);
+        buffer.putInt(SIZE_OFFSET, 0);
+      } else {
+        attach(file, length, initialCapacity);
+      }
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Adds a new pet of the given species with default health values.
+   *
+   * @param type the species of the new pet
+   * @return the index of the new pet in this store
+   * @throws IOException if the file has to grow and cannot be remapped
+   */
+  public int add(Species type) throws IOException {
+    int offset = allocate(type);
+    buffer.put(offset + HUNGER, (byte) INITIAL_HEALTH_VALUE);
+    buffer.put(offset + HYGIENE, (byte) INITIAL_HEALTH_VALUE);
+    buffer.put(offset + SOCIAL, (byte) INITIAL_HEALTH_VALUE);
+    buffer.put(offset + SLEEP, (byte) INITIAL_HEALTH_VALUE);
+    updateMoodAndDeathStatus(offset, type, packedHealth(offset));
+    return commit();
+  }
+
+  /**
+   * Adds a copy of an existing pet's state to this store. Health values outside 0-100, which
+   * only a test setter can produce, are clamped into that range; mood and death are copied as is.
+   *
+   * @param pet the pet whose state should be copied
+   * @return the index of the new pet in this store
+   * @throws IOException if the file has to grow and cannot be remapped
+   */
+  public int add(AbstractPet pet) throws IOException {
+    int offset = allocate(pet.getSpecies());
+    // Lanes are stored as bytes, so anything above 127 would otherwise wrap to negative
+    writeHealth(offset, AbstractMoodStrategy.clampHealth(pet.health));
+    buffer.put(offset + MOOD, (byte) pet.getMood().ordinal());
+    buffer.put(offset + DEAD, (byte) (pet.isDead() ? 1 : 0));
+    return commit();
+  }
+
+  /**
+   * Advances every living pet in the store by one unit of time, in place.
+   */
+  public void stepAll() {
+    for (int i = 0, offset = HEADER_BYTES; i < size; i++, offset += RECORD_BYTES) {
+      if (buffer.get(offset + DEAD) != 0) {
+        continue; // No state changes if the pet is dead
+      }
+      Species type = SPECIES[buffer.get(offset + SPECIES_FIELD)];
+      long health = MoodStrategyRegistry.get(type, MOODS[buffer.get(offset + MOOD)])
+          .applyStep(packedHealth(offset), random);
+      writeHealth(offset, health);
+      updateMoodAndDeathStatus(offset, type, health);
+    }
+  }
+
+  /**
+   * Applies an interaction to a single pet, with the same effect as
+   * {@link AbstractPet#interactWith(Action)}.
+   *
+   * @param index  the index of the pet
+   * @param action the type of interaction to apply
+   */
+  public void interactWith(int index, Action action) {
+    int offset = offset(index);
+    if (buffer.get(offset + DEAD) != 0) {
+      return; // No interactions if the pet is dead
+    }
+    Species type = SPECIES[buffer.get(offset + SPECIES_FIELD)];
+    long health = MoodStrategyRegistry.get(type, MOODS[buffer.get(offset + MOOD)])
+        .applyInteraction(packedHealth(offset), action);
+    writeHealth(offset, health);
+    updateMoodAndDeathStatus(offset, type, health);
+  }
+
+  /**
+   * Replaces the source of randomness used by {@link #stepAll()}.
+   *
+   * @param random the generator to use for future steps
+   * @throws IllegalArgumentException if random is null
+   */
+  public void setRandomSource(RandomGenerator random) {
+    if (random == null) {
+      throw new IllegalArgumentException("Random source cannot be null");
+    }
+    this.random = random;
+  }
+
+  /**
+   * Returns the number of pets in this store.
+   *
+   * @return the store size
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of pets the file can hold before it has to grow.
+   *
+   * @return the current capacity
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Returns a snapshot of a pet's health values.
+   *
+   * @param index the index of the pet
+   * @return a new HealthStatus holding the pet's current values
+   */
+  public HealthStatus getHealth(int index) {
+    return HealthStatus.fromPacked(packedHealth(offset(index)));
+  }
+
+  /**
+   * Returns the current mood of a pet.
+   *
+   * @param index the index of the pet
+   * @return the pet's current MoodEnum
+   */
+  public MoodEnum getMood(int index) {
+    return MOODS[buffer.get(offset(index) + MOOD)];
+  }
+
+  /**
+   * Checks if a pet is dead.
+   *
+   * @param index the index of the pet
+   * @return true if the pet is dead, false otherwise
+   */
+  public boolean isDead(int index) {
+    return buffer.get(offset(index) + DEAD) != 0;
+  }
+
+  /**
+   * Returns the species of a pet.
+   *
+   * @param index the index of the pet
+   * @return the pet's Species
+   */
+  public Species getSpecies(int index) {
+    return SPECIES[buffer.get(offset(index) + SPECIES_FIELD)];
+  }
+
+  /**
+   * Writes every changed page to the storage device.
+   */
+  public void force() {
+    buffer.force();
+  }
+
+  /**
+   * Forces all changes to disk and closes the file. The mapping is released once it is
+   * garbage collected.
+   *
+   * @throws IOException if the file cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    if (channel.isOpen()) {
+      buffer.force();
+      channel.close();
+    }
+  }
+
+  private void attach(Path file, long length, int initialCapacity) throws IOException {
+    if (length < HEADER_BYTES || (length - HEADER_BYTES) % RECORD_BYTES != 0) {
+      throw new IOException("Not a pet store, unexpected length " + length + ": " + file);
+    }
+    map((int) Math.min(MAX_CAPACITY, (length - HEADER_BYTES) / RECORD_BYTES));
+    if (buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+      throw new IOException("Not a pet store: " + file);
+    }
+    if (buffer.getShort(VERSION_OFFSET) != VERSION
+        || buffer.getShort(RECORD_BYTES_OFFSET) != RECORD_BYTES) {
+      throw new IOException("Unsupported pet store version " + buffer.getShort(VERSION_OFFSET)
+          + ": " + file);
+    }
+    int storedSize = buffer.getInt(SIZE_OFFSET);
+    if (storedSize < 0 || storedSize > capacity) {
+      throw new IOException("Corrupt pet count " + storedSize + ": " + file);
+    }
+    for (int i = 0, offset = HEADER_BYTES; i < storedSize; i++, offset += RECORD_BYTES) {
+      if (!isValidRecord(offset)) {
+        throw new IOException("Corrupt record for pet " + i + ": " + file);
+      }
+    }
+    size = storedSize;
+    if (initialCapacity > capacity) {
+      map(initialCapacity);
+    }
+  }
+
+  /**
+   * Checks that a record only holds values the store itself writes, so stepping it can neither
+   * index past the species or mood tables nor start from health outside 0-100.
+   */
+  private boolean isValidRecord(int offset) {
+    byte species = buffer.get(offset + SPECIES_FIELD);
+    byte mood = buffer.get(offset + MOOD);
+    byte dead = buffer.get(offset + DEAD);
+    return species >= 0 && species < SPECIES.length && mood >= 0 && mood < MOODS.length
+        && (dead == 0 || dead == 1) && inRange(buffer.get(offset + HUNGER))
+        && inRange(buffer.get(offset + HYGIENE)) && inRange(buffer.get(offset + SOCIAL))
+        && inRange(buffer.get(offset + SLEEP));
+  }
+
+  private static boolean inRange(int value) {
+    return value >= AbstractMoodStrategy.VALUE_FLOOR
+        && value <= AbstractMoodStrategy.VALUE_CEILING;
+  }
+
+  /**
+   * Maps the header and room for the given number of records, growing the file if needed.
+   */
+  private void map(int newCapacity) throws IOException {
+    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+        HEADER_BYTES + (long) newCapacity * RECORD_BYTES);
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    capacity = newCapacity;
+  }
+
+  /**
+   * Reserves the next record and writes its species; the caller fills in the rest and commits.
+   */
+  private int allocate(Species type) throws IOException {
+    if (size == capacity) {
+      if (capacity == MAX_CAPACITY) {
+        throw new IllegalStateException("Pet store is full: " + MAX_CAPACITY);
+      }
+      map((int) Math.min(MAX_CAPACITY, Math.max(DEFAULT_CAPACITY, capacity * 2L)));
+    }
+    int offset = HEADER_BYTES + size * RECORD_BYTES;
+    buffer.put(offset + SPECIES_FIELD, (byte) type.ordinal());
+    return offset;
+  }
+
+  /**
+   * Publishes the record written since allocate() by bumping the stored count.
+   */
+  private int commit() {
+    buffer.putInt(SIZE_OFFSET, size + 1);
+    return size++;
+  }
+
+  private void updateMoodAndDeathStatus(int offset, Species type, long health) {
+    int hu = HealthStatus.hungerOf(health);
+    int hy = HealthStatus.hygieneOf(health);
+    int so = HealthStatus.socialOf(health);
+    int sl = HealthStatus.sleepOf(health);
+    buffer.put(offset + MOOD, type.isSadCondition(hu, hy, so, sl) ? SAD : HAPPY);
+    buffer.put(offset + DEAD, (byte) (type.getDeathThreshold().isDeadCondition(hu, hy, so, sl)
+        ? 1 : 0));
+  }
+
+  private long packedHealth(int offset) {
+    return HealthStatus.pack(buffer.get(offset + HUNGER), buffer.get(offset + HYGIENE),
+        buffer.get(offset + SOCIAL), buffer.get(offset + SLEEP));
+  }
+
+  private void writeHealth(int offset, long health) {
+    buffer.put(offset + HUNGER, (byte) HealthStatus.hungerOf(health));
+    buffer.put(offset + HYGIENE, (byte) HealthStatus.hygieneOf(health));
+    buffer.put(offset + SOCIAL, (byte) HealthStatus.socialOf(health));
+    buffer.put(offset + SLEEP, (byte) HealthStatus.sleepOf(health));
+  }
+
+  private int offset(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Pet index " + index + " out of range: " + size);
+    }
+    return HEADER_BYTES + index * RECORD_BYTES;
+  }
+}
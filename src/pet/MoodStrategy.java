@@ -1,5 +1,7 @@
 package pet;
 
+import java.util.random.RandomGenerator;
+
 /**
  * Interface defining the strategy for a pet's mood.
  * Different moods will have different implementations of this strategy.
@@ -23,5 +25,32 @@ public interface MoodStrategy {
    */
   HealthStatus applyStep(HealthStatus health);
 
+  /**
+   * Applies the effects of an interaction to packed health values without allocating.
+   *
+   * @param health The current health of the pet, packed with {@link HealthStatus#pack}
+   * @param action The action being performed
+   * @return The new packed health after the interaction
+   */
+  long applyInteraction(long health, Action action);
+
+  /**
+   * Applies the natural changes of one step to packed health values without allocating.
+   *
+   * @param health The current health of the pet, packed with {@link HealthStatus#pack}
+   * @return The new packed health after a step passes
+   */
+  long applyStep(long health);
+
+  /**
+   * Applies the natural changes of one step to packed health values, drawing any random
+   * variation from the given generator so that runs can be seeded and replayed.
+   *
+   * @param health The current health of the pet, packed with {@link HealthStatus#pack}
+   * @param random The source of randomness, owned by the calling pet or worker thread
+   * @return The new packed health after a step passes
+   */
+  long applyStep(long health, RandomGenerator random);
+
 
 }
\ No newline at end of file
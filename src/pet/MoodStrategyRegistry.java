@@ -0,0 +1,52 @@
+package pet;
+
+/**
+ * Registry of shared mood strategies.
+ * Strategies hold no per-pet state, so a single HappyStrategy and SadStrategy is built
+ * for each species when the class is loaded and reused by every pet of that species.
+ */
+public final class MoodStrategyRegistry {
+  private static final MoodEnum[] MOODS = MoodEnum.values();
+
+  // Strategies indexed by (species ordinal * mood count + mood ordinal)
+  private static final AbstractMoodStrategy[] STRATEGIES = buildStrategies();
+
+  private MoodStrategyRegistry() {
+    // Static registry, not meant to be instantiated
+  }
+
+  /**
+   * Returns the shared strategy for the given species and mood.
+   *
+   * @param species the species of the pet
+   * @param mood    the current mood of the pet
+   * @return the strategy instance shared by all pets of that species in that mood
+   */
+  public static AbstractMoodStrategy get(Species species, MoodEnum mood) {
+    return STRATEGIES[species.ordinal() * MOODS.length + mood.ordinal()];
+  }
+
+  private static AbstractMoodStrategy[] buildStrategies() {
+    Species[] species = Species.values();
+    AbstractMoodStrategy[] strategies = new AbstractMoodStrategy[species.length * MOODS.length];
+    for (Species type : species) {
+      for (MoodEnum mood : MOODS) {
+        int hungerRate = type.getRate(mood, Species.HUNGER_RATE);
+        int hygieneRate = type.getRate(mood, Species.HYGIENE_RATE);
+        int socialRate = type.getRate(mood, Species.SOCIAL_RATE);
+        int sleepRate = type.getRate(mood, Species.SLEEP_RATE);
+        int actionBoost = type.getRate(mood, Species.ACTION_BOOST);
+
+        AbstractMoodStrategy strategy;
+        if (mood == MoodEnum.HAPPY) {
+          strategy = new HappyStrategy(hungerRate, hygieneRate, socialRate, sleepRate,
+              actionBoost);
+        } else {
+          strategy = new SadStrategy(hungerRate, hygieneRate, socialRate, sleepRate, actionBoost);
+        }
+        strategies[type.ordinal() * MOODS.length + mood.ordinal()] = strategy;
+      }
+    }
+    return strategies;
+  }
+}
@@ -0,0 +1,201 @@
+package pet;
+
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.swing.JComponent;
+import javax.swing.Timer;
+
+/**
+ * A transparent layer drawn over the pet image that shows short-lived overlays,
+ * such as the step indicator, an action badge or a warning.
+ * Each overlay has a corner anchor, a preloaded image and its own hide timer. Showing one only
+ * repaints its own bounds, and no overlay ever touches the disk.
+ * All methods must be called on the Event Dispatch Thread.
+ */
+public class OverlayLayer extends JComponent {
+  /**
+   * The corner of the layer an overlay is placed in.
+   */
+  public enum Anchor {
+    TOP_LEFT,
+    TOP_RIGHT,
+    BOTTOM_LEFT,
+    BOTTOM_RIGHT
+  }
+
+  private static final long serialVersionUID = 1L;
+
+  // Insertion ordered so overlays added later are painted on top
+  private final Map<String, Overlay> overlays = new LinkedHashMap<>();
+
+  /**
+   * Creates an empty, transparent overlay layer.
+   */
+  public OverlayLayer() {
+    setOpaque(false);
+  }
+
+  /**
+   * Registers an overlay. It stays hidden until it has an image and is shown.
+   *
+   * @param id             the name used to show the overlay
+   * @param anchor         the corner to place the overlay in
+   * @param marginX        horizontal distance from the anchored edge, in pixels
+   * @param marginY        vertical distance from the anchored edge, in pixels
+   * @param durationMillis how long the overlay stays visible each time it is shown
+   * @throws IllegalArgumentException if the id is already registered or the duration is not
+   *                                  positive
+   */
+  public void addOverlay(String id, Anchor anchor, int marginX, int marginY, int durationMillis) {
+    if (overlays.containsKey(id)) {
+      throw new IllegalArgumentException("Overlay already registered: " + id);
+    }
+    if (durationMillis <= 0) {
+      throw new IllegalArgumentException("Overlay duration must be positive");
+    }
+    Overlay overlay = new Overlay(anchor, marginX, marginY);
+    overlay.timer = new Timer(durationMillis, e -> hide(id));
+    overlay.timer.setRepeats(false);
+    overlays.put(id, overlay);
+  }
+
+  /**
+   * Sets the image an overlay shows by default, typically once it has been preloaded.
+   *
+   * @param id    the overlay name
+   * @param image the decoded image
+   */
+  public void setImage(String id, Image image) {
+    Overlay overlay = overlay(id);
+    repaintOverlay(overlay);
+    overlay.image = image;
+    repaintOverlay(overlay);
+  }
+
+  /**
+   * Shows an overlay with its default image and (re)starts its hide timer.
+   *
+   * @param id the overlay name
+   * @return true if the overlay is shown, false if it has no image yet
+   */
+  public boolean show(String id) {
+    return show(id, overlay(id).image);
+  }
+
+  /**
+   * Shows an overlay with the given image and (re)starts its hide timer.
+   * The image replaces the overlay's default image.
+   *
+   * @param id    the overlay name
+   * @param image the image to show, usually one of a few prerendered variants
+   * @return true if the overlay is shown, false if image is null
+   */
+  public boolean show(String id, Image image) {
+    Overlay overlay = overlay(id);
+    if (image == null) {
+      return false;
+    }
+    if (overlay.visible) {
+      repaintOverlay(overlay);
+    }
+    overlay.image = image;
+    overlay.visible = true;
+    repaintOverlay(overlay);
+    overlay.timer.restart();
+    return true;
+  }
+
+  /**
+   * Hides an overlay before its timer expires.
+   *
+   * @param id the overlay name
+   */
+  public void hide(String id) {
+    Overlay overlay = overlay(id);
+    overlay.timer.stop();
+    if (overlay.visible) {
+      overlay.visible = false;
+      repaintOverlay(overlay);
+    }
+  }
+
+  /**
+   * Returns whether an overlay is currently visible.
+   *
+   * @param id the overlay name
+   * @return true if the overlay is showing
+   */
+  public boolean isShowing(String id) {
+    return overlay(id).visible;
+  }
+
+  /**
+   * Returns where an overlay is drawn for the current layer size.
+   *
+   * @param id the overlay name
+   * @return the overlay bounds, or null if it has no image yet
+   */
+  public Rectangle getOverlayBounds(String id) {
+    return bounds(overlay(id));
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    Rectangle clip = g.getClipBounds();
+    for (Overlay overlay : overlays.values()) {
+      Rectangle bounds = overlay.visible ? bounds(overlay) : null;
+      if (bounds != null && (clip == null || clip.intersects(bounds))) {
+        g.drawImage(overlay.image, bounds.x, bounds.y, null);
+      }
+    }
+  }
+
+  private Overlay overlay(String id) {
+    Overlay overlay = overlays.get(id);
+    if (overlay == null) {
+      throw new IllegalArgumentException("Unknown overlay: " + id);
+    }
+    return overlay;
+  }
+
+  private Rectangle bounds(Overlay overlay) {
+    if (overlay.image == null) {
+      return null;
+    }
+    int width = overlay.image.getWidth(null);
+    int height = overlay.image.getHeight(null);
+    boolean right = overlay.anchor == Anchor.TOP_RIGHT || overlay.anchor == Anchor.BOTTOM_RIGHT;
+    boolean bottom = overlay.anchor == Anchor.BOTTOM_LEFT || overlay.anchor == Anchor.BOTTOM_RIGHT;
+    int x = right ? getWidth() - overlay.marginX - width : overlay.marginX;
+    int y = bottom ? getHeight() - overlay.marginY - height : overlay.marginY;
+    return new Rectangle(x, y, width, height);
+  }
+
+  private void repaintOverlay(Overlay overlay) {
+    Rectangle bounds = bounds(overlay);
+    if (bounds != null) {
+      repaint(bounds);
+    }
+  }
+
+  /**
+   * Placement, image and visibility of one overlay.
+   */
+  private static final class Overlay {
+    private final Anchor anchor;
+    private final int marginX;
+    private final int marginY;
+    private Image image;
+    private boolean visible;
+    private Timer timer;
+
+    private Overlay(Anchor anchor, int marginX, int marginY) {
+      this.anchor = anchor;
+      this.marginX = marginX;
+      this.marginY = marginY;
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package pet;
+
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Steps a large, fixed collection of pets across all cores using fork/join.
+ * The pets are split into chunks of at most {@code chunkSize}; each chunk is stepped
+ * sequentially by one worker, so every pet is touched by exactly one thread per tick.
+ * Pets keep their own random generators, so workers never contend on shared state.
+ */
+public class ParallelStepper {
+  // Default number of pets each fork/join task steps without splitting further
+  public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+  private final PetInterface[] pets;
+  private final ForkJoinPool pool;
+  private final int chunkSize;
+  private TickStats lastTick;
+
+  /**
+   * Creates a stepper that uses the common fork/join pool and the default chunk size.
+   *
+   * @param pets the pets to step on every tick
+   */
+  public ParallelStepper(Collection<? extends PetInterface> pets) {
+    this(pets, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Creates a stepper with an explicit pool and chunk size.
+   *
+   * @param pets      the pets to step on every tick
+   * @param pool      the pool whose workers step the pets
+   * @param chunkSize the largest number of pets stepped by a single task
+   * @throws IllegalArgumentException if pets or pool is null, or chunkSize is not positive
+   */
+  public ParallelStepper(Collection<? extends PetInterface> pets, ForkJoinPool pool,
+                         int chunkSize) {
+    if (pets == null || pool == null) {
+      throw new IllegalArgumentException("Pets and pool cannot be null");
+    }
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+    }
+    // Copied once so each tick indexes a plain array instead of iterating the collection
+    this.pets = pets.toArray(new PetInterface[0]);
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Advances every pet by one step and waits for all workers to finish.
+   *
+   * @return the timing report for this tick
+   */
+  public TickStats tick() {
+    long start = System.nanoTime();
+    pool.invoke(new StepTask(0, pets.length));
+    lastTick = new TickStats(pets.length, System.nanoTime() - start);
+    return lastTick;
+  }
+
+  /**
+   * Returns the timing report of the most recent tick.
+   *
+   * @return the last TickStats, or null if no tick has run yet
+   */
+  public TickStats getLastTick() {
+    return lastTick;
+  }
+
+  /**
+   * Returns the number of pets stepped on each tick.
+   *
+   * @return the pet count
+   */
+  public int getPetCount() {
+    return pets.length;
+  }
+
+  /**
+   * Returns the largest number of pets stepped by a single task.
+   *
+   * @return the chunk size
+   */
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  // Steps the pets in [from, to), splitting in half until a range fits in one chunk
+  private class StepTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final int from;
+    private final int to;
+
+    StepTask(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= chunkSize) {
+        for (int i = from; i < to; i++) {
+          pets[i].step();
+        }
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new StepTask(from, middle), new StepTask(middle, to));
+    }
+  }
+}
@@ -0,0 +1,420 @@
+package pet;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Incremental checkpoints of one growing PetPopulation, stored in one directory.
+ *
+ * <p>The first checkpoint writes a full base snapshot with {@link PetSnapshotCodec}. Later
+ * checkpoints write a delta holding only the pets that are dirty since the previous checkpoint,
+ * then clear the dirty bits. Once {@code compactionThreshold} deltas have piled up, a background
+ * thread merges them into a new base snapshot and deletes them, so loading never has to replay
+ * a long chain.
+ *
+ * <p>Files are named after a sequence number: {@code base-N.snap} contains every change up to
+ * delta N, and only deltas after it are applied on load. Every file is written to a temporary
+ * name, synced and renamed, so a crash leaves the previous state loadable.
+ */
+public class PetCheckpointStore implements Closeable {
+  /** Default number of deltas that triggers a background compaction. */
+  public static final int DEFAULT_COMPACTION_THRESHOLD = 16;
+
+  private static final String BASE_PREFIX = "base-";
+  private static final String BASE_SUFFIX = ".snap";
+  private static final String DELTA_PREFIX = "delta-";
+  private static final String DELTA_SUFFIX = ".bin";
+  private static final String TEMP_SUFFIX = ".tmp";
+  private static final int DELTA_MAGIC = 0x50444c54; // "PDLT"
+  private static final short DELTA_VERSION = 1;
+  private static final int NO_BASE = -1;
+
+  private final Path directory;
+  private final int compactionThreshold;
+  private final ExecutorService compactor;
+  // Held while merging, so background and explicit compactions never overlap
+  private final Object compactionLock = new Object();
+  // Guarded by this: the current base and the deltas written after it
+  private long baseSequence = NO_BASE;
+  private final TreeSet<Long> deltas = new TreeSet<>();
+  private long nextSequence;
+  private boolean compactionQueued;
+  private boolean closed;
+
+  /**
+   * Opens or creates a store with the default compaction threshold.
+   *
+   * @param directory the directory holding the checkpoint files
+   * @throws IOException if the directory cannot be read or created
+   */
+  public PetCheckpointStore(Path directory) throws IOException {
+    this(directory, DEFAULT_COMPACTION_THRESHOLD);
+  }
+
+  /**
+   * Opens or creates a store, cleaning up files left behind by an interrupted compaction.
+   *
+   * @param directory           the directory holding the checkpoint files
+   * @param compactionThreshold the number of deltas that triggers a background compaction
+   * @throws IOException              if the directory cannot be read or created
+   * @throws IllegalArgumentException if compactionThreshold is not positive
+   */
+  public PetCheckpointStore(Path directory, int compactionThreshold) throws IOException {
+    if (compactionThreshold <= 0) {
+      throw new IllegalArgumentException("Compaction threshold must be positive: "
+          + compactionThreshold);
+    }
+    this.directory = directory;
+    this.compactionThreshold = compactionThreshold;
+    Files.createDirectories(directory);
+    recover();
+    this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "checkpoint-compactor");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Writes the population's changes since the previous checkpoint and clears its dirty bits.
+   * The first checkpoint of a store writes every pet. Must not run while the population is
+   * being stepped.
+   *
+   * @param population the population to checkpoint, always the same one for a store
+   * @return the number of pet records written
+   * @throws IOException if writing fails; the dirty bits are then left set
+   */
+  public synchronized int checkpoint(PetPopulation population) throws IOException {
+    checkOpen();
+    long sequence = nextSequence;
+    int written;
+    if (baseSequence == NO_BASE) {
+      writeBase(population, sequence);
+      baseSequence = sequence;
+      written = population.size();
+    } else {
+      written = population.getDirtyCount();
+      if (written == 0) {
+        return 0;
+      }
+      writeDelta(population, sequence, written);
+      deltas.add(sequence);
+    }
+    nextSequence++;
+    population.clearDirty();
+
+    if (deltas.size() >= compactionThreshold && !compactionQueued) {
+      compactionQueued = true;
+      compactor.execute(this::backgroundCompact);
+    }
+    return written;
+  }
+
+  /**
+   * Loads the latest checkpointed state: the base snapshot with every later delta applied.
+   *
+   * @return the restored population, whose pets are not dirty, or null if nothing was
+   *     checkpointed yet
+   * @throws IOException if a file cannot be read or is corrupt
+   */
+  public synchronized PetPopulation load() throws IOException {
+    checkOpen();
+    if (baseSequence == NO_BASE) {
+      return null;
+    }
+    PetPopulation population = readBase(baseSequence);
+    for (long sequence : deltas) {
+      applyDelta(population, sequence);
+    }
+    population.clearDirty();
+    return population;
+  }
+
+  /**
+   * Merges every current delta into a new base snapshot and deletes the merged files.
+   * Checkpoints can continue while the merge runs; their deltas are kept for the next one.
+   *
+   * @throws IOException if a file cannot be read or written
+   */
+  public void compact() throws IOException {
+    synchronized (compactionLock) {
+      long base;
+      List<Long> merged;
+      synchronized (this) {
+        checkOpen();
+        if (deltas.isEmpty()) {
+          return;
+        }
+        base = baseSequence;
+        merged = new ArrayList<>(deltas);
+      }
+
+      // Only this thread deletes files, so the inputs stay readable without holding the lock
+      PetPopulation population = readBase(base);
+      for (long sequence : merged) {
+        applyDelta(population, sequence);
+      }
+      long last = merged.get(merged.size() - 1);
+      writeBase(population, last);
+
+      synchronized (this) {
+        baseSequence = last;
+        deltas.removeAll(merged);
+      }
+      Files.deleteIfExists(basePath(base));
+      for (long sequence : merged) {
+        Files.deleteIfExists(deltaPath(sequence));
+      }
+    }
+  }
+
+  /**
+   * Returns the number of deltas written since the current base snapshot.
+   *
+   * @return the pending delta count
+   */
+  public synchronized int getDeltaCount() {
+    return deltas.size();
+  }
+
+  /**
+   * Waits for a running compaction and stops the compactor thread.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    }
+    compactor.shutdown();
+    try {
+      compactor.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void backgroundCompact() {
+    try {
+      compact();
+    } catch (IOException | IllegalStateException e) {
+      // The deltas stay in place, so the next threshold crossing retries
+      System.err.println("Could not compact pet checkpoints in " + directory);
+      e.printStackTrace();
+    } finally {
+      synchronized (this) {
+        compactionQueued = false;
+      }
+    }
+  }
+
+  private void writeBase(PetPopulation population, long sequence) throws IOException {
+    Path temp = directory.resolve(BASE_PREFIX + sequence + BASE_SUFFIX + TEMP_SUFFIX);
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+      PetSnapshotCodec.write(population, out, true);
+      out.flush();
+      channel.force(true);
+    }
+    Files.move(temp, basePath(sequence), StandardCopyOption.ATOMIC_MOVE,
+        StandardCopyOption.REPLACE_EXISTING);
+    // Compaction deletes the deltas this base replaces, so the rename must be durable first
+    syncDirectory();
+  }
+
+  private void writeDelta(PetPopulation population, long sequence, int count)
+      throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+        64 + count * (PetSnapshotCodec.RECORD_BYTES + 2));
+    DataOutputStream data = new DataOutputStream(bytes);
+    data.writeInt(DELTA_MAGIC);
+    data.writeShort(DELTA_VERSION);
+    PetSnapshotCodec.writeSpeciesTable(data);
+    data.writeInt(population.size());
+    data.writeInt(count);
+    byte[] record = new byte[PetSnapshotCodec.RECORD_BYTES];
+    int previous = -1;
+    for (int i = population.nextDirty(0); i >= 0; i = population.nextDirty(i + 1)) {
+      // Dirty pets are written in index order, so each index is stored as a short gap
+      writeVarInt(data, i - previous - 1);
+      PetSnapshotCodec.encodeRecord(population, i, record, 0);
+      data.write(record);
+      previous = i;
+    }
+    data.flush();
+
+    Path temp = directory.resolve(DELTA_PREFIX + sequence + DELTA_SUFFIX + TEMP_SUFFIX);
+    ByteBuffer out = ByteBuffer.wrap(bytes.toByteArray());
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (out.hasRemaining()) {
+        channel.write(out);
+      }
+      channel.force(true);
+    }
+    Files.move(temp, deltaPath(sequence), StandardCopyOption.ATOMIC_MOVE,
+        StandardCopyOption.REPLACE_EXISTING);
+    // The dirty bits are cleared once this returns, so the delta must not vanish in a crash
+    syncDirectory();
+  }
+
+  private PetPopulation readBase(long sequence) throws IOException {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(basePath(sequence)),
+        1 << 16)) {
+      return PetSnapshotCodec.read(in);
+    }
+  }
+
+  private void applyDelta(PetPopulation population, long sequence) throws IOException {
+    DataInputStream data = new DataInputStream(
+        new ByteArrayInputStream(Files.readAllBytes(deltaPath(sequence))));
+    if (data.readInt() != DELTA_MAGIC) {
+      throw new IOException("Not a pet checkpoint delta: " + deltaPath(sequence));
+    }
+    short version = data.readShort();
+    if (version != DELTA_VERSION) {
+      throw new IOException("Unsupported delta version " + version + ": " + deltaPath(sequence));
+    }
+    Species[] table = PetSnapshotCodec.readSpeciesTable(data);
+    int size = data.readInt();
+    int count = data.readInt();
+    if (size < population.size() || count < 0 || count > size) {
+      throw new IOException("Corrupt delta header: " + deltaPath(sequence));
+    }
+    byte[] record = new byte[PetSnapshotCodec.RECORD_BYTES];
+    int index = -1;
+    for (int i = 0; i < count; i++) {
+      // Summed as a long, so a corrupt gap cannot wrap around to an earlier or negative index
+      long next = index + (readVarInt(data) & 0xFFFFFFFFL) + 1;
+      // Pets added since the previous checkpoint are always dirty, so they arrive in order
+      if (next >= size || next > population.size()) {
+        throw new IOException("Corrupt delta record for pet " + next + ": "
+            + deltaPath(sequence));
+      }
+      index = (int) next;
+      data.readFully(record);
+      PetSnapshotCodec.decodeRecord(record, 0, table, population, index);
+    }
+    if (population.size() != size) {
+      throw new IOException("Delta is missing new pets: " + deltaPath(sequence));
+    }
+  }
+
+  /**
+   * Finds the newest base and the deltas after it, deleting anything older or unfinished.
+   */
+  private void recover() throws IOException {
+    List<Long> bases = new ArrayList<>();
+    List<Long> found = new ArrayList<>();
+    List<Path> stale = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        String name = file.getFileName().toString();
+        if (name.endsWith(TEMP_SUFFIX)) {
+          stale.add(file);
+        } else if (name.startsWith(BASE_PREFIX) && name.endsWith(BASE_SUFFIX)) {
+          bases.add(parseSequence(name, BASE_PREFIX, BASE_SUFFIX));
+        } else if (name.startsWith(DELTA_PREFIX) && name.endsWith(DELTA_SUFFIX)) {
+          found.add(parseSequence(name, DELTA_PREFIX, DELTA_SUFFIX));
+        }
+      }
+    }
+    for (long sequence : bases) {
+      baseSequence = Math.max(baseSequence, sequence);
+      nextSequence = Math.max(nextSequence, sequence + 1);
+    }
+    for (long sequence : bases) {
+      if (sequence != baseSequence) {
+        stale.add(basePath(sequence));
+      }
+    }
+    for (long sequence : found) {
+      if (baseSequence != NO_BASE && sequence > baseSequence) {
+        deltas.add(sequence);
+        nextSequence = Math.max(nextSequence, sequence + 1);
+      } else {
+        stale.add(deltaPath(sequence));
+      }
+    }
+    for (Path file : stale) {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private void syncDirectory() throws IOException {
+    try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      directoryChannel.force(true);
+    } catch (AccessDeniedException e) {
+      // Windows cannot open a directory; its renames are durable once they return
+    }
+  }
+
+  private Path basePath(long sequence) {
+    return directory.resolve(BASE_PREFIX + sequence + BASE_SUFFIX);
+  }
+
+  private Path deltaPath(long sequence) {
+    return directory.resolve(DELTA_PREFIX + sequence + DELTA_SUFFIX);
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("Checkpoint store is closed");
+    }
+  }
+
+  private static long parseSequence(String name, String prefix, String suffix)
+      throws IOException {
+    try {
+      return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    } catch (NumberFormatException e) {
+      throw new IOException("Unexpected checkpoint file name: " + name, e);
+    }
+  }
+
+  private static void writeVarInt(DataOutputStream data, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      data.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    data.writeByte(value);
+  }
+
+  private static int readVarInt(DataInputStream data) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = data.readUnsignedByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable-length integer");
+  }
+}
@@ -94,60 +94,13 @@ public class PetController {
     }
   }
 
-  /**
-   * Helper method to format health status into a readable display string.
-   *
-   * @param health The current health status of the pet
-   * @return HTML-formatted string showing health stats
-   */
-  private String formatHealthStatusText(HealthStatus health) {
-    return String.format(
-        "<html>"
-            +
-            "<table width='100%%' cellspacing='10'>"
-            +
-            "  <tr>"
-            +
-            "    <td align='right' width='30%%'><b>Hunger:</b></td>"
-            +
-            "    <td align='left' width='10%%'>%d</td>"
-            +
-            "    <td width='10%%'></td>" // Empty column for spacing
-            +
-            "    <td align='right' width='30%%'><b>Hygiene:</b></td>"
-            +
-            "    <td align='left' width='10%%'>%d</td>"
-            +
-            "  </tr>"
-            +
-            "  <tr>"
-            +
-            "    <td align='right'><b>Social:</b></td>"
-            +
-            "    <td align='left'>%d</td>"
-            +
-            "    <td></td>" // Empty column for spacing
-            +
-            "    <td align='right'><b>Sleep:</b></td>"
-            +
-            "    <td align='left'>%d</td>"
-            +
-            "  </tr>"
-            +
-            "</table>"
-            +
-            "</html>",
-        health.getHunger(), health.getHygiene(),
-        health.getSocial(), health.getSleep());
-  }
-
   /**
    * Updates the view to reflect the current state of the pet.
    * refresh the health panel/mood label/mood image(no action) displays.
    */
   private void refreshUserInterface() {
     // Update health display
-    view.updateHealthDisplay(formatHealthStatusText(pet.getHealth()));
+    view.updateHealthDisplay(pet.getHealth());
 
     // Always update mood display in the view
     view.updatePetMoodLabelAndImage(pet.getMood());
@@ -0,0 +1,321 @@
+package pet;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import javax.swing.CellRendererPane;
+import javax.swing.ImageIcon;
+import javax.swing.JPanel;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * A scrollable grid showing many pets at once, meant to be placed in a JScrollPane.
+ * The grid is virtualized: there is no component per pet. Each refresh paints only the cells
+ * inside the visible area, using one shared HealthGaugePanel as a renderer and a small cached
+ * thumbnail per species and mood. A single Swing timer repaints the visible cells, however many
+ * pets there are.
+ *
+ * <p>The dashboard reads each pet's state on the Event Dispatch Thread while painting. Pets
+ * stepped on other threads must publish their state safely, for example by being wrapped in a
+ * {@link ConcurrentPet}; a plain AbstractPet must only be stepped on the EDT. All methods must be
+ * called on the Event Dispatch Thread.
+ */
+public class PetDashboard extends JPanel implements Scrollable {
+  /** Width of one pet cell in pixels. */
+  public static final int CELL_WIDTH = 260;
+  /** Height of one pet cell in pixels. */
+  public static final int CELL_HEIGHT = 120;
+  /** Default time between repaints of the visible cells, in milliseconds. */
+  public static final int DEFAULT_REFRESH_INTERVAL = 500;
+
+  private static final long serialVersionUID = 1L;
+  private static final int THUMBNAIL_WIDTH = 70;
+  private static final int THUMBNAIL_HEIGHT = 80;
+  private static final int PADDING = 8;
+  private static final Color BG_COLOR = new Color(253, 240, 255);
+  private static final Color CELL_COLOR = new Color(253, 249, 255);
+  private static final Color TEXT_COLOR = new Color(75, 0, 130);
+  private static final Color BORDER_COLOR = new Color(186, 85, 211);
+  private static final Color TRACK_COLOR = new Color(226, 185, 248);
+
+  private final List<PetInterface> pets = new ArrayList<>();
+  private final List<Species> species = new ArrayList<>();
+  private final SpriteCache thumbnails = new SpriteCache(
+      Species.values().length * MoodEnum.values().length + 1, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT);
+  private final AsyncSpriteLoader thumbnailLoader;
+  // Thumbnails that could not be loaded; they are reported once and never retried
+  private final Set<String> failedThumbnails = ConcurrentHashMap.newKeySet();
+  private final HealthGaugePanel gaugeRenderer;
+  private final CellRendererPane rendererPane = new CellRendererPane();
+  private final Font titleFont = new Font("Courier", Font.BOLD, 12);
+  private final Timer refreshTimer;
+  private int columns = 1;
+  private int lastPaintedCells;
+
+  /**
+   * Creates an empty dashboard that decodes thumbnails on a background daemon thread.
+   */
+  public PetDashboard() {
+    this(Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "dashboard-thumbnails");
+      thread.setDaemon(true);
+      return thread;
+    }));
+  }
+
+  /**
+   * Creates an empty dashboard.
+   *
+   * @param thumbnailExecutor the executor thumbnails are decoded on
+   */
+  public PetDashboard(Executor thumbnailExecutor) {
+    thumbnailLoader = new AsyncSpriteLoader(thumbnails::get, thumbnailExecutor);
+    gaugeRenderer = new HealthGaugePanel(new Font("Courier", Font.BOLD, 10), TEXT_COLOR,
+        BORDER_COLOR, TRACK_COLOR);
+    gaugeRenderer.setColumns(1);
+    setBackground(BG_COLOR);
+    add(rendererPane);
+    setLayout(null);
+
+    refreshTimer = new Timer(DEFAULT_REFRESH_INTERVAL, e -> repaint(getVisibleRect()));
+  }
+
+  /**
+   * Adds a pet to the end of the grid.
+   *
+   * @param pet         the pet to show
+   * @param petSpecies  the pet's species, which selects its thumbnails
+   * @throws IllegalArgumentException if pet or species is null
+   */
+  public void addPet(PetInterface pet, Species petSpecies) {
+    if (pet == null || petSpecies == null) {
+      throw new IllegalArgumentException("Pet and species must not be null");
+    }
+    pets.add(pet);
+    species.add(petSpecies);
+    revalidate();
+    repaint(getCellBounds(pets.size() - 1));
+  }
+
+  /**
+   * Returns the number of pets on the dashboard.
+   *
+   * @return the pet count
+   */
+  public int getPetCount() {
+    return pets.size();
+  }
+
+  /**
+   * Sets how often the visible cells are repainted.
+   *
+   * @param millis the refresh interval in milliseconds
+   * @throws IllegalArgumentException if millis is not positive
+   */
+  public void setRefreshInterval(int millis) {
+    if (millis <= 0) {
+      throw new IllegalArgumentException("Refresh interval must be positive");
+    }
+    refreshTimer.setDelay(millis);
+    refreshTimer.setInitialDelay(millis);
+  }
+
+  /**
+   * Returns the index of the pet drawn at a point.
+   *
+   * @param x the x coordinate in dashboard coordinates
+   * @param y the y coordinate in dashboard coordinates
+   * @return the pet index, or -1 if there is no pet at that point
+   */
+  public int getPetIndexAt(int x, int y) {
+    if (x < 0 || y < 0 || x >= columns * CELL_WIDTH) {
+      return -1;
+    }
+    int index = (y / CELL_HEIGHT) * columns + x / CELL_WIDTH;
+    return index < pets.size() ? index : -1;
+  }
+
+  /**
+   * Returns where a pet's cell is drawn.
+   *
+   * @param index the pet index
+   * @return the cell bounds in dashboard coordinates
+   */
+  public Rectangle getCellBounds(int index) {
+    return new Rectangle((index % columns) * CELL_WIDTH, (index / columns) * CELL_HEIGHT,
+        CELL_WIDTH, CELL_HEIGHT);
+  }
+
+  /**
+   * Returns the number of cells painted by the last paint, for checking the virtualization.
+   *
+   * @return the number of cells painted
+   */
+  int getLastPaintedCellCount() {
+    return lastPaintedCells;
+  }
+
+  @Override
+  public void setBounds(int x, int y, int width, int height) {
+    super.setBounds(x, y, width, height);
+    // Reflow the grid when the viewport width changes the number of columns
+    int newColumns = Math.max(1, width / CELL_WIDTH);
+    if (newColumns != columns) {
+      columns = newColumns;
+      revalidate();
+      repaint();
+    }
+  }
+
+  @Override
+  public void addNotify() {
+    super.addNotify();
+    refreshTimer.start();
+  }
+
+  @Override
+  public void removeNotify() {
+    refreshTimer.stop();
+    super.removeNotify();
+  }
+
+  @Override
+  public Dimension getPreferredSize() {
+    int rows = (pets.size() + columns - 1) / columns;
+    return new Dimension(columns * CELL_WIDTH, rows * CELL_HEIGHT);
+  }
+
+  @Override
+  public Dimension getPreferredScrollableViewportSize() {
+    return new Dimension(3 * CELL_WIDTH, 5 * CELL_HEIGHT);
+  }
+
+  @Override
+  public int getScrollableUnitIncrement(Rectangle visible, int orientation, int direction) {
+    return orientation == SwingConstants.VERTICAL ? CELL_HEIGHT / 4 : CELL_WIDTH / 4;
+  }
+
+  @Override
+  public int getScrollableBlockIncrement(Rectangle visible, int orientation, int direction) {
+    return orientation == SwingConstants.VERTICAL ? visible.height : visible.width;
+  }
+
+  @Override
+  public boolean getScrollableTracksViewportWidth() {
+    return true;
+  }
+
+  @Override
+  public boolean getScrollableTracksViewportHeight() {
+    return false;
+  }
+
+  @Override
+  protected void paintComponent(Graphics graphics) {
+    super.paintComponent(graphics);
+    Rectangle clip = graphics.getClipBounds();
+    if (clip == null) {
+      clip = new Rectangle(0, 0, getWidth(), getHeight());
+    }
+    Graphics2D g = (Graphics2D) graphics.create();
+    int painted = 0;
+    try {
+      g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+          RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+      // Only the rows and columns intersecting the clip are visited
+      int firstRow = Math.max(0, clip.y / CELL_HEIGHT);
+      int lastRow = (clip.y + clip.height - 1) / CELL_HEIGHT;
+      int firstColumn = Math.max(0, clip.x / CELL_WIDTH);
+      int lastColumn = Math.min(columns - 1, (clip.x + clip.width - 1) / CELL_WIDTH);
+      for (int row = firstRow; row <= lastRow; row++) {
+        for (int column = firstColumn; column <= lastColumn; column++) {
+          int index = row * columns + column;
+          if (index >= pets.size()) {
+            break;
+          }
+          paintCell(g, index, column * CELL_WIDTH, row * CELL_HEIGHT);
+          painted++;
+        }
+      }
+    } finally {
+      g.dispose();
+    }
+    lastPaintedCells = painted;
+  }
+
+  private void paintCell(Graphics2D g, int index, int x, int y) {
+    PetInterface pet = pets.get(index);
+    Species petSpecies = species.get(index);
+    HealthStatus health = pet.getHealth();
+    boolean dead = pet.isDead();
+
+    g.setColor(CELL_COLOR);
+    g.fillRect(x + 2, y + 2, CELL_WIDTH - 4, CELL_HEIGHT - 4);
+    g.setColor(BORDER_COLOR);
+    g.drawRect(x + 2, y + 2, CELL_WIDTH - 5, CELL_HEIGHT - 5);
+
+    ImageIcon thumbnail = getThumbnail(thumbnailName(petSpecies, pet.getMood(), dead));
+    int thumbnailY = y + (CELL_HEIGHT - THUMBNAIL_HEIGHT) / 2;
+    if (thumbnail != null) {
+      g.drawImage(thumbnail.getImage(), x + PADDING, thumbnailY, null);
+    }
+
+    int textX = x + PADDING * 2 + THUMBNAIL_WIDTH;
+    g.setFont(titleFont);
+    g.setColor(TEXT_COLOR);
+    g.drawString("#" + index + " " + displayName(petSpecies) + (dead ? " (dead)" : ""),
+        textX, y + PADDING + g.getFontMetrics().getAscent());
+
+    int gaugesY = y + PADDING + g.getFontMetrics().getHeight();
+    gaugeRenderer.setHealth(health);
+    rendererPane.paintComponent(g, gaugeRenderer, this, textX, gaugesY,
+        x + CELL_WIDTH - PADDING - textX, y + CELL_HEIGHT - PADDING - gaugesY);
+  }
+
+  /**
+   * Returns a decoded thumbnail, starting a background decode and a later repaint if needed.
+   */
+  private ImageIcon getThumbnail(String name) {
+    ImageIcon thumbnail = thumbnails.peek(name);
+    if (thumbnail == null && !failedThumbnails.contains(name)) {
+      thumbnailLoader.load(name)
+          .thenRunAsync(this::repaint, SwingUtilities::invokeLater)
+          .exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null
+                ? e.getCause() : e;
+            if (failedThumbnails.add(name)) {
+              System.err.println("Could not load thumbnail " + name + ": " + cause);
+            }
+            return null;
+          });
+    }
+    return thumbnail;
+  }
+
+  private static String thumbnailName(Species petSpecies, MoodEnum mood, boolean dead) {
+    if (dead) {
+      return "flower";
+    }
+    return mood.name().toLowerCase(Locale.ROOT) + displayName(petSpecies);
+  }
+
+  private static String displayName(Species petSpecies) {
+    String name = petSpecies.name();
+    return name.charAt(0) + name.substring(1).toLowerCase(Locale.ROOT);
+  }
+}
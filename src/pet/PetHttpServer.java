@@ -0,0 +1,1019 @@
+package pet;
+
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.URLDecoder;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An embedded HTTP server exposing pets as a small JSON API, for frontends that cannot use the
+ * Swing view.
+ *
+ * <p>Endpoints, all answering with the pet's state as JSON:
+ * <ul>
+ *   <li>{@code POST /pets?species=FOX} creates a pet and answers 201 with its id;</li>
+ *   <li>{@code GET /pets/{id}} returns health, mood and whether the pet is dead;</li>
+ *   <li>{@code POST /pets/{id}/actions?action=FEED} applies an interaction;</li>
+ *   <li>{@code POST /pets/{id}/step?steps=N} advances the pet, one step by default.</li>
+ * </ul>
+ * Parameters may also be sent as a JSON body such as {@code {"species": "fox"}}. Errors answer
+ * with a status code and {@code {"error": "..."}}.
+ *
+ * <p>Instead of polling, clients can open {@code GET /events?pets=1,2,3}, a server-sent event
+ * stream that first sends each pet's state and then a {@code pet} event whenever a step or an
+ * action changes its health, mood or death. Changes are pushed once per push interval and
+ * coalesced per client: a pet that changed many times in one interval is sent once, and a client
+ * that reads slower than its pets change is sent each pet's latest state when its socket drains,
+ * never a backlog.
+ *
+ * <p>The server speaks just enough HTTP/1.1 for API clients: keep-alive and pipelined requests
+ * with {@code Content-Length} bodies, but no chunked uploads. It runs a few event loops on
+ * non-blocking channels rather than the JDK's {@code com.sun.net.httpserver}, which spends several
+ * times more CPU per request on its dispatcher and header handling. Requests are handled on the
+ * loop that read them, since every operation on a pet takes microseconds.
+ *
+ * <p>Each pet is a {@link ConcurrentPet}: loops queue actions without locking, and whichever loop
+ * then holds the pet's monitor applies them, so concurrent requests to one pet are never lost and
+ * requests to different pets never contend.
+ */
+public class PetHttpServer implements AutoCloseable {
+  /** Default port when none is given on the command line. */
+  public static final int DEFAULT_PORT = 8080;
+  /** Largest number of steps a single step request may advance. */
+  public static final int MAX_STEPS = 1_000_000;
+  /** Default time between pushes of changed pets to event stream subscribers. */
+  public static final long DEFAULT_PUSH_INTERVAL_MILLIS = 100;
+  /** Largest number of pets a single event stream may subscribe to. */
+  public static final int MAX_SUBSCRIBED_PETS = 10_000;
+
+  private static final String PETS_PATH = "/pets";
+  private static final String EVENTS_PATH = "/events";
+  private static final int MAX_HEADER_BYTES = 8192;
+  private static final int MAX_BODY_BYTES = 4096;
+  private static final int READ_BUFFER_BYTES = 1024;
+  private static final int WRITE_BUFFER_BYTES = 4096;
+  // Caps what the kernel queues for a stream, so backlogged events are coalesced here instead
+  private static final int STREAM_SEND_BUFFER_BYTES = 16 * 1024;
+  private static final byte[] HEADER_END = {'\r', '\n', '\r', '\n'};
+
+  private final ServerSocketChannel serverChannel;
+  private final EventLoop[] loops;
+  private final Map<Integer, Entry> pets = new ConcurrentHashMap<>();
+  private final AtomicInteger nextId = new AtomicInteger(1);
+  private final Queue<Entry> changed = new ConcurrentLinkedQueue<>();
+  private final ScheduledExecutorService pusher;
+  private final long pushIntervalMillis;
+  private volatile boolean running = true;
+  private boolean started;
+  private int nextLoop;
+
+  /**
+   * A served pet and the species it was created as.
+   */
+  private static final class Entry {
+    private final int id;
+    private final Species species;
+    private final ConcurrentPet pet;
+    // Event streams subscribed to this pet, on any loop
+    private final AtomicInteger subscribers = new AtomicInteger();
+    // Whether the pet is queued for the next push
+    private final AtomicBoolean queued = new AtomicBoolean();
+
+    private Entry(int id, Species species, ConcurrentPet pet) {
+      this.id = id;
+      this.species = species;
+      this.pet = pet;
+    }
+  }
+
+  /**
+   * Signals a request that cannot be served, carrying the status code to answer with.
+   */
+  private static final class RequestException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    private RequestException(int status, String message) {
+      super(message);
+      this.status = status;
+    }
+  }
+
+  /**
+   * Creates a server bound to an address; it accepts requests once started.
+   *
+   * @param address the address to listen on, e.g. port 0 on localhost for any free port
+   * @param threads the number of event loop threads
+   * @throws IOException              if the address cannot be bound
+   * @throws IllegalArgumentException if threads is not positive
+   */
+  public PetHttpServer(InetSocketAddress address, int threads) throws IOException {
+    this(address, threads, DEFAULT_PUSH_INTERVAL_MILLIS);
+  }
+
+  /**
+   * Creates a server bound to an address with a given push interval for event streams.
+   *
+   * @param address            the address to listen on
+   * @param threads            the number of event loop threads
+   * @param pushIntervalMillis the time between pushes of changed pets to subscribers
+   * @throws IOException              if the address cannot be bound
+   * @throws IllegalArgumentException if threads or pushIntervalMillis is not positive
+   */
+  public PetHttpServer(InetSocketAddress address, int threads, long pushIntervalMillis)
+      throws IOException {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Thread count must be positive: " + threads);
+    }
+    if (pushIntervalMillis <= 0) {
+      throw new IllegalArgumentException("Push interval must be positive: " + pushIntervalMillis);
+    }
+    this.pushIntervalMillis = pushIntervalMillis;
+    pusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "pet-http-push");
+      thread.setDaemon(true);
+      return thread;
+    });
+    serverChannel = ServerSocketChannel.open();
+    loops = new EventLoop[threads];
+    try {
+      serverChannel.bind(address, 1024);
+      serverChannel.configureBlocking(false);
+      for (int i = 0; i < threads; i++) {
+        loops[i] = new EventLoop(i);
+      }
+      // The first loop also accepts connections and deals them out to all loops
+      serverChannel.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+    } catch (IOException e) {
+      close();
+      throw e;
+    }
+  }
+
+  /**
+   * Starts accepting requests.
+   *
+   * @throws IllegalStateException if the server was already started
+   */
+  public synchronized void start() {
+    if (started) {
+      throw new IllegalStateException("Server already started");
+    }
+    started = true;
+    for (EventLoop loop : loops) {
+      loop.thread.start();
+    }
+    pusher.scheduleAtFixedRate(this::push, pushIntervalMillis, pushIntervalMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stops accepting requests and closes every connection.
+   */
+  @Override
+  public void close() {
+    running = false;
+    pusher.shutdownNow();
+    for (EventLoop loop : loops) {
+      if (loop != null) {
+        loop.selector.wakeup();
+      }
+    }
+    try {
+      for (EventLoop loop : loops) {
+        if (loop != null && loop.thread.isAlive()) {
+          loop.thread.join(5000);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    try {
+      serverChannel.close();
+      for (EventLoop loop : loops) {
+        if (loop != null && !loop.thread.isAlive()) {
+          loop.closeAll();
+        }
+      }
+    } catch (IOException e) {
+      // Nothing left to do with a channel that will not close
+    }
+  }
+
+  /**
+   * Returns the port the server listens on, useful when it was bound to port 0.
+   *
+   * @return the local port
+   */
+  public int getPort() {
+    return serverChannel.socket().getLocalPort();
+  }
+
+  /**
+   * Creates a pet directly, as {@code POST /pets} would.
+   *
+   * @param species the species of the new pet
+   * @return the id of the new pet
+   * @throws IllegalArgumentException if species is null
+   */
+  public int createPet(Species species) {
+    if (species == null) {
+      throw new IllegalArgumentException("Species cannot be null");
+    }
+    int id = nextId.getAndIncrement();
+    pets.put(id, new Entry(id, species, new ConcurrentPet(species.createPet())));
+    return id;
+  }
+
+  /**
+   * Returns a served pet.
+   *
+   * @param id the pet id
+   * @return the pet, or null if no pet has that id
+   */
+  public PetInterface getPet(int id) {
+    Entry entry = pets.get(id);
+    return entry == null ? null : entry.pet;
+  }
+
+  /**
+   * Applies an action to a pet, as {@code POST /pets/{id}/actions} would, notifying subscribers.
+   *
+   * @param id     the pet id
+   * @param action the type of interaction to apply
+   * @throws IllegalArgumentException if no pet has that id or action is null
+   */
+  public void interactWith(int id, Action action) {
+    if (action == null) {
+      throw new IllegalArgumentException("Action cannot be null");
+    }
+    applyAction(existingPet(id), action);
+  }
+
+  /**
+   * Advances a pet, as {@code POST /pets/{id}/step} would, notifying subscribers.
+   *
+   * @param id    the pet id
+   * @param steps the number of steps, from 1 to {@link #MAX_STEPS}
+   * @throws IllegalArgumentException if no pet has that id or steps is out of range
+   */
+  public void step(int id, int steps) {
+    if (steps < 1 || steps > MAX_STEPS) {
+      throw new IllegalArgumentException("Steps must be between 1 and " + MAX_STEPS + ": " + steps);
+    }
+    advance(existingPet(id), steps);
+  }
+
+  private Entry existingPet(int id) {
+    Entry entry = pets.get(id);
+    if (entry == null) {
+      throw new IllegalArgumentException("No pet with id " + id);
+    }
+    return entry;
+  }
+
+  private void applyAction(Entry entry, Action action) {
+    // Queued without locking; this thread or a concurrent one applies it right away
+    entry.pet.interactWith(action);
+    synchronized (entry.pet) {
+      State before = State.of(entry);
+      entry.pet.applyPendingActions();
+      notifyIfChanged(entry, before);
+    }
+  }
+
+  private void advance(Entry entry, int steps) {
+    synchronized (entry.pet) {
+      State before = State.of(entry);
+      if (steps == 1) {
+        entry.pet.step();
+      } else {
+        entry.pet.fastForward(steps);
+      }
+      notifyIfChanged(entry, before);
+    }
+  }
+
+  private void notifyIfChanged(Entry entry, State before) {
+    // With no state from before, a stream that subscribed during the change may have rendered
+    // the old state, so the pet is queued anyway; a duplicate event is harmless, a lost one not
+    boolean dirty = before == null ? entry.subscribers.get() > 0 : !before.matches(entry.pet);
+    if (dirty && entry.queued.compareAndSet(false, true)) {
+      changed.add(entry);
+    }
+  }
+
+  /**
+   * Hands every pet changed since the last push to the event loops, which forward each to the
+   * streams subscribed to it. Runs on the push thread.
+   */
+  private void push() {
+    List<Entry> batch = new ArrayList<>();
+    for (Entry entry = changed.poll(); entry != null; entry = changed.poll()) {
+      // Cleared before the state is rendered, so a later change queues the pet again
+      entry.queued.set(false);
+      batch.add(entry);
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+    for (EventLoop loop : loops) {
+      loop.updates.add(batch);
+      loop.selector.wakeup();
+    }
+  }
+
+  /**
+   * A pet's observable state before an operation, taken only when someone subscribes to it.
+   */
+  private static final class State {
+    private final HealthStatus health;
+    private final MoodEnum mood;
+    private final boolean dead;
+
+    private State(PetInterface pet) {
+      health = pet.getHealth();
+      mood = pet.getMood();
+      dead = pet.isDead();
+    }
+
+    private static State of(Entry entry) {
+      return entry.subscribers.get() > 0 ? new State(entry.pet) : null;
+    }
+
+    private boolean matches(PetInterface pet) {
+      return health.equals(pet.getHealth()) && mood == pet.getMood() && dead == pet.isDead();
+    }
+  }
+
+  /**
+   * Serves pets until the process is stopped.
+   * Options: {@code --port N} (default 8080), {@code --threads N} (default: the number of
+   * processors), {@code --push-millis N} (default 100) and {@code --bind ADDRESS}. The API has no
+   * authentication, so by default it only listens on the loopback address; binding another
+   * address exposes it to every host that can reach that address.
+   *
+   * @param args the command line options
+   * @throws IOException          if the port cannot be bound
+   * @throws InterruptedException if interrupted while serving
+   */
+  public static void main(String[] args) throws IOException, InterruptedException {
+    InetAddress bind = InetAddress.getLoopbackAddress();
+    int port = DEFAULT_PORT;
+    int threads = Runtime.getRuntime().availableProcessors();
+    long pushMillis = DEFAULT_PUSH_INTERVAL_MILLIS;
+    try {
+      for (int i = 0; i < args.length; i += 2) {
+        String value = i + 1 < args.length ? args[i + 1] : null;
+        if (value == null) {
+          throw new IllegalArgumentException("Missing value for " + args[i]);
+        }
+        switch (args[i]) {
+          case "--bind":
+            bind = resolve(value);
+            break;
+          case "--port":
+            port = Integer.parseInt(value);
+            break;
+          case "--threads":
+            threads = Integer.parseInt(value);
+            break;
+          case "--push-millis":
+            pushMillis = Long.parseLong(value);
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown option: " + args[i]);
+        }
+      }
+    } catch (IllegalArgumentException e) {
+      System.err.println("Invalid arguments: " + e.getMessage());
+      System.err.println("Usage: --serve [--bind ADDRESS] [--port N] [--threads N]"
+          + " [--push-millis N]");
+      System.exit(2);
+      return;
+    }
+    PetHttpServer petServer = new PetHttpServer(new InetSocketAddress(bind, port), threads,
+        pushMillis);
+    petServer.start();
+    String host = bind instanceof Inet6Address ? "[" + bind.getHostAddress() + "]"
+        : bind.getHostAddress();
+    System.out.println("Serving pets on http://" + host + ":" + petServer.getPort() + PETS_PATH);
+    Runtime.getRuntime().addShutdownHook(new Thread(petServer::close, "pet-http-shutdown"));
+    // The loops are daemon threads so that embedding servers never keep a JVM alive
+    for (EventLoop loop : petServer.loops) {
+      loop.thread.join();
+    }
+  }
+
+  private static InetAddress resolve(String host) {
+    try {
+      return InetAddress.getByName(host);
+    } catch (UnknownHostException e) {
+      throw new IllegalArgumentException("Unknown bind address: " + host, e);
+    }
+  }
+
+  /**
+   * One selector thread serving the connections dealt to it, and the event streams among them
+   * indexed by pet id.
+   */
+  private final class EventLoop implements Runnable {
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<SocketChannel> handedOver = new ConcurrentLinkedQueue<>();
+    private final Queue<List<Entry>> updates = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, List<Connection>> streams = new HashMap<>();
+    private final LinkedHashSet<Connection> touched = new LinkedHashSet<>();
+
+    private EventLoop(int index) throws IOException {
+      selector = Selector.open();
+      thread = new Thread(this, "pet-http-" + index);
+      thread.setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (running) {
+          selector.select();
+          for (SocketChannel channel = handedOver.poll(); channel != null;
+               channel = handedOver.poll()) {
+            register(channel);
+          }
+          // Batches that queued up while the loop was busy are merged into one send per stream
+          for (List<Entry> batch = updates.poll(); batch != null; batch = updates.poll()) {
+            markPending(batch);
+          }
+          for (Connection connection : touched) {
+            connection.push();
+          }
+          touched.clear();
+          Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+          while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            if (key.isValid() && key.isAcceptable()) {
+              accept();
+            } else if (key.isValid()) {
+              ((Connection) key.attachment()).handle(key);
+            }
+          }
+        }
+      } catch (IOException | ClosedSelectorException e) {
+        if (running) {
+          System.err.println("Pet server loop stopped: " + e);
+        }
+      } finally {
+        closeAll();
+      }
+    }
+
+    private void accept() throws IOException {
+      for (SocketChannel channel = serverChannel.accept(); channel != null;
+           channel = serverChannel.accept()) {
+        EventLoop loop = loops[nextLoop];
+        nextLoop = (nextLoop + 1) % loops.length;
+        if (loop == this) {
+          register(channel);
+        } else {
+          loop.handedOver.add(channel);
+          loop.selector.wakeup();
+        }
+      }
+    }
+
+    private void register(SocketChannel channel) {
+      try {
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        Connection connection = new Connection(this, channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+      } catch (IOException e) {
+        closeQuietly(channel);
+      }
+    }
+
+    /**
+     * Marks the changed pets as pending on every stream subscribed to them and remembers those
+     * streams, to be sent to once their socket has taken everything sent before.
+     */
+    private void markPending(List<Entry> batch) {
+      for (Entry entry : batch) {
+        List<Connection> subscribed = streams.get(entry.id);
+        if (subscribed != null) {
+          for (Connection connection : subscribed) {
+            connection.pending.add(entry);
+            touched.add(connection);
+          }
+        }
+      }
+    }
+
+    private void subscribe(Connection connection) {
+      for (Entry entry : connection.subscriptions) {
+        streams.computeIfAbsent(entry.id, id -> new ArrayList<>()).add(connection);
+        entry.subscribers.incrementAndGet();
+      }
+    }
+
+    private void unsubscribe(Connection connection) {
+      for (Entry entry : connection.subscriptions) {
+        List<Connection> subscribed = streams.get(entry.id);
+        subscribed.remove(connection);
+        if (subscribed.isEmpty()) {
+          streams.remove(entry.id);
+        }
+        entry.subscribers.decrementAndGet();
+      }
+    }
+
+    private void closeAll() {
+      try {
+        for (SelectionKey key : selector.keys()) {
+          if (key.channel() != serverChannel) {
+            closeQuietly((SocketChannel) key.channel());
+          }
+        }
+        selector.close();
+      } catch (IOException | ClosedSelectorException e) {
+        // Already closed
+      }
+    }
+  }
+
+  /**
+   * The buffers and parsing state of one client connection. Requests are read into {@code in},
+   * and every complete request in it is answered into {@code out} before writing, so pipelined
+   * requests are answered with a single write.
+   *
+   * <p>A connection that opens an event stream stops taking requests. Its subscribed pets that
+   * changed wait in {@code pending}, at most once each, and are rendered only once {@code out} is
+   * empty, so a slow client costs one pending entry per pet however long it lags.
+   */
+  private final class Connection {
+    private final EventLoop loop;
+    private final SocketChannel channel;
+    private SelectionKey key;
+    private ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_BYTES);
+    private ByteBuffer out = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+    private boolean closing;
+    // Set once the connection is an event stream
+    private Entry[] subscriptions;
+    private final LinkedHashSet<Entry> pending = new LinkedHashSet<>();
+
+    private Connection(EventLoop loop, SocketChannel channel) {
+      this.loop = loop;
+      this.channel = channel;
+    }
+
+    private void handle(SelectionKey key) {
+      try {
+        if (key.isValid() && key.isReadable()) {
+          if (channel.read(in) < 0) {
+            close();
+            return;
+          }
+          if (subscriptions != null) {
+            // Streams only watch for the client going away
+            in.clear();
+            flush(key);
+            return;
+          }
+          in.flip();
+          while (!closing && serveNext()) {
+            // Answer every complete request already received
+          }
+          in.compact();
+          if (!in.hasRemaining() && in.capacity() < MAX_HEADER_BYTES + MAX_BODY_BYTES) {
+            in = grow(in, in.capacity() * 2);
+          }
+        }
+        flush(key);
+      } catch (IOException e) {
+        close();
+      }
+    }
+
+    private void push() {
+      try {
+        flush(key);
+      } catch (IOException e) {
+        close();
+      }
+    }
+
+    private void close() {
+      if (subscriptions != null && channel.isOpen()) {
+        loop.unsubscribe(this);
+      }
+      closeQuietly(channel);
+    }
+
+    /**
+     * Answers the request at the start of {@code in} if it has fully arrived.
+     *
+     * @return whether a request was answered
+     */
+    private boolean serveNext() throws IOException {
+      int start = in.position();
+      int headerEnd = indexOf(in, HEADER_END);
+      if (headerEnd < 0) {
+        if (in.remaining() >= MAX_HEADER_BYTES) {
+          fail(431, "Request headers too large");
+        }
+        return false;
+      }
+      String[] lines = new String(in.array(), start, headerEnd - start,
+          StandardCharsets.ISO_8859_1).split("\r\n");
+      String[] requestLine = lines[0].split(" ");
+      if (requestLine.length != 3 || !requestLine[2].startsWith("HTTP/1.")) {
+        fail(400, "Malformed request line");
+        return false;
+      }
+      boolean keepAlive = requestLine[2].equals("HTTP/1.1");
+      int length = 0;
+      for (int i = 1; i < lines.length; i++) {
+        int colon = lines[i].indexOf(':');
+        if (colon <= 0) {
+          fail(400, "Malformed header");
+          return false;
+        }
+        String name = lines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT);
+        String value = lines[i].substring(colon + 1).trim();
+        if (name.equals("content-length")) {
+          try {
+            length = Integer.parseInt(value);
+          } catch (NumberFormatException e) {
+            length = -1;
+          }
+          if (length < 0) {
+            fail(400, "Malformed Content-Length");
+            return false;
+          }
+        } else if (name.equals("transfer-encoding")) {
+          fail(501, "Chunked request bodies are not supported");
+          return false;
+        } else if (name.equals("connection")) {
+          keepAlive = value.equalsIgnoreCase("keep-alive")
+              || keepAlive && !value.equalsIgnoreCase("close");
+        }
+      }
+      if (length > MAX_BODY_BYTES) {
+        fail(413, "Request body too large");
+        return false;
+      }
+      int bodyStart = headerEnd + HEADER_END.length;
+      if (in.limit() - bodyStart < length) {
+        return false;
+      }
+      String body = new String(in.array(), bodyStart, length, StandardCharsets.UTF_8);
+      in.position(bodyStart + length);
+
+      String target = requestLine[1];
+      int question = target.indexOf('?');
+      String path = question < 0 ? target : target.substring(0, question);
+      String query = question < 0 ? null : target.substring(question + 1);
+      String method = requestLine[0];
+      if (path.equals(EVENTS_PATH)) {
+        try {
+          openStream(method, query);
+          return false;
+        } catch (RequestException e) {
+          respond(e.status, errorJson(e.getMessage()));
+          closing = !keepAlive;
+          return true;
+        }
+      }
+      int status = 200;
+      String response;
+      try {
+        response = route(method, path, query, body);
+        if (method.equals("POST") && (path.equals(PETS_PATH) || path.equals(PETS_PATH + "/"))) {
+          status = 201;
+        }
+      } catch (RequestException e) {
+        status = e.status;
+        response = errorJson(e.getMessage());
+      } catch (RuntimeException e) {
+        // Keeps one broken request from stopping the loop and every connection on it
+        status = 500;
+        response = errorJson("Internal error: " + e);
+      }
+      respond(status, response);
+      closing = !keepAlive;
+      return true;
+    }
+
+    /**
+     * Turns this connection into an event stream for the pets listed in the query, starting
+     * with their current state.
+     */
+    private void openStream(String method, String query) throws RequestException, IOException {
+      requireMethod(method, "GET");
+      String list = parameter(query, "", "pets");
+      if (list == null || list.isEmpty()) {
+        throw new RequestException(400, "Missing pets");
+      }
+      LinkedHashSet<Entry> entries = new LinkedHashSet<>();
+      for (String id : list.split(",")) {
+        entries.add(findPet(id.trim()));
+      }
+      if (entries.size() > MAX_SUBSCRIBED_PETS) {
+        throw new RequestException(400, "At most " + MAX_SUBSCRIBED_PETS + " pets per stream");
+      }
+      out.put(("HTTP/1.1 200 OK\r\nContent-Type: text/event-stream\r\n"
+          + "Cache-Control: no-cache\r\nConnection: keep-alive\r\n\r\n")
+          .getBytes(StandardCharsets.US_ASCII));
+      channel.setOption(StandardSocketOptions.SO_SNDBUF, STREAM_SEND_BUFFER_BYTES);
+      subscriptions = entries.toArray(new Entry[0]);
+      // Subscribed before the initial state is rendered, so any change after it gets pushed
+      loop.subscribe(this);
+      pending.addAll(entries);
+      renderPending();
+    }
+
+    /**
+     * Appends one event per pending pet, with its state as of now.
+     */
+    private void renderPending() {
+      StringBuilder events = new StringBuilder(pending.size() * 140);
+      for (Entry entry : pending) {
+        events.append("event: pet\ndata: ").append(toJson(entry)).append("\n\n");
+      }
+      pending.clear();
+      byte[] bytes = events.toString().getBytes(StandardCharsets.UTF_8);
+      if (out.remaining() < bytes.length) {
+        out = grow(out, out.position() + bytes.length);
+      }
+      out.put(bytes);
+    }
+
+    private void write() throws IOException {
+      out.flip();
+      channel.write(out);
+      out.compact();
+    }
+
+    private void fail(int status, String message) {
+      respond(status, errorJson(message));
+      closing = true;
+    }
+
+    private void respond(int status, String body) {
+      byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+      byte[] header = ("HTTP/1.1 " + status + ' ' + reason(status)
+          + "\r\nContent-Type: application/json\r\nContent-Length: " + bytes.length
+          + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+      if (out.remaining() < header.length + bytes.length) {
+        out = grow(out, out.position() + header.length + bytes.length);
+      }
+      out.put(header).put(bytes);
+    }
+
+    /**
+     * Writes what the socket accepts, then waits for reads again, for the socket to drain, or
+     * closes the connection once a closing response is out. Streams render their pending pets
+     * here, only when everything sent before has been taken.
+     */
+    private void flush(SelectionKey key) throws IOException {
+      write();
+      if (subscriptions != null && out.position() == 0 && !pending.isEmpty()) {
+        renderPending();
+        write();
+      }
+      if (subscriptions != null) {
+        // Streams keep reading, to notice the client closing
+        key.interestOps(out.position() > 0
+            ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+      } else if (out.position() > 0) {
+        // Stop reading until the client takes its responses
+        key.interestOps(SelectionKey.OP_WRITE);
+      } else if (closing) {
+        close();
+      } else {
+        key.interestOps(SelectionKey.OP_READ);
+      }
+    }
+  }
+
+  private String route(String method, String path, String query, String requestBody)
+      throws RequestException {
+    if (path.equals(PETS_PATH) || path.equals(PETS_PATH + "/")) {
+      requireMethod(method, "POST");
+      Species species = parseEnum(Species.class, "species",
+          parameter(query, requestBody, "species"));
+      return toJson(pets.get(createPet(species)));
+    }
+
+    if (!path.startsWith(PETS_PATH + "/")) {
+      throw new RequestException(404, "Unknown path " + path);
+    }
+    // /pets/{id} or /pets/{id}/{command}
+    String[] parts = path.substring(PETS_PATH.length() + 1).split("/");
+    if (parts.length > 2) {
+      throw new RequestException(404, "Unknown path " + path);
+    }
+    Entry entry = findPet(parts[0]);
+    if (parts.length == 1) {
+      requireMethod(method, "GET");
+      return toJson(entry);
+    }
+    switch (parts[1]) {
+      case "actions":
+        requireMethod(method, "POST");
+        Action action = parseEnum(Action.class, "action", parameter(query, requestBody, "action"));
+        applyAction(entry, action);
+        return toJson(entry);
+      case "step":
+        requireMethod(method, "POST");
+        advance(entry, parseSteps(parameter(query, requestBody, "steps")));
+        return toJson(entry);
+      default:
+        throw new RequestException(404, "Unknown path " + path);
+    }
+  }
+
+  private Entry findPet(String idText) throws RequestException {
+    Entry entry = null;
+    try {
+      entry = pets.get(Integer.parseInt(idText));
+    } catch (NumberFormatException e) {
+      // Reported as an unknown pet below
+    }
+    if (entry == null) {
+      throw new RequestException(404, "No pet with id " + idText);
+    }
+    return entry;
+  }
+
+  private static String toJson(Entry entry) {
+    PetInterface pet = entry.pet;
+    HealthStatus health = pet.getHealth();
+    return new StringBuilder(128)
+        .append("{\"id\":").append(entry.id)
+        .append(",\"species\":\"").append(entry.species.name())
+        .append("\",\"health\":{\"hunger\":").append(health.getHunger())
+        .append(",\"hygiene\":").append(health.getHygiene())
+        .append(",\"social\":").append(health.getSocial())
+        .append(",\"sleep\":").append(health.getSleep())
+        .append("},\"mood\":\"").append(pet.getMood().name())
+        .append("\",\"dead\":").append(pet.isDead())
+        .append('}').toString();
+  }
+
+  private static void requireMethod(String method, String expected) throws RequestException {
+    if (!expected.equals(method)) {
+      throw new RequestException(405, "Use " + expected + " for this path");
+    }
+  }
+
+  private static <E extends Enum<E>> E parseEnum(Class<E> type, String name, String value)
+      throws RequestException {
+    if (value == null) {
+      throw new RequestException(400, "Missing " + name);
+    }
+    try {
+      return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new RequestException(400, "Unknown " + name + " " + value);
+    }
+  }
+
+  private static int parseSteps(String value) throws RequestException {
+    if (value == null) {
+      return 1;
+    }
+    try {
+      int steps = Integer.parseInt(value);
+      if (steps >= 1 && steps <= MAX_STEPS) {
+        return steps;
+      }
+    } catch (NumberFormatException e) {
+      // Reported below
+    }
+    throw new RequestException(400, "Steps must be between 1 and " + MAX_STEPS + ": " + value);
+  }
+
+  /**
+   * Looks a parameter up in the query string, then in a flat JSON request body.
+   */
+  private static String parameter(String query, String body, String name) {
+    if (query != null) {
+      for (String pair : query.split("&")) {
+        int equals = pair.indexOf('=');
+        if (equals > 0 && pair.substring(0, equals).equals(name)) {
+          return URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+        }
+      }
+    }
+    int key = body.indexOf('"' + name + '"');
+    if (key < 0) {
+      return null;
+    }
+    int colon = body.indexOf(':', key + name.length() + 2);
+    if (colon < 0) {
+      return null;
+    }
+    int start = colon + 1;
+    while (start < body.length() && Character.isWhitespace(body.charAt(start))) {
+      start++;
+    }
+    if (start < body.length() && body.charAt(start) == '"') {
+      int end = body.indexOf('"', start + 1);
+      return end < 0 ? null : body.substring(start + 1, end);
+    }
+    int end = start;
+    while (end < body.length() && Character.isLetterOrDigit(body.charAt(end))) {
+      end++;
+    }
+    return end > start ? body.substring(start, end) : null;
+  }
+
+  private static String errorJson(String message) {
+    return "{\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "'") + "\"}";
+  }
+
+  private static String reason(int status) {
+    switch (status) {
+      case 200:
+        return "OK";
+      case 201:
+        return "Created";
+      case 400:
+        return "Bad Request";
+      case 404:
+        return "Not Found";
+      case 405:
+        return "Method Not Allowed";
+      case 413:
+        return "Payload Too Large";
+      case 431:
+        return "Request Header Fields Too Large";
+      case 500:
+        return "Internal Server Error";
+      default:
+        return "Not Implemented";
+    }
+  }
+
+  /**
+   * Returns the position of {@code pattern} among the remaining bytes of a heap buffer, or -1.
+   */
+  private static int indexOf(ByteBuffer buffer, byte[] pattern) {
+    byte[] bytes = buffer.array();
+    int last = buffer.limit() - pattern.length;
+    for (int i = buffer.position(); i <= last; i++) {
+      int j = 0;
+      while (j < pattern.length && bytes[i + j] == pattern[j]) {
+        j++;
+      }
+      if (j == pattern.length) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns a buffer in the same mode with at least the given capacity and the same contents.
+   */
+  private static ByteBuffer grow(ByteBuffer buffer, int capacity) {
+    ByteBuffer grown = ByteBuffer.allocate(Math.max(capacity, buffer.capacity() * 2));
+    buffer.flip();
+    return grown.put(buffer);
+  }
+
+  private static void closeQuietly(SocketChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // The connection is gone either way
+    }
+  }
+}
@@ -11,6 +11,15 @@ public interface PetInterface {
    */
   void step();
 
+  /**
+   * Advances the pet's internal state by the given number of steps.
+   * The result is the same as calling {@link #step()} that many times.
+   *
+   * @param steps the number of steps to advance
+   * @throws IllegalArgumentException if steps is negative
+   */
+  void fastForward(int steps);
+
   /**
    * Applies an interaction (e.g., feeding, playing, cleaning, sleeping) to the pet
    * which may alter its internal state and mood.
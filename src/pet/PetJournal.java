@@ -0,0 +1,451 @@
+package pet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only, event-sourced journal of pets stored in one directory.
+ *
+ * <p>Every change to a {@link JournaledPet} is appended as a compact binary record
+ * (10 to 19 bytes: a length byte, the event and a CRC32) to an in-memory buffer. The buffer is written and fsynced once per
+ * {@code syncBatchSize} events, so a crash loses at most the last unsynced batch.
+ * Every {@code snapshotInterval} events the state of all pets, including their random
+ * generator state, is written to a snapshot file and a fresh journal generation is started.
+ *
+ * <p>Opening a journal loads the latest snapshot and replays the journal tail after it.
+ * Replay stops at the first record that is incomplete or fails its checksum, such as a torn
+ * write or a zero-filled tail left by a crash, and the journal is truncated there.
+ */
+public class PetJournal implements Closeable {
+  public static final int DEFAULT_SYNC_BATCH_SIZE = 256;
+  public static final int DEFAULT_SNAPSHOT_INTERVAL = 100_000;
+
+  private static final String SNAPSHOT_FILE = "snapshot.bin";
+  private static final String SNAPSHOT_TEMP_FILE = "snapshot.bin.tmp";
+  private static final int SNAPSHOT_MAGIC = 0x50455453; // "PETS"
+  private static final short SNAPSHOT_VERSION = 1;
+  private static final int SNAPSHOT_HEADER_BYTES = 22;
+  private static final int SNAPSHOT_RECORD_BYTES = 23;
+
+  // Journal record types
+  private static final byte CREATE = 1;
+  private static final byte STEP = 2;
+  private static final byte INTERACT = 3;
+  private static final byte SET_MOOD = 4;
+  private static final byte FAST_FORWARD = 5;
+  // Each record is a length byte, the type, the pet id, the event's fields and a CRC32
+  private static final int MIN_EVENT_BYTES = 5;
+  private static final int MAX_EVENT_BYTES = 14;
+  private static final int CRC_BYTES = 4;
+  private static final int MAX_RECORD_BYTES = 1 + MAX_EVENT_BYTES + CRC_BYTES;
+
+  private static final int BUFFER_BYTES = 64 * 1024;
+  private static final Species[] SPECIES = Species.values();
+  private static final Action[] ACTIONS = Action.values();
+  private static final MoodEnum[] MOODS = MoodEnum.values();
+
+  private final Path directory;
+  private final int syncBatchSize;
+  private final int snapshotInterval;
+  private final Map<Integer, JournaledPet> pets = new LinkedHashMap<>();
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+  private final CRC32 crc = new CRC32();
+  private FileChannel channel;
+  private long generation;
+  private int nextPetId;
+  private int unsyncedEvents;
+  private int eventsSinceSnapshot;
+  private boolean closed;
+
+  /**
+   * Opens or creates a journal with the default sync batch size and snapshot interval.
+   *
+   * @param directory the directory holding the snapshot and journal files
+   * @throws IOException if the files cannot be read or created
+   */
+  public PetJournal(Path directory) throws IOException {
+    this(directory, DEFAULT_SYNC_BATCH_SIZE, DEFAULT_SNAPSHOT_INTERVAL);
+  }
+
+  /**
+   * Opens or creates a journal, recovering all pets recorded in the directory.
+   *
+   * @param directory        the directory holding the snapshot and journal files
+   * @param syncBatchSize    the number of events written between two fsync calls
+   * @param snapshotInterval the number of events between two automatic snapshots
+   * @throws IOException              if the files cannot be read or created, or are corrupt
+   * @throws IllegalArgumentException if a batch size or interval is not positive
+   */
+  public PetJournal(Path directory, int syncBatchSize, int snapshotInterval) throws IOException {
+    if (syncBatchSize <= 0 || snapshotInterval <= 0) {
+      throw new IllegalArgumentException("Sync batch size and snapshot interval must be positive");
+    }
+    this.directory = directory;
+    this.syncBatchSize = syncBatchSize;
+    this.snapshotInterval = snapshotInterval;
+
+    Files.createDirectories(directory);
+    loadSnapshot();
+    channel = FileChannel.open(journalPath(generation), StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      replayJournal();
+    } catch (IOException | RuntimeException e) {
+      try {
+        channel.close();
+      } catch (IOException suppressed) {
+        e.addSuppressed(suppressed);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Creates and journals a new pet with a random seed.
+   *
+   * @param species the species of the new pet
+   * @return the new pet
+   */
+  public JournaledPet createPet(Species species) {
+    return createPet(species, ThreadLocalRandom.current().nextLong());
+  }
+
+  /**
+   * Creates and journals a new pet whose random generator starts from the given seed.
+   *
+   * @param species the species of the new pet
+   * @param seed    the seed of the pet's random generator
+   * @return the new pet
+   */
+  public synchronized JournaledPet createPet(Species species, long seed) {
+    checkOpen();
+    byte ordinal = (byte) species.ordinal();
+    int start = beginRecord(CREATE, nextPetId);
+    buffer.put(ordinal).putLong(seed);
+    endRecord(start);
+    JournaledPet pet = newPet(nextPetId++, species, seed);
+    eventRecorded();
+    return pet;
+  }
+
+  /**
+   * Returns a recovered or created pet by id.
+   *
+   * @param id the pet id
+   * @return the pet, or null if no pet has that id
+   */
+  public synchronized JournaledPet getPet(int id) {
+    return pets.get(id);
+  }
+
+  /**
+   * Returns all pets in this journal in creation order.
+   *
+   * @return an unmodifiable view of the pets
+   */
+  public synchronized Collection<JournaledPet> getPets() {
+    return Collections.unmodifiableCollection(pets.values());
+  }
+
+  /**
+   * Writes all buffered events to disk and forces them to stable storage.
+   *
+   * @throws IOException if writing fails
+   */
+  public synchronized void sync() throws IOException {
+    checkOpen();
+    flushBuffer();
+    channel.force(false);
+    unsyncedEvents = 0;
+  }
+
+  /**
+   * Writes a snapshot of every pet and starts a new, empty journal generation.
+   * The snapshot is written to a temporary file and atomically renamed into place,
+   * so a crash at any point leaves either the old or the new snapshot usable.
+   *
+   * @throws IOException if writing fails
+   */
+  public synchronized void snapshot() throws IOException {
+    sync();
+    long nextGeneration = generation + 1;
+
+    ByteBuffer out = ByteBuffer.allocate(
+        SNAPSHOT_HEADER_BYTES + pets.size() * SNAPSHOT_RECORD_BYTES);
+    out.putInt(SNAPSHOT_MAGIC).putShort(SNAPSHOT_VERSION).putLong(nextGeneration)
+        .putInt(nextPetId).putInt(pets.size());
+    for (JournaledPet pet : pets.values()) {
+      AbstractPet state = pet.getPet();
+      out.putInt(pet.getId())
+          .put((byte) state.getSpecies().ordinal())
+          .putLong(state.health)
+          .put((byte) state.getMood().ordinal())
+          .put((byte) (state.isDead() ? 1 : 0))
+          .putLong(pet.getRandom().getState());
+    }
+    out.flip();
+
+    Path temp = directory.resolve(SNAPSHOT_TEMP_FILE);
+    try (FileChannel snapshotChannel = FileChannel.open(temp, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (out.hasRemaining()) {
+        snapshotChannel.write(out);
+      }
+      snapshotChannel.force(true);
+    }
+    Files.move(temp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE,
+        StandardCopyOption.REPLACE_EXISTING);
+    // The rename must be durable before the journal it replaces is deleted
+    syncDirectory();
+
+    // The new snapshot covers everything in the old journal, which can now go
+    channel.close();
+    Files.deleteIfExists(journalPath(generation));
+    generation = nextGeneration;
+    channel = FileChannel.open(journalPath(generation), StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    eventsSinceSnapshot = 0;
+  }
+
+  /**
+   * Syncs all buffered events and closes the journal file.
+   *
+   * @throws IOException if writing fails
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    sync();
+    channel.close();
+    closed = true;
+  }
+
+  // Called by JournaledPet holding this monitor. The record is buffered before the change is
+  // applied, so a failure to make room leaves the pet untouched, and eventRecorded() follows the
+  // change, so a snapshot it triggers includes it.
+
+  void appendStep(int id) {
+    endRecord(beginRecord(STEP, id));
+  }
+
+  void appendFastForward(int id, int steps) {
+    int start = beginRecord(FAST_FORWARD, id);
+    buffer.putInt(steps);
+    endRecord(start);
+  }
+
+  void appendInteraction(int id, Action action) {
+    byte ordinal = (byte) action.ordinal(); // Before the record starts, so null leaves no trace
+    int start = beginRecord(INTERACT, id);
+    buffer.put(ordinal);
+    endRecord(start);
+  }
+
+  void appendSetMood(int id, MoodEnum mood) {
+    byte ordinal = (byte) mood.ordinal();
+    int start = beginRecord(SET_MOOD, id);
+    buffer.put(ordinal);
+    endRecord(start);
+  }
+
+  private int beginRecord(byte type, int id) {
+    ensureCapacity();
+    int start = buffer.position();
+    buffer.put((byte) 0).put(type).putInt(id); // The length is filled in by endRecord
+    return start;
+  }
+
+  private void endRecord(int start) {
+    int length = buffer.position() - start - 1;
+    buffer.put(start, (byte) length);
+    crc.reset();
+    crc.update(buffer.array(), start, 1 + length);
+    buffer.putInt((int) crc.getValue());
+  }
+
+  private void ensureCapacity() {
+    checkOpen();
+    if (buffer.remaining() < MAX_RECORD_BYTES) {
+      try {
+        flushBuffer();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not write pet journal", e);
+      }
+    }
+  }
+
+  void eventRecorded() {
+    try {
+      if (++unsyncedEvents >= syncBatchSize) {
+        sync();
+      }
+      if (++eventsSinceSnapshot >= snapshotInterval) {
+        snapshot();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not write pet journal", e);
+    }
+  }
+
+  private void flushBuffer() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("Pet journal is closed");
+    }
+  }
+
+  private void syncDirectory() throws IOException {
+    try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      directoryChannel.force(true);
+    } catch (AccessDeniedException e) {
+      // Windows cannot open a directory; its renames are durable once they return
+    }
+  }
+
+  private JournaledPet newPet(int id, Species species, long seed) {
+    JournaledPet pet = new JournaledPet(id, species.createPet(), new SplitMixRandom(seed), this);
+    pets.put(id, pet);
+    return pet;
+  }
+
+  private Path journalPath(long journalGeneration) {
+    return directory.resolve("journal-" + journalGeneration + ".log");
+  }
+
+  private void loadSnapshot() throws IOException {
+    Path snapshotPath = directory.resolve(SNAPSHOT_FILE);
+    if (!Files.exists(snapshotPath)) {
+      return;
+    }
+
+    ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(snapshotPath));
+    try {
+      if (in.getInt() != SNAPSHOT_MAGIC) {
+        throw new IOException("Not a pet snapshot: " + snapshotPath);
+      }
+      short version = in.getShort();
+      if (version != SNAPSHOT_VERSION) {
+        throw new IOException("Unsupported pet snapshot version: " + version);
+      }
+      generation = in.getLong();
+      nextPetId = in.getInt();
+      int count = in.getInt();
+      for (int i = 0; i < count; i++) {
+        int id = in.getInt();
+        Species species = SPECIES[in.get()];
+        long health = in.getLong();
+        MoodEnum mood = MOODS[in.get()];
+        boolean dead = in.get() != 0;
+        long randomState = in.getLong();
+
+        JournaledPet pet = newPet(id, species, randomState);
+        pet.getPet().restoreState(health, mood, dead);
+      }
+    } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+      throw new IOException("Corrupt pet snapshot: " + snapshotPath, e);
+    }
+  }
+
+  private void replayJournal() throws IOException {
+    ByteBuffer in = ByteBuffer.allocate((int) channel.size());
+    while (in.hasRemaining() && channel.read(in, in.position()) >= 0) {
+      // Keep reading until the whole journal is in memory
+    }
+    in.flip();
+
+    int lastComplete = 0;
+    while (in.hasRemaining()) {
+      int start = in.position();
+      int length = in.get() & 0xFF;
+      if (length < MIN_EVENT_BYTES || length > MAX_EVENT_BYTES
+          || in.remaining() < length + CRC_BYTES) {
+        break; // A record torn by a crash, or whatever a crash left after the last one
+      }
+      crc.reset();
+      crc.update(in.array(), start, 1 + length);
+      if ((int) crc.getValue() != in.getInt(start + 1 + length)) {
+        break;
+      }
+      replayEvent(in, start);
+      if (in.position() != start + 1 + length) {
+        throw new IOException("Corrupt pet journal record at offset " + start);
+      }
+      in.position(start + 1 + length + CRC_BYTES);
+      lastComplete = in.position();
+      eventsSinceSnapshot++;
+    }
+    if (lastComplete < in.limit()) {
+      channel.truncate(lastComplete);
+    }
+    channel.position(lastComplete);
+  }
+
+  /**
+   * Applies one checksummed event. A valid checksum over an event that still makes no sense
+   * means the journal was written by something else, so it is reported rather than dropped.
+   */
+  private void replayEvent(ByteBuffer in, int start) throws IOException {
+    try {
+      byte type = in.get();
+      int id = in.getInt();
+      if (type == CREATE) {
+        Species species = SPECIES[in.get()];
+        long seed = in.getLong();
+        newPet(id, species, seed);
+        nextPetId = Math.max(nextPetId, id + 1);
+        return;
+      }
+      AbstractPet pet = replayTarget(id);
+      switch (type) {
+        case STEP:
+          pet.step();
+          break;
+        case FAST_FORWARD:
+          pet.fastForward(in.getInt());
+          break;
+        case INTERACT:
+          pet.interactWith(ACTIONS[in.get()]);
+          break;
+        case SET_MOOD:
+          pet.setMood(MOODS[in.get()]);
+          break;
+        default:
+          throw new IOException("Unknown journal record type " + type + " at offset " + start);
+      }
+    } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+      throw new IOException("Corrupt pet journal record at offset " + start, e);
+    }
+  }
+
+  private AbstractPet replayTarget(int id) throws IOException {
+    JournaledPet pet = pets.get(id);
+    if (pet == null) {
+      throw new IOException("Journal refers to unknown pet " + id);
+    }
+    return pet.getPet();
+  }
+}
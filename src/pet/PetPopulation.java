@@ -0,0 +1,402 @@
+package pet;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * A struct-of-arrays container for large numbers of pets.
+ * Instead of one AbstractPet object per pet, every attribute is kept in its own primitive array
+ * and all pets are advanced together by {@link #stepAll()}.
+ * Each pet follows exactly the same rules as {@link AbstractPet#step()} and
+ * {@link AbstractPet#interactWith(Action)}, but no objects are allocated per pet per tick.
+ *
+ * <p>Pets whose state actually changes are marked dirty in a bitset, so checkpoints such as
+ * {@link PetCheckpointStore} only need to write those.
+ */
+public class PetPopulation {
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final int INITIAL_HEALTH_VALUE = 50;
+
+  private static final Species[] SPECIES = Species.values();
+  private static final MoodEnum[] MOODS = MoodEnum.values();
+  private static final byte HAPPY = (byte) MoodEnum.HAPPY.ordinal();
+  private static final byte SAD = (byte) MoodEnum.SAD.ordinal();
+
+  // Strategy parameters indexed by (species ordinal * mood count + mood ordinal)
+  private static final int[] HUNGER_RATES = rateTable(Species.HUNGER_RATE);
+  private static final int[] HYGIENE_RATES = rateTable(Species.HYGIENE_RATE);
+  private static final int[] SOCIAL_RATES = rateTable(Species.SOCIAL_RATE);
+  private static final int[] SLEEP_RATES = rateTable(Species.SLEEP_RATE);
+
+  // Parallel state arrays, one slot per pet
+  private byte[] species;
+  private byte[] hunger;
+  private byte[] hygiene;
+  private byte[] social;
+  private byte[] sleep;
+  private byte[] moods;
+  private boolean[] dead;
+  // One bit per pet, set when its health, mood or death status changed since clearDirty()
+  private long[] dirty;
+  private int size;
+
+  // Source of randomness for sad steps, owned by whichever thread steps this population
+  private RandomGenerator random = new SplittableRandom();
+
+  /**
+   * Creates an empty population with a default capacity.
+   */
+  public PetPopulation() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an empty population that can hold the given number of pets before growing.
+   *
+   * @param initialCapacity the number of pets to reserve space for
+   * @throws IllegalArgumentException if initialCapacity is negative
+   */
+  public PetPopulation(int initialCapacity) {
+    if (initialCapacity < 0) {
+      throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+    }
+    species = new byte[initialCapacity];
+    hunger = new byte[initialCapacity];
+    hygiene = new byte[initialCapacity];
+    social = new byte[initialCapacity];
+    sleep = new byte[initialCapacity];
+    moods = new byte[initialCapacity];
+    dead = new boolean[initialCapacity];
+    dirty = new long[(initialCapacity + 63) >>> 6];
+  }
+
+  /**
+   * Adds a new pet of the given species with default health values.
+   *
+   * @param type the species of the new pet
+   * @return the index of the new pet in this population
+   */
+  public int add(Species type) {
+    int index = allocate(type);
+    hunger[index] = INITIAL_HEALTH_VALUE;
+    hygiene[index] = INITIAL_HEALTH_VALUE;
+    social[index] = INITIAL_HEALTH_VALUE;
+    sleep[index] = INITIAL_HEALTH_VALUE;
+    moods[index] = HAPPY;
+    updateMoodAndDeathStatus(index);
+    return index;
+  }
+
+  /**
+   * Adds a copy of an existing pet's state to this population.
+   * The pet itself is not modified or referenced afterwards. Health values outside 0-100, which
+   * only a test setter can produce, are clamped into that range; mood and death are copied as is.
+   *
+   * @param pet the pet whose state should be copied
+   * @return the index of the new pet in this population
+   */
+  public int add(AbstractPet pet) {
+    int index = allocate(pet.getSpecies());
+    // Lanes are stored as bytes, so anything above 127 would otherwise wrap to negative
+    long health = AbstractMoodStrategy.clampHealth(pet.health);
+    hunger[index] = (byte) HealthStatus.hungerOf(health);
+    hygiene[index] = (byte) HealthStatus.hygieneOf(health);
+    social[index] = (byte) HealthStatus.socialOf(health);
+    sleep[index] = (byte) HealthStatus.sleepOf(health);
+    moods[index] = (byte) pet.getMood().ordinal();
+    dead[index] = pet.isDead();
+    return index;
+  }
+
+  /**
+   * Adds a pet with explicit state, used when restoring a snapshot.
+   * Mood and death status are taken as given rather than recomputed.
+   */
+  int add(Species type, long packedHealth, MoodEnum mood, boolean isDead) {
+    int index = allocate(type);
+    set(index, type, packedHealth, mood, isDead);
+    return index;
+  }
+
+  /**
+   * Overwrites a pet's whole state, used when applying an incremental checkpoint.
+   */
+  void set(int index, Species type, long packedHealth, MoodEnum mood, boolean isDead) {
+    checkIndex(index);
+    species[index] = (byte) type.ordinal();
+    hunger[index] = (byte) HealthStatus.hungerOf(packedHealth);
+    hygiene[index] = (byte) HealthStatus.hygieneOf(packedHealth);
+    social[index] = (byte) HealthStatus.socialOf(packedHealth);
+    sleep[index] = (byte) HealthStatus.sleepOf(packedHealth);
+    moods[index] = (byte) mood.ordinal();
+    dead[index] = isDead;
+    markDirty(index);
+  }
+
+  /**
+   * Advances every living pet in the population by one unit of time.
+   */
+  public void stepAll() {
+    for (int i = 0; i < size; i++) {
+      if (dead[i]) {
+        continue; // No state changes if the pet is dead
+      }
+
+      int before = packedState(i);
+      int key = species[i] * MOODS.length + moods[i];
+      hunger[i] = clamp(hunger[i] + HUNGER_RATES[key]);
+      if (moods[i] == SAD) {
+        // Same random decay as SadStrategy.applyStep
+        hygiene[i] = clamp(hygiene[i] - (HYGIENE_RATES[key] + randomChange()));
+        social[i] = clamp(social[i] - (SOCIAL_RATES[key] + randomChange()));
+        sleep[i] = clamp(sleep[i] - (SLEEP_RATES[key] + randomChange()));
+      } else {
+        hygiene[i] = clamp(hygiene[i] - HYGIENE_RATES[key]);
+        social[i] = clamp(social[i] - SOCIAL_RATES[key]);
+        sleep[i] = clamp(sleep[i] - SLEEP_RATES[key]);
+      }
+      updateMoodAndDeathStatus(i);
+      if (packedState(i) != before) {
+        markDirty(i);
+      }
+    }
+  }
+
+  /**
+   * Applies an interaction to a single pet, with the same effect as
+   * {@link AbstractPet#interactWith(Action)}.
+   *
+   * @param index  the index of the pet
+   * @param action the type of interaction to apply
+   */
+  public void interactWith(int index, Action action) {
+    checkIndex(index);
+    if (dead[index]) {
+      return; // No interactions if the pet is dead
+    }
+
+    int before = packedState(index);
+    // Interactions are rare compared to steps, so the shared strategy does the work
+    AbstractMoodStrategy strategy = MoodStrategyRegistry.get(SPECIES[species[index]],
+        MOODS[moods[index]]);
+    long health = strategy.applyInteraction(HealthStatus.pack(hunger[index], hygiene[index],
+        social[index], sleep[index]), action);
+    hunger[index] = (byte) HealthStatus.hungerOf(health);
+    hygiene[index] = (byte) HealthStatus.hygieneOf(health);
+    social[index] = (byte) HealthStatus.socialOf(health);
+    sleep[index] = (byte) HealthStatus.sleepOf(health);
+    updateMoodAndDeathStatus(index);
+    if (packedState(index) != before) {
+      markDirty(index);
+    }
+  }
+
+  /**
+   * Replaces the source of randomness used by {@link #stepAll()}.
+   * A seeded generator makes every step of the population exactly reproducible.
+   *
+   * @param random the generator to use for future steps
+   * @throws IllegalArgumentException if random is null
+   */
+  public void setRandomSource(RandomGenerator random) {
+    if (random == null) {
+      throw new IllegalArgumentException("Random source cannot be null");
+    }
+    this.random = random;
+  }
+
+  /**
+   * Returns the number of pets in this population.
+   *
+   * @return the population size
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks if a pet was added or changed since the last {@link #clearDirty()}.
+   *
+   * @param index the index of the pet
+   * @return true if the pet is dirty
+   */
+  public boolean isDirty(int index) {
+    checkIndex(index);
+    return (dirty[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * Returns the index of the first dirty pet at or after the given index.
+   *
+   * @param fromIndex the index to start searching at
+   * @return the index of the next dirty pet, or -1 if there is none
+   */
+  public int nextDirty(int fromIndex) {
+    if (fromIndex < 0) {
+      throw new IndexOutOfBoundsException("Pet index " + fromIndex + " is negative");
+    }
+    int word = fromIndex >>> 6;
+    if (fromIndex >= size) {
+      return -1;
+    }
+    long bits = dirty[word] & (-1L << fromIndex);
+    while (true) {
+      if (bits != 0) {
+        int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+        return index < size ? index : -1;
+      }
+      if (++word >= dirty.length) {
+        return -1;
+      }
+      bits = dirty[word];
+    }
+  }
+
+  /**
+   * Returns the number of pets added or changed since the last {@link #clearDirty()}.
+   *
+   * @return the dirty pet count
+   */
+  public int getDirtyCount() {
+    int count = 0;
+    for (long bits : dirty) {
+      count += Long.bitCount(bits);
+    }
+    return count;
+  }
+
+  /**
+   * Marks every pet as clean, typically after their state was written to a checkpoint.
+   */
+  public void clearDirty() {
+    Arrays.fill(dirty, 0);
+  }
+
+  /**
+   * Returns a snapshot of a pet's health values.
+   *
+   * @param index the index of the pet
+   * @return a new HealthStatus holding the pet's current values
+   */
+  public HealthStatus getHealth(int index) {
+    checkIndex(index);
+    return new HealthStatus(hunger[index], hygiene[index], social[index], sleep[index]);
+  }
+
+  /**
+   * Returns a pet's health values packed with {@link HealthStatus#pack}, without allocating.
+   */
+  long getPackedHealth(int index) {
+    checkIndex(index);
+    return HealthStatus.pack(hunger[index], hygiene[index], social[index], sleep[index]);
+  }
+
+  /**
+   * Returns the current mood of a pet.
+   *
+   * @param index the index of the pet
+   * @return the pet's current MoodEnum
+   */
+  public MoodEnum getMood(int index) {
+    checkIndex(index);
+    return MOODS[moods[index]];
+  }
+
+  /**
+   * Checks if a pet is dead.
+   *
+   * @param index the index of the pet
+   * @return true if the pet is dead, false otherwise
+   */
+  public boolean isDead(int index) {
+    checkIndex(index);
+    return dead[index];
+  }
+
+  /**
+   * Returns the species of a pet.
+   *
+   * @param index the index of the pet
+   * @return the pet's Species
+   */
+  public Species getSpecies(int index) {
+    checkIndex(index);
+    return SPECIES[species[index]];
+  }
+
+  /**
+   * Recomputes mood and death status after a pet's health values changed,
+   * mirroring updateMood() and updateDeathStatus() in AbstractPet.
+   */
+  private void updateMoodAndDeathStatus(int index) {
+    Species type = SPECIES[species[index]];
+    int hu = hunger[index];
+    int hy = hygiene[index];
+    int so = social[index];
+    int sl = sleep[index];
+    moods[index] = type.isSadCondition(hu, hy, so, sl) ? SAD : HAPPY;
+    dead[index] = type.getDeathThreshold().isDeadCondition(hu, hy, so, sl);
+  }
+
+  private int allocate(Species type) {
+    if (size == species.length) {
+      grow();
+    }
+    int index = size++;
+    species[index] = (byte) type.ordinal();
+    dead[index] = false;
+    markDirty(index);
+    return index;
+  }
+
+  private void markDirty(int index) {
+    dirty[index >>> 6] |= 1L << index;
+  }
+
+  /**
+   * Packs everything a step or interaction can change, to detect whether it changed anything.
+   */
+  private int packedState(int index) {
+    // Health values are 0-100, so each fits in 7 bits
+    return hunger[index] << 21 | hygiene[index] << 14 | social[index] << 7 | sleep[index]
+        | moods[index] << 28 | (dead[index] ? 1 << 29 : 0);
+  }
+
+  private void grow() {
+    int capacity = Math.max(DEFAULT_CAPACITY, species.length * 2);
+    species = Arrays.copyOf(species, capacity);
+    hunger = Arrays.copyOf(hunger, capacity);
+    hygiene = Arrays.copyOf(hygiene, capacity);
+    social = Arrays.copyOf(social, capacity);
+    sleep = Arrays.copyOf(sleep, capacity);
+    moods = Arrays.copyOf(moods, capacity);
+    dead = Arrays.copyOf(dead, capacity);
+    dirty = Arrays.copyOf(dirty, (capacity + 63) >>> 6);
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Pet index " + index + " out of range: " + size);
+    }
+  }
+
+  private int randomChange() {
+    return random.nextInt(SadStrategy.RANDOM_CHANGE_LIMIT);
+  }
+
+  private static byte clamp(int value) {
+    return (byte) Math.max(AbstractMoodStrategy.VALUE_FLOOR,
+        Math.min(AbstractMoodStrategy.VALUE_CEILING, value));
+  }
+
+  private static int[] rateTable(int rateIndex) {
+    int[] table = new int[SPECIES.length * MOODS.length];
+    for (Species type : SPECIES) {
+      for (MoodEnum mood : MOODS) {
+        table[type.ordinal() * MOODS.length + mood.ordinal()] = type.getRate(mood, rateIndex);
+      }
+    }
+    return table;
+  }
+}
@@ -0,0 +1,232 @@
+package pet;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes and reads whole populations in a compact binary snapshot format.
+ *
+ * <p>A snapshot starts with a header: the magic number, the schema version, a flags byte, the
+ * species table and the pet count. The species table lists species by name, so snapshots stay
+ * readable when species are added or reordered. The pets follow as dense
+ * {@value #RECORD_BYTES}-byte records: hunger, hygiene, social and sleep, then one byte holding
+ * the species table index, the mood and the dead flag. Records are grouped into blocks of
+ * {@value #BLOCK_RECORDS} pets, each stored raw or LZ4-compressed, whichever is smaller.
+ */
+public final class PetSnapshotCodec {
+  /** Current schema version, written to every snapshot. */
+  public static final short VERSION = 1;
+  /** Size of one pet record before compression. */
+  public static final int RECORD_BYTES = 5;
+  /** Number of pets per block. */
+  public static final int BLOCK_RECORDS = 1 << 16;
+
+  private static final int MAGIC = 0x50534e50; // "PSNP"
+  private static final int FLAG_COMPRESSED = 1;
+  private static final int MAX_SPECIES = 64;
+  private static final Species[] SPECIES = Species.values();
+  private static final MoodEnum[] MOODS = MoodEnum.values();
+
+  private PetSnapshotCodec() {
+  }
+
+  /**
+   * Writes a population as one uncompressed snapshot.
+   *
+   * @param population the pets to write
+   * @param out        the stream to write to; it is not closed
+   * @throws IOException if writing fails
+   */
+  public static void write(PetPopulation population, OutputStream out) throws IOException {
+    write(population, out, false);
+  }
+
+  /**
+   * Writes a population as one snapshot.
+   *
+   * @param population the pets to write
+   * @param out        the stream to write to; it is not closed
+   * @param compress   whether to LZ4-compress the record blocks
+   * @throws IOException if writing fails
+   */
+  public static void write(PetPopulation population, OutputStream out, boolean compress)
+      throws IOException {
+    DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(MAGIC);
+    data.writeShort(VERSION);
+    data.writeByte(compress ? FLAG_COMPRESSED : 0);
+    writeSpeciesTable(data);
+    int size = population.size();
+    data.writeInt(size);
+
+    byte[] block = new byte[Math.min(size, BLOCK_RECORDS) * RECORD_BYTES];
+    byte[] compressed = compress ? new byte[Lz4Block.maxCompressedLength(block.length)] : null;
+    int[] table = compress ? new int[Lz4Block.HASH_TABLE_SIZE] : null;
+    for (int first = 0; first < size; first += BLOCK_RECORDS) {
+      int count = Math.min(BLOCK_RECORDS, size - first);
+      int length = encode(population, first, count, block);
+      int storedLength = compress
+          ? Lz4Block.compress(block, 0, length, compressed, table) : length;
+      // Incompressible blocks are stored raw, marked by equal lengths
+      if (storedLength >= length) {
+        data.writeInt(length);
+        data.writeInt(length);
+        data.write(block, 0, length);
+      } else {
+        data.writeInt(length);
+        data.writeInt(storedLength);
+        data.write(compressed, 0, storedLength);
+      }
+    }
+    data.flush();
+  }
+
+  /**
+   * Reads one snapshot into a new population. The restored pets are not dirty.
+   *
+   * @param in the stream to read from; it is not closed
+   * @return the restored population
+   * @throws IOException if reading fails or the snapshot is corrupt or from a newer version
+   */
+  public static PetPopulation read(InputStream in) throws IOException {
+    DataInputStream data = new DataInputStream(in);
+    if (data.readInt() != MAGIC) {
+      throw new IOException("Not a pet snapshot");
+    }
+    short version = data.readShort();
+    if (version != VERSION) {
+      throw new IOException("Unsupported snapshot version " + version);
+    }
+    data.readUnsignedByte(); // Flags only matter to the writer; each block has its own lengths
+    Species[] table = readSpeciesTable(data);
+    int size = data.readInt();
+    if (size < 0) {
+      throw new IOException("Corrupt pet count " + size);
+    }
+
+    // The count is not trusted for allocation: the population grows as blocks arrive
+    PetPopulation population = new PetPopulation(Math.min(size, BLOCK_RECORDS));
+    int maxLength = Math.min(size, BLOCK_RECORDS) * RECORD_BYTES;
+    byte[] block = new byte[maxLength];
+    byte[] stored = new byte[Lz4Block.maxCompressedLength(maxLength)];
+    for (int first = 0; first < size; first += BLOCK_RECORDS) {
+      int count = Math.min(BLOCK_RECORDS, size - first);
+      int length = data.readInt();
+      int storedLength = data.readInt();
+      if (length != count * RECORD_BYTES || storedLength <= 0 || storedLength > stored.length) {
+        throw new IOException("Corrupt block at pet " + first);
+      }
+      if (storedLength == length) {
+        data.readFully(block, 0, length);
+      } else {
+        data.readFully(stored, 0, storedLength);
+        Lz4Block.decompress(stored, 0, storedLength, block, length);
+      }
+      decode(block, count, table, population);
+    }
+    population.clearDirty();
+    return population;
+  }
+
+  /**
+   * Writes the species table for records encoded by {@link #encodeRecord}.
+   */
+  static void writeSpeciesTable(DataOutputStream data) throws IOException {
+    // Every current species, so the table index is simply the ordinal when writing
+    data.writeByte(SPECIES.length);
+    for (Species type : SPECIES) {
+      byte[] name = type.name().getBytes(StandardCharsets.US_ASCII);
+      data.writeByte(name.length);
+      data.write(name);
+    }
+  }
+
+  /**
+   * Encodes one pet into {@value #RECORD_BYTES} bytes at {@code dst[pos]}.
+   */
+  static void encodeRecord(PetPopulation population, int index, byte[] dst, int pos) {
+    long health = population.getPackedHealth(index);
+    dst[pos] = (byte) HealthStatus.hungerOf(health);
+    dst[pos + 1] = (byte) HealthStatus.hygieneOf(health);
+    dst[pos + 2] = (byte) HealthStatus.socialOf(health);
+    dst[pos + 3] = (byte) HealthStatus.sleepOf(health);
+    dst[pos + 4] = (byte) (population.getSpecies(index).ordinal() << 2
+        | population.getMood(index).ordinal() << 1 | (population.isDead(index) ? 1 : 0));
+  }
+
+  /**
+   * Decodes the record at {@code src[pos]} into pet {@code index}, appending the pet when
+   * index is the population size.
+   *
+   * @throws IOException if the record is corrupt, e.g. a health value outside 0 to 100
+   */
+  static void decodeRecord(byte[] src, int pos, Species[] table, PetPopulation population,
+                           int index) throws IOException {
+    int hunger = src[pos];
+    int hygiene = src[pos + 1];
+    int social = src[pos + 2];
+    int sleep = src[pos + 3];
+    int flags = src[pos + 4] & 0xFF;
+    int speciesIndex = flags >>> 2;
+    if (speciesIndex >= table.length || !inRange(hunger) || !inRange(hygiene)
+        || !inRange(social) || !inRange(sleep)) {
+      throw new IOException("Corrupt record for pet " + index);
+    }
+    long health = HealthStatus.pack(hunger, hygiene, social, sleep);
+    MoodEnum mood = MOODS[(flags >>> 1) & 1];
+    if (index == population.size()) {
+      population.add(table[speciesIndex], health, mood, (flags & 1) != 0);
+    } else {
+      population.set(index, table[speciesIndex], health, mood, (flags & 1) != 0);
+    }
+  }
+
+  private static boolean inRange(int value) {
+    return value >= AbstractMoodStrategy.VALUE_FLOOR
+        && value <= AbstractMoodStrategy.VALUE_CEILING;
+  }
+
+  private static int encode(PetPopulation population, int first, int count, byte[] block) {
+    int pos = 0;
+    for (int i = first; i < first + count; i++) {
+      encodeRecord(population, i, block, pos);
+      pos += RECORD_BYTES;
+    }
+    return pos;
+  }
+
+  private static void decode(byte[] block, int count, Species[] table, PetPopulation population)
+      throws IOException {
+    for (int pos = 0; pos < count * RECORD_BYTES; pos += RECORD_BYTES) {
+      decodeRecord(block, pos, table, population, population.size());
+    }
+  }
+
+  /**
+   * Reads a species table written by {@link #writeSpeciesTable}.
+   *
+   * @throws IOException if the table is corrupt or names an unknown species
+   */
+  static Species[] readSpeciesTable(DataInputStream data) throws IOException {
+    int count = data.readUnsignedByte();
+    if (count > MAX_SPECIES) {
+      throw new IOException("Too many species: " + count);
+    }
+    Species[] table = new Species[count];
+    for (int i = 0; i < count; i++) {
+      byte[] name = new byte[data.readUnsignedByte()];
+      data.readFully(name);
+      String text = new String(name, StandardCharsets.US_ASCII);
+      try {
+        table[i] = Species.valueOf(text);
+      } catch (IllegalArgumentException e) {
+        throw new IOException("Unknown species in snapshot: " + text, e);
+      }
+    }
+    return table;
+  }
+}
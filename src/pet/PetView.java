@@ -1,17 +1,28 @@
 package pet;
 
+import java.awt.BasicStroke;
 import java.awt.BorderLayout;
 import java.awt.CardLayout;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
 import java.awt.GridLayout;
 import java.awt.Image;
+import java.awt.RenderingHints;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
-import javax.imageio.ImageIO;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JFrame;
@@ -19,6 +30,7 @@ import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
 import javax.swing.Timer;
 import javax.swing.border.Border;
 import javax.swing.border.CompoundBorder;
@@ -46,11 +58,25 @@ public class PetView extends JFrame {
   // Duration to display step indicator (in milliseconds)
   private static final int STEP_INDICATOR_DURATION = 1500; // 1.5 seconds
 
+  // Duration to display the warning shown when the pet becomes sad (in milliseconds)
+  private static final int WARNING_DURATION = 3000; // 3 seconds
+
+  // Overlays drawn over the pet image
+  private static final String STEP_OVERLAY = "step";
+  private static final String ACTION_BADGE_OVERLAY = "actionBadge";
+  private static final String WARNING_OVERLAY = "warning";
+
+  // Decoded sprites kept in memory when no atlas is available; enough for every image
+  private static final int SPRITE_CACHE_SIZE = 32;
+
+  // Threads decoding sprites in the background
+  private static final int SPRITE_LOADER_THREADS = 2;
+
   // UI Components
-  private final JLabel healthLabel;
+  private final HealthGaugePanel healthGauges;
   private final JLabel moodLabel;
   private final JLabel imageLabel;
-  private final JLabel stepIndicatorLabel;
+  private final OverlayLayer overlayLayer;
   private final JButton feedButton;
   private final JButton playButton;
   private final JButton cleanButton;
@@ -71,10 +97,36 @@ public class PetView extends JFrame {
   private Action currentAction = null; // Current action being displayed (if any)
   // Timers
   private Timer actionImageTimer;
-  private Timer stepIndicatorTimer;
+  // Background threads that decode images so the EDT never waits on I/O
+  private final ExecutorService spriteExecutor =
+      Executors.newFixedThreadPool(SPRITE_LOADER_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "sprite-loader");
+        thread.setDaemon(true);
+        return thread;
+      });
+  // Pre-scaled sprites packed at build time; completes with null without the generated atlas.
+  // Submitted first, so it is running before any decode can wait on it
+  private final CompletableFuture<SpriteAtlas> spriteAtlas =
+      CompletableFuture.supplyAsync(PetView::loadSpriteAtlas, spriteExecutor);
+  // Fallback sprites decoded once per mood, species and action when the atlas is missing
+  private final SpriteCache spriteCache = new SpriteCache(SPRITE_CACHE_SIZE,
+      SpriteAtlasGenerator.SPRITE_WIDTH, SpriteAtlasGenerator.SPRITE_HEIGHT);
+  private final SpriteCache stepIndicatorCache = new SpriteCache(1,
+      SpriteAtlasGenerator.STEP_INDICATOR_WIDTH, SpriteAtlasGenerator.STEP_INDICATOR_HEIGHT);
+  private final AsyncSpriteLoader spriteLoader =
+      new AsyncSpriteLoader(name -> getSprite(name, spriteCache), spriteExecutor);
+  private final AsyncSpriteLoader stepIndicatorLoader =
+      new AsyncSpriteLoader(name -> getSprite(name, stepIndicatorCache), spriteExecutor);
   // Font settings
   private Font pixelFont;
   private float baseFontSize = 18f;
+  // Shown in place of the pet while its sprite is still being decoded
+  private final ImageIcon placeholderIcon = createPlaceholderIcon();
+  // Name of the sprite the image label should show once it finishes loading
+  private String requestedImage;
+  // Prerendered overlay images
+  private final Map<Action, Image> actionBadges = new EnumMap<>(Action.class);
+  private Image warningBadge;
 
   /**
    * Constructs a new PetView with all UI components.
@@ -105,15 +157,14 @@ public class PetView extends JFrame {
     mainGamePanel.setBackground(BG_COLOR);
 
     // Health Display
-    healthLabel = new JLabel("Health: Loading...", SwingConstants.CENTER);
-    healthLabel.setFont(pixelFont.deriveFont(baseFontSize));
-    healthLabel.setForeground(TEXT_COLOR);
-    healthLabel.setBorder(createBorder(BORDER_COLOR, 3, 15, 15, 15, 15));
+    healthGauges = new HealthGaugePanel(pixelFont.deriveFont(baseFontSize), TEXT_COLOR,
+        BORDER_COLOR, PANEL_COLOR);
+    healthGauges.setBorder(createBorder(BORDER_COLOR, 3, 15, 15, 15, 15));
 
     JPanel healthPanel = new JPanel(new BorderLayout());
     healthPanel.setBackground(HEALTH_PANEL_COLOR);
     healthPanel.setBorder(createBorder(HEALTH_BORDER_COLOR, 5, 20, 20, 20, 20));
-    healthPanel.add(healthLabel, BorderLayout.CENTER);
+    healthPanel.add(healthGauges, BorderLayout.CENTER);
 
     mainGamePanel.add(healthPanel, BorderLayout.NORTH);
 
@@ -123,12 +174,16 @@ public class PetView extends JFrame {
     imageLabel.setPreferredSize(new Dimension(350, 400));
     imageLabel.setBackground(BG_COLOR);
 
-    // Step indicator overlay
-    stepIndicatorLabel = new JLabel();
-    stepIndicatorLabel.setVisible(false); // Initially hidden
+    // Transient overlays (step indicator, action badge, warning) drawn over the pet image
+    overlayLayer = createOverlayLayer();
 
     // Create a panel with BorderLayout to keep image centered
-    JPanel imagePanel = new JPanel(new BorderLayout());
+    JPanel imagePanel = new JPanel(new BorderLayout()) {
+      @Override
+      public boolean isOptimizedDrawingEnabled() {
+        return false; // The overlay layer overlaps the image label
+      }
+    };
     imagePanel.setBackground(BG_COLOR);
     imagePanel.setBorder(createBorder(BORDER_COLOR, 3, 10, 10, 10, 10));
 
@@ -146,14 +201,14 @@ public class PetView extends JFrame {
         // Make the image label fill the panel
         imageLabel.setBounds(0, 0, panelWidth, panelHeight);
 
-        // Position step indicator in upper right
-        stepIndicatorLabel.setBounds(panelWidth - 150, 20, 133, 63);
+        // The overlay layer covers the image and places each overlay itself
+        overlayLayer.setBounds(0, 0, panelWidth, panelHeight);
       }
     });
 
-    // Add both labels to the panel
+    // Add the overlay layer first so it is painted on top of the image
+    imagePanel.add(overlayLayer);
     imagePanel.add(imageLabel);
-    imagePanel.add(stepIndicatorLabel);
 
     mainGamePanel.add(imagePanel, BorderLayout.CENTER);
 
@@ -219,12 +274,74 @@ public class PetView extends JFrame {
       }
     });
     actionImageTimer.setRepeats(false);
+  }
 
-    // Timer for step indicator
-    stepIndicatorTimer = new Timer(STEP_INDICATOR_DURATION, e -> {
-      stepIndicatorLabel.setVisible(false);
-    });
-    stepIndicatorTimer.setRepeats(false);
+  /**
+   * Creates the overlay layer and prepares every overlay image up front,
+   * so showing an overlay never decodes or renders anything.
+   *
+   * @return the overlay layer for the image panel
+   */
+  private OverlayLayer createOverlayLayer() {
+    OverlayLayer layer = new OverlayLayer();
+    // Each overlay hides itself with its own timer
+    layer.addOverlay(STEP_OVERLAY, OverlayLayer.Anchor.TOP_RIGHT, 17, 20, STEP_INDICATOR_DURATION);
+    layer.addOverlay(ACTION_BADGE_OVERLAY, OverlayLayer.Anchor.TOP_LEFT, 20, 20,
+        ACTION_IMAGE_DURATION);
+    layer.addOverlay(WARNING_OVERLAY, OverlayLayer.Anchor.BOTTOM_LEFT, 20, 20, WARNING_DURATION);
+
+    for (Action action : Action.values()) {
+      actionBadges.put(action, createBadge(action.name() + "!", BUTTON_COLOR));
+    }
+    warningBadge = createBadge("Feeling sad...", HEALTH_PANEL_COLOR);
+
+    // The step indicator sprite is decoded in the background and ready before the first step
+    stepIndicatorLoader.load("step")
+        .thenAcceptAsync(icon -> layer.setImage(STEP_OVERLAY, icon.getImage()),
+            SwingUtilities::invokeLater)
+        .exceptionally(e -> {
+          System.err.println("Could not load step indicator image: /images/step.PNG");
+          e.printStackTrace();
+          return null;
+        });
+    return layer;
+  }
+
+  /**
+   * Renders a small bordered text badge for the overlay layer.
+   *
+   * @param text       the badge text
+   * @param background the badge fill color
+   * @return the rendered badge
+   */
+  private Image createBadge(String text, Color background) {
+    Font font = pixelFont.deriveFont(baseFontSize - 2);
+    // Measure the text on a scratch image before rendering the badge at its final size
+    BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D measure = scratch.createGraphics();
+    FontMetrics metrics = measure.getFontMetrics(font);
+    measure.dispose();
+
+    int width = metrics.stringWidth(text) + 24;
+    int height = metrics.getHeight() + 14;
+    BufferedImage badge = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = badge.createGraphics();
+    try {
+      g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+          RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+      g.setColor(background);
+      g.fillRoundRect(1, 1, width - 3, height - 3, 12, 12);
+      g.setColor(BORDER_COLOR);
+      g.setStroke(new BasicStroke(3));
+      g.drawRoundRect(1, 1, width - 3, height - 3, 12, 12);
+      g.setColor(TEXT_COLOR);
+      g.setFont(font);
+      g.drawString(text, 12, 7 + metrics.getAscent());
+    } finally {
+      g.dispose();
+    }
+    return badge;
   }
 
   /**
@@ -331,6 +448,9 @@ public class PetView extends JFrame {
     selectedPetType = petType;
     PetInterface pet;
 
+    // Start decoding this species' sprites before the game screen asks for them
+    spriteLoader.warm(spriteNamesFor(petType));
+
     // Create appropriate pet type
     switch (petType) {
       case "Fox":
@@ -360,56 +480,157 @@ public class PetView extends JFrame {
     if (showingDeathScreen) {
       fileName = "flower";
     } else if (currentDisplayState == DisplayState.ACTION_IMAGE && currentAction != null) {
-      // Format: moodpettypeaction (e.g., "happysnakeFEED")
-      fileName = lastKnownMood.name().toLowerCase() + selectedPetType + currentAction.name();
+      fileName = spriteName(lastKnownMood, selectedPetType, currentAction);
     } else {
-      // Format: moodpettype (e.g., "happysnake")
-      fileName = lastKnownMood.name().toLowerCase() + selectedPetType;
+      fileName = spriteName(lastKnownMood, selectedPetType, null);
     }
 
     loadAndDisplayImage(fileName);
   }
 
 
+  /**
+   * Builds the image name for a mood, pet type and optional action.
+   *
+   * @param mood    the pet's mood
+   * @param petType the pet type, e.g. "Snake"
+   * @param action  the action being shown, or null for the plain mood image
+   * @return the image name, e.g. "happySnakeFEED" or "happySnake"
+   */
+  private static String spriteName(MoodEnum mood, String petType, Action action) {
+    String name = mood.name().toLowerCase() + petType;
+    return action == null ? name : name + action.name();
+  }
+
+  /**
+   * Lists every image a pet type can show.
+   *
+   * @param petType the pet type, e.g. "Fox"
+   * @return the image names for every mood and action of the pet type, plus the death screen
+   */
+  private static List<String> spriteNamesFor(String petType) {
+    List<String> names = new ArrayList<>();
+    for (MoodEnum mood : MoodEnum.values()) {
+      names.add(spriteName(mood, petType, null));
+      for (Action action : Action.values()) {
+        names.add(spriteName(mood, petType, action));
+      }
+    }
+    names.add("flower");
+    return names;
+  }
+
   /**
    * Helper method to load and display an image by filename.
+   * A sprite that is already decoded is shown at once; otherwise a placeholder is shown
+   * and the sprite replaces it when the background decode finishes.
    *
    * @param fileName the base filename without extension
-   * @return true if the image was loaded successfully, false otherwise
+   * @return true if the image was displayed immediately, false if it is still loading
    */
   private boolean loadAndDisplayImage(String fileName) {
-    // Path for images directly in src/images
-    String imagePath = "/images/" + fileName + ".png";
-    try {
-      System.out.println("Loading image: " + imagePath);
-      // Use class loader to get resource as stream
-      java.io.InputStream is = getClass().getResourceAsStream(imagePath);
-      if (is == null) {
-        // Try alternate extension
-        imagePath = "/images/" + fileName + ".PNG";
-        is = getClass().getResourceAsStream(imagePath);
-        if (is == null) {
-          // Additional debug
-          System.err.println("Image not found. Trying ClassLoader approach...");
-          ClassLoader classLoader = getClass().getClassLoader();
-          is = classLoader.getResourceAsStream("images/" + fileName + ".png");
-          if (is == null) {
-            is = classLoader.getResourceAsStream("images/" + fileName + ".PNG");
-            if (is == null) {
-              throw new IOException("Resource not found: " + imagePath);
-            }
+    requestedImage = fileName;
+    ImageIcon sprite = peekSprite(fileName, spriteCache);
+    if (sprite != null) {
+      imageLabel.setIcon(sprite);
+      return true;
+    }
+    imageLabel.setIcon(placeholderIcon);
+    spriteLoader.load(fileName)
+        .thenAcceptAsync(icon -> {
+          // Ignore sprites that arrive after the view has moved on to another image
+          if (fileName.equals(requestedImage)) {
+            imageLabel.setIcon(icon);
           }
-        }
+        }, SwingUtilities::invokeLater)
+        .exceptionally(e -> {
+          System.err.println("Could not load image: " + fileName);
+          e.printStackTrace();
+          return null;
+        });
+    return false;
+  }
+
+  /**
+   * Returns a sprite only if it can be shown without I/O.
+   *
+   * @param name     the base filename without extension
+   * @param fallback the cache holding individually decoded sprites of the wanted size
+   * @return the sprite, or null if it still has to be decoded
+   */
+  private ImageIcon peekSprite(String name, SpriteCache fallback) {
+    SpriteAtlas atlas = spriteAtlas.getNow(null);
+    if (atlas != null) {
+      ImageIcon sprite = atlas.get(name, fallback.getWidth(), fallback.getHeight());
+      if (sprite != null) {
+        return sprite;
       }
+    }
+    return fallback.peek(name);
+  }
 
-      Image image = ImageIO.read(is);
-      Image scaledImage = image.getScaledInstance(350, 400, Image.SCALE_SMOOTH);
-      imageLabel.setIcon(new ImageIcon(scaledImage));
-      return true;
+  /**
+   * Returns a sprite from the atlas, or from the fallback cache if the atlas does not have it.
+   * Blocks until the atlas is loaded, so it is only called on the sprite loader threads.
+   *
+   * @param name     the base filename without extension
+   * @param fallback the cache that decodes the image at the wanted size
+   * @return the sprite icon
+   * @throws IOException if the sprite is not in the atlas and cannot be decoded
+   */
+  private ImageIcon getSprite(String name, SpriteCache fallback) throws IOException {
+    SpriteAtlas atlas = spriteAtlas.join();
+    if (atlas != null) {
+      ImageIcon sprite = atlas.get(name, fallback.getWidth(), fallback.getHeight());
+      if (sprite != null) {
+        return sprite;
+      }
+    }
+    return fallback.get(name);
+  }
+
+  /**
+   * Creates the placeholder shown while a pet sprite is loading.
+   *
+   * @return a plain icon the size of a pet sprite
+   */
+  private ImageIcon createPlaceholderIcon() {
+    int width = SpriteAtlasGenerator.SPRITE_WIDTH;
+    int height = SpriteAtlasGenerator.SPRITE_HEIGHT;
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = image.createGraphics();
+    try {
+      g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+          RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+      g.setColor(HEALTH_PANEL_COLOR);
+      g.fillRect(0, 0, width, height);
+      g.setColor(TEXT_COLOR);
+      g.setFont(new Font("Courier", Font.BOLD, (int) baseFontSize));
+      String text = "Loading...";
+      int textWidth = g.getFontMetrics().stringWidth(text);
+      g.drawString(text, (width - textWidth) / 2, height / 2);
+    } finally {
+      g.dispose();
+    }
+    return new ImageIcon(image);
+  }
+
+  /**
+   * Loads the build-generated sprite atlas, falling back to individual images without it.
+   *
+   * @return the atlas, or null if it is missing or unreadable
+   */
+  private static SpriteAtlas loadSpriteAtlas() {
+    try {
+      SpriteAtlas atlas = SpriteAtlas.load();
+      if (atlas == null) {
+        System.err.println("Sprite atlas not found, loading images individually");
+      }
+      return atlas;
     } catch (IOException e) {
-      System.err.println("Could not load image: " + imagePath);
+      System.err.println("Could not load sprite atlas: " + SpriteAtlas.IMAGE_RESOURCE);
       e.printStackTrace();
-      return false;
+      return null;
     }
   }
 
@@ -419,6 +640,11 @@ public class PetView extends JFrame {
    * @param mood The current mood from the pet model
    */
   public void updatePetMoodLabelAndImage(MoodEnum mood) {
+    // Warn once when the pet turns sad
+    if (mood == MoodEnum.SAD && lastKnownMood != MoodEnum.SAD && !showingDeathScreen) {
+      overlayLayer.show(WARNING_OVERLAY, warningBadge);
+    }
+
     // Update the internal state
     this.lastKnownMood = mood;
 
@@ -447,8 +673,9 @@ public class PetView extends JFrame {
     currentAction = action;
     currentDisplayState = DisplayState.ACTION_IMAGE;
 
-    // Update the displayed image
+    // Update the displayed image and badge
     updateImageDisplay();
+    overlayLayer.show(ACTION_BADGE_OVERLAY, actionBadges.get(action));
 
     // Start the timer to revert back to mood image
     if (actionImageTimer.isRunning()) {
@@ -465,6 +692,7 @@ public class PetView extends JFrame {
     if (actionImageTimer.isRunning()) {
       actionImageTimer.stop();
     }
+    overlayLayer.hide(ACTION_BADGE_OVERLAY);
 
     if (currentDisplayState == DisplayState.ACTION_IMAGE) {
       currentDisplayState = DisplayState.MOOD_IMAGE;
@@ -504,43 +732,17 @@ public class PetView extends JFrame {
    * Shows the step indicator overlay.
    */
   public void showStepIndicator() {
-    try {
-      // Try both approaches for loading the step.png image
-      java.io.InputStream is = getClass().getResourceAsStream("/images/step.PNG");
-      if (is == null) {
-        ClassLoader classLoader = getClass().getClassLoader();
-        is = classLoader.getResourceAsStream("images/step.PNG");
-        if (is == null) {
-          throw new IOException("Step indicator image not found");
-        }
-      }
-
-      Image stepImage = ImageIO.read(is);
-      Image scaledStepImage = stepImage.getScaledInstance(133, 63, Image.SCALE_SMOOTH);
-      stepIndicatorLabel.setIcon(new ImageIcon(scaledStepImage));
-
-      // Make the indicator visible
-      stepIndicatorLabel.setVisible(true);
-
-      // Start/restart timer
-      if (stepIndicatorTimer.isRunning()) {
-        stepIndicatorTimer.restart();
-      } else {
-        stepIndicatorTimer.start();
-      }
-    } catch (IOException e) {
-      System.err.println("Could not load step indicator image: /images/step.PNG");
-      e.printStackTrace();
-    }
+    // The indicator image was preloaded; until it arrives there is nothing to show
+    overlayLayer.show(STEP_OVERLAY);
   }
 
   /**
-   * Updates the health label with formatted text.
+   * Updates the health gauges; only gauges whose value changed are repainted.
    *
-   * @param healthText the formatted health text
+   * @param health the pet's current health
    */
-  public void updateHealthDisplay(String healthText) {
-    healthLabel.setText(healthText);
+  public void updateHealthDisplay(HealthStatus health) {
+    healthGauges.setHealth(health);
   }
 
   // Accessor methods for buttons
@@ -0,0 +1,156 @@
+package pet;
+
+import java.util.Locale;
+
+/**
+ * Immutable summary of a HeadlessRunner since it started.
+ * Latency is the wall-clock time of each tick; lag is how late a tick started
+ * compared to its fixed-rate schedule, which grows when ticks take longer than the interval.
+ */
+public class RunnerStats {
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  private final long ticks;
+  private final long petSteps;
+  private final long elapsedNanos;
+  private final long medianLatencyNanos;
+  private final long p99LatencyNanos;
+  private final long maxLatencyNanos;
+  private final long maxLagNanos;
+  private final long failedTicks;
+
+  /**
+   * Constructs a RunnerStats for a run in which no tick failed.
+   *
+   * @param ticks              the number of ticks run
+   * @param petSteps           the total number of pet steps over all ticks
+   * @param elapsedNanos       the wall-clock time since the runner started
+   * @param medianLatencyNanos the median tick duration
+   * @param p99LatencyNanos    the 99th percentile tick duration
+   * @param maxLatencyNanos    the longest tick duration
+   * @param maxLagNanos        the latest any tick started behind schedule
+   */
+  public RunnerStats(long ticks, long petSteps, long elapsedNanos, long medianLatencyNanos,
+                     long p99LatencyNanos, long maxLatencyNanos, long maxLagNanos) {
+    this(ticks, petSteps, elapsedNanos, medianLatencyNanos, p99LatencyNanos, maxLatencyNanos,
+        maxLagNanos, 0);
+  }
+
+  /**
+   * Constructs a RunnerStats.
+   *
+   * @param ticks              the number of ticks run
+   * @param petSteps           the total number of pet steps over all ticks
+   * @param elapsedNanos       the wall-clock time since the runner started
+   * @param medianLatencyNanos the median tick duration
+   * @param p99LatencyNanos    the 99th percentile tick duration
+   * @param maxLatencyNanos    the longest tick duration
+   * @param maxLagNanos        the latest any tick started behind schedule
+   * @param failedTicks        the number of scheduled ticks that threw an exception
+   */
+  public RunnerStats(long ticks, long petSteps, long elapsedNanos, long medianLatencyNanos,
+                     long p99LatencyNanos, long maxLatencyNanos, long maxLagNanos,
+                     long failedTicks) {
+    this.ticks = ticks;
+    this.petSteps = petSteps;
+    this.elapsedNanos = elapsedNanos;
+    this.medianLatencyNanos = medianLatencyNanos;
+    this.p99LatencyNanos = p99LatencyNanos;
+    this.maxLatencyNanos = maxLatencyNanos;
+    this.maxLagNanos = maxLagNanos;
+    this.failedTicks = failedTicks;
+  }
+
+  /**
+   * Gets the number of ticks run.
+   *
+   * @return the tick count
+   */
+  public long getTicks() {
+    return ticks;
+  }
+
+  /**
+   * Gets the total number of pet steps over all ticks.
+   *
+   * @return the pet step count
+   */
+  public long getPetSteps() {
+    return petSteps;
+  }
+
+  /**
+   * Gets the wall-clock time since the runner started.
+   *
+   * @return the elapsed time in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Gets the median tick duration.
+   *
+   * @return the median latency in nanoseconds
+   */
+  public long getMedianLatencyNanos() {
+    return medianLatencyNanos;
+  }
+
+  /**
+   * Gets the 99th percentile tick duration.
+   *
+   * @return the p99 latency in nanoseconds
+   */
+  public long getP99LatencyNanos() {
+    return p99LatencyNanos;
+  }
+
+  /**
+   * Gets the longest tick duration.
+   *
+   * @return the maximum latency in nanoseconds
+   */
+  public long getMaxLatencyNanos() {
+    return maxLatencyNanos;
+  }
+
+  /**
+   * Gets how late the latest tick started compared to its schedule.
+   *
+   * @return the maximum schedule lag in nanoseconds
+   */
+  public long getMaxLagNanos() {
+    return maxLagNanos;
+  }
+
+  /**
+   * Gets the number of scheduled ticks that threw an exception. Failed ticks are not counted
+   * in the tick count or the latencies.
+   *
+   * @return the failed tick count
+   */
+  public long getFailedTicks() {
+    return failedTicks;
+  }
+
+  /**
+   * Gets the sustained throughput over the whole run.
+   *
+   * @return the number of pet steps per second, or 0 if no time has passed
+   */
+  public double getStepsPerSecond() {
+    return elapsedNanos == 0 ? 0 : petSteps * NANOS_PER_SECOND / elapsedNanos;
+  }
+
+  @Override
+  public String toString() {
+    String text = String.format(Locale.ROOT,
+        "ticks=%d steps=%d steps/s=%.0f latency p50=%.3fms p99=%.3fms max=%.3fms lag max=%.3fms",
+        ticks, petSteps, getStepsPerSecond(), medianLatencyNanos / NANOS_PER_MILLI,
+        p99LatencyNanos / NANOS_PER_MILLI, maxLatencyNanos / NANOS_PER_MILLI,
+        maxLagNanos / NANOS_PER_MILLI);
+    return failedTicks == 0 ? text : text + " failed=" + failedTicks;
+  }
+}
@@ -1,5 +1,7 @@
 package pet;
 
+import java.util.random.RandomGenerator;
+
 /**
  * Concrete strategy for a pet in a sad mood.
  * When sad, pets decay needs more quickly and respond less to interactions.
@@ -22,11 +24,11 @@ public class SadStrategy extends AbstractMoodStrategy {
   }
 
   @Override
-  public HealthStatus applyInteraction(HealthStatus health, Action action) {
-    int newHunger = health.getHunger();
-    int newHygiene = health.getHygiene();
-    int newSocial = health.getSocial();
-    int newSleep = health.getSleep();
+  public long applyInteraction(long health, Action action) {
+    int newHunger = HealthStatus.hungerOf(health);
+    int newHygiene = HealthStatus.hygieneOf(health);
+    int newSocial = HealthStatus.socialOf(health);
+    int newSleep = HealthStatus.sleepOf(health);
 
     switch (action) {
       case FEED:
@@ -51,20 +53,20 @@ public class SadStrategy extends AbstractMoodStrategy {
         break;
     }
 
-    return new HealthStatus(newHunger, newHygiene, newSocial, newSleep);
+    return HealthStatus.pack(newHunger, newHygiene, newSocial, newSleep);
   }
 
   @Override
-  public HealthStatus applyStep(HealthStatus health) {
+  public long applyStep(long health, RandomGenerator random) {
     // When sad, natural decay is faster
-    int newHunger = clamp(health.getHunger() + hungerChangeRate);
-    int newHygiene = clamp(health.getHygiene() - (hygieneChangeRate
-        + (int) (Math.random() * RANDOM_CHANGE_LIMIT)));
-    int newSocial = clamp(health.getSocial() - (socialChangeRate + (int) (Math.random()
-        * RANDOM_CHANGE_LIMIT)));
-    int newSleep = clamp(health.getSleep() - (sleepChangeRate + (int) (Math.random()
-        * RANDOM_CHANGE_LIMIT)));
+    int newHunger = clamp(HealthStatus.hungerOf(health) + hungerChangeRate);
+    int newHygiene = clamp(HealthStatus.hygieneOf(health) - (hygieneChangeRate
+        + random.nextInt(RANDOM_CHANGE_LIMIT)));
+    int newSocial = clamp(HealthStatus.socialOf(health) - (socialChangeRate
+        + random.nextInt(RANDOM_CHANGE_LIMIT)));
+    int newSleep = clamp(HealthStatus.sleepOf(health) - (sleepChangeRate
+        + random.nextInt(RANDOM_CHANGE_LIMIT)));
 
-    return new HealthStatus(newHunger, newHygiene, newSocial, newSleep);
+    return HealthStatus.pack(newHunger, newHygiene, newSocial, newSleep);
   }
 }
\ No newline at end of file
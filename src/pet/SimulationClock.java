@@ -0,0 +1,44 @@
+package pet;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A logical clock counting simulation ticks.
+ * Lazily evaluated pets compare their last evaluated tick against this clock and
+ * catch up only when they are read, so advancing the clock costs nothing per pet.
+ */
+public class SimulationClock {
+  private final AtomicLong tick = new AtomicLong();
+
+  /**
+   * Returns the current tick.
+   *
+   * @return the number of ticks since the clock was created
+   */
+  public long currentTick() {
+    return tick.get();
+  }
+
+  /**
+   * Advances the clock by one tick.
+   *
+   * @return the new current tick
+   */
+  public long advance() {
+    return tick.incrementAndGet();
+  }
+
+  /**
+   * Advances the clock by the given number of ticks.
+   *
+   * @param ticks the number of ticks to advance
+   * @return the new current tick
+   * @throws IllegalArgumentException if ticks is negative
+   */
+  public long advance(long ticks) {
+    if (ticks < 0) {
+      throw new IllegalArgumentException("Ticks cannot be negative: " + ticks);
+    }
+    return tick.addAndGet(ticks);
+  }
+}
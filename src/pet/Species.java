@@ -0,0 +1,138 @@
+package pet;
+
+/**
+ * The Species enum describes every concrete pet type together with the
+ * constants that drive its behavior: death limits, mood thresholds and the
+ * change rates used by its happy and sad strategies.
+ * The values are taken from the pet classes themselves so there is a single source of truth.
+ */
+public enum Species {
+  PET(new DeathThreshold(Pet.HUNGER_LIMIT, Pet.HYGIENE_LIMIT, Pet.SOCIAL_LIMIT, Pet.SLEEP_LIMIT),
+      Pet.HUNGER_SAD_THRESHOLD, Pet.HYGIENE_SAD_THRESHOLD,
+      Pet.SOCIAL_SAD_THRESHOLD, Pet.SLEEP_SAD_THRESHOLD,
+      new int[] {Pet.HAPPY_HUNGER_RATE, Pet.HAPPY_HYGIENE_RATE, Pet.HAPPY_SOCIAL_RATE,
+          Pet.HAPPY_SLEEP_RATE, Pet.HAPPY_ACTION_BOOST},
+      new int[] {Pet.SAD_HUNGER_RATE, Pet.SAD_HYGIENE_RATE, Pet.SAD_SOCIAL_RATE,
+          Pet.SAD_SLEEP_RATE, Pet.SAD_ACTION_BOOST}) {
+    @Override
+    public AbstractPet createPet() {
+      return new Pet();
+    }
+  },
+
+  FOX(new DeathThreshold(Fox.HUNGER_LIMIT, Fox.HYGIENE_LIMIT, Fox.SOCIAL_LIMIT, Fox.SLEEP_LIMIT),
+      Fox.HUNGER_SAD_THRESHOLD, Fox.HYGIENE_SAD_THRESHOLD,
+      Fox.SOCIAL_SAD_THRESHOLD, Fox.SLEEP_SAD_THRESHOLD,
+      new int[] {Fox.HAPPY_HUNGER_RATE, Fox.HAPPY_HYGIENE_RATE, Fox.HAPPY_SOCIAL_RATE,
+          Fox.HAPPY_SLEEP_RATE, Fox.HAPPY_ACTION_BOOST},
+      new int[] {Fox.SAD_HUNGER_RATE, Fox.SAD_HYGIENE_RATE, Fox.SAD_SOCIAL_RATE,
+          Fox.SAD_SLEEP_RATE, Fox.SAD_ACTION_BOOST}) {
+    @Override
+    public AbstractPet createPet() {
+      return new Fox();
+    }
+  },
+
+  // Snakes have no hygiene mood threshold, so the floor is used: hygiene is never below it.
+  SNAKE(new DeathThreshold(Snake.HUNGER_LIMIT, Snake.HYGIENE_LIMIT, Snake.SOCIAL_LIMIT,
+      Snake.SLEEP_LIMIT),
+      Snake.HUNGER_SAD_THRESHOLD, AbstractMoodStrategy.VALUE_FLOOR,
+      Snake.SOCIAL_SAD_THRESHOLD, Snake.SLEEP_SAD_THRESHOLD,
+      new int[] {Snake.HAPPY_HUNGER_RATE, Snake.HAPPY_HYGIENE_RATE, Snake.HAPPY_SOCIAL_RATE,
+          Snake.HAPPY_SLEEP_RATE, Snake.HAPPY_ACTION_BOOST},
+      new int[] {Snake.SAD_HUNGER_RATE, Snake.SAD_HYGIENE_RATE, Snake.SAD_SOCIAL_RATE,
+          Snake.SAD_SLEEP_RATE, Snake.SAD_ACTION_BOOST}) {
+    @Override
+    public AbstractPet createPet() {
+      return new Snake();
+    }
+  };
+
+  // Index of each value in the per-mood rate arrays
+  static final int HUNGER_RATE = 0;
+  static final int HYGIENE_RATE = 1;
+  static final int SOCIAL_RATE = 2;
+  static final int SLEEP_RATE = 3;
+  static final int ACTION_BOOST = 4;
+
+  private final DeathThreshold threshold;
+  private final int hungerSadThreshold;
+  private final int hygieneSadThreshold;
+  private final int socialSadThreshold;
+  private final int sleepSadThreshold;
+  private final int[] happyRates;
+  private final int[] sadRates;
+
+  Species(DeathThreshold threshold, int hungerSadThreshold, int hygieneSadThreshold,
+          int socialSadThreshold, int sleepSadThreshold, int[] happyRates, int[] sadRates) {
+    this.threshold = threshold;
+    this.hungerSadThreshold = hungerSadThreshold;
+    this.hygieneSadThreshold = hygieneSadThreshold;
+    this.socialSadThreshold = socialSadThreshold;
+    this.sleepSadThreshold = sleepSadThreshold;
+    this.happyRates = happyRates;
+    this.sadRates = sadRates;
+  }
+
+  /**
+   * Creates a new pet of this species with default health values.
+   *
+   * @return a freshly constructed pet
+   */
+  public abstract AbstractPet createPet();
+
+  /**
+   * Returns the death thresholds shared by every pet of this species.
+   *
+   * @return the DeathThreshold of this species
+   */
+  public DeathThreshold getDeathThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Checks whether the given health values put a pet of this species in a sad mood.
+   *
+   * @param hunger  current hunger value
+   * @param hygiene current hygiene value
+   * @param social  current social value
+   * @param sleep   current sleep value
+   * @return true if any mood threshold is crossed, false otherwise
+   */
+  public boolean isSadCondition(int hunger, int hygiene, int social, int sleep) {
+    return hunger > hungerSadThreshold
+        ||
+        hygiene < hygieneSadThreshold
+        ||
+        social < socialSadThreshold
+        ||
+        sleep < sleepSadThreshold;
+  }
+
+  /**
+   * Returns one of the strategy parameters for the given mood.
+   *
+   * @param mood  the mood whose parameters are requested
+   * @param index one of HUNGER_RATE, HYGIENE_RATE, SOCIAL_RATE, SLEEP_RATE or ACTION_BOOST
+   * @return the requested rate or boost
+   */
+  int getRate(MoodEnum mood, int index) {
+    return mood == MoodEnum.HAPPY ? happyRates[index] : sadRates[index];
+  }
+
+  int getHungerSadThreshold() {
+    return hungerSadThreshold;
+  }
+
+  int getHygieneSadThreshold() {
+    return hygieneSadThreshold;
+  }
+
+  int getSocialSadThreshold() {
+    return socialSadThreshold;
+  }
+
+  int getSleepSadThreshold() {
+    return sleepSadThreshold;
+  }
+}
@@ -0,0 +1,49 @@
+package pet;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A small SplitMix64 random generator whose entire state is one long.
+ * Unlike SplittableRandom, the state can be read and restored, so a pet's random sequence
+ * can be saved in a snapshot and continued exactly after recovery.
+ */
+public class SplitMixRandom implements RandomGenerator {
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+  private long state;
+
+  /**
+   * Creates a generator starting from the given seed.
+   *
+   * @param seed the initial state
+   */
+  public SplitMixRandom(long seed) {
+    this.state = seed;
+  }
+
+  @Override
+  public long nextLong() {
+    long z = state += GOLDEN_GAMMA;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Returns the current state, which fully determines all future values.
+   *
+   * @return the generator state
+   */
+  public long getState() {
+    return state;
+  }
+
+  /**
+   * Restores a state previously returned by {@link #getState()}.
+   *
+   * @param state the generator state
+   */
+  public void setState(long state) {
+    this.state = state;
+  }
+}
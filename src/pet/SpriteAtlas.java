@@ -0,0 +1,109 @@
+package pet;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+/**
+ * A single pre-scaled image holding every sprite, generated at build time by
+ * {@link SpriteAtlasGenerator}.
+ * Loading the atlas decodes one PNG; every sprite is then a sub-image sharing its pixels,
+ * so switching the displayed sprite costs no I/O and no scaling.
+ *
+ * <p>The index is a text file with one line per sprite: {@code name x y width height}.
+ * Lines starting with {@code #} are comments.
+ */
+public final class SpriteAtlas {
+  /** Classpath location of the packed atlas image. */
+  static final String IMAGE_RESOURCE = "/images/atlas.png";
+  /** Classpath location of the atlas index. */
+  static final String INDEX_RESOURCE = "/images/atlas.idx";
+
+  private final Map<String, ImageIcon> sprites = new HashMap<>();
+
+  /**
+   * Creates an atlas from a decoded atlas image and its index.
+   *
+   * @param atlas the packed atlas image
+   * @param index the index describing where each sprite is in the atlas
+   * @throws IOException if the index cannot be read or does not match the image
+   */
+  SpriteAtlas(BufferedImage atlas, InputStream index) throws IOException {
+    BufferedReader reader =
+        new BufferedReader(new InputStreamReader(index, StandardCharsets.UTF_8));
+    String line;
+    while ((line = reader.readLine()) != null) {
+      line = line.trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] fields = line.split("\\s+");
+      if (fields.length != 5) {
+        throw new IOException("Malformed atlas index line: " + line);
+      }
+      try {
+        int x = Integer.parseInt(fields[1]);
+        int y = Integer.parseInt(fields[2]);
+        int width = Integer.parseInt(fields[3]);
+        int height = Integer.parseInt(fields[4]);
+        sprites.put(key(fields[0], width, height),
+            new ImageIcon(atlas.getSubimage(x, y, width, height)));
+      } catch (NumberFormatException | java.awt.image.RasterFormatException e) {
+        throw new IOException("Invalid atlas index line: " + line, e);
+      }
+    }
+  }
+
+  /**
+   * Loads the atlas generated by the build from the classpath.
+   *
+   * @return the atlas, or null if the build did not generate one (e.g. running from the IDE)
+   * @throws IOException if the atlas exists but cannot be decoded
+   */
+  public static SpriteAtlas load() throws IOException {
+    InputStream image = SpriteAtlas.class.getResourceAsStream(IMAGE_RESOURCE);
+    InputStream index = SpriteAtlas.class.getResourceAsStream(INDEX_RESOURCE);
+    try (InputStream imageIn = image; InputStream indexIn = index) {
+      if (imageIn == null || indexIn == null) {
+        return null;
+      }
+      BufferedImage atlas = ImageIO.read(imageIn);
+      if (atlas == null) {
+        throw new IOException("Unsupported atlas image format: " + IMAGE_RESOURCE);
+      }
+      return new SpriteAtlas(atlas, indexIn);
+    }
+  }
+
+  /**
+   * Returns a sprite at the given pre-scaled size.
+   *
+   * @param name   the image name, as used for the files in /images
+   * @param width  the width the sprite was packed at
+   * @param height the height the sprite was packed at
+   * @return the sprite, or null if the atlas does not contain it at that size
+   */
+  public ImageIcon get(String name, int width, int height) {
+    return sprites.get(key(name, width, height));
+  }
+
+  /**
+   * Returns the number of sprites in the atlas.
+   *
+   * @return the sprite count
+   */
+  public int size() {
+    return sprites.size();
+  }
+
+  private static String key(String name, int width, int height) {
+    return name + '@' + width + 'x' + height;
+  }
+}
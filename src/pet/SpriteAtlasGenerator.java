@@ -0,0 +1,128 @@
+package pet;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import javax.imageio.ImageIO;
+
+/**
+ * Build-time tool that packs the images in a directory into a {@link SpriteAtlas}.
+ * Pet sprites are scaled to 350x400 and the step indicator to 133x63, the sizes PetView
+ * displays them at, and placed on shelves in a single PNG next to a text index.
+ *
+ * <p>Usage: {@code SpriteAtlasGenerator <imagesDir> <outputDir>}. The Gradle build runs it
+ * and adds {@code outputDir} to the jar resources.
+ */
+public final class SpriteAtlasGenerator {
+  static final int SPRITE_WIDTH = 350;
+  static final int SPRITE_HEIGHT = 400;
+  static final int STEP_INDICATOR_WIDTH = 133;
+  static final int STEP_INDICATOR_HEIGHT = 63;
+  // Widest shelf in pixels; eight pet sprites per row keeps the atlas roughly square
+  private static final int MAX_ATLAS_WIDTH = 8 * SPRITE_WIDTH;
+
+  private SpriteAtlasGenerator() {
+  }
+
+  /**
+   * Generates atlas.png and atlas.idx.
+   *
+   * @param args the source images directory and the output directory
+   * @throws IOException if an image cannot be read or the atlas cannot be written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: SpriteAtlasGenerator <imagesDir> <outputDir>");
+      System.exit(1);
+    }
+    int count = generate(Paths.get(args[0]), Paths.get(args[1]));
+    System.out.println("Packed " + count + " sprites into " + args[1]);
+  }
+
+  /**
+   * Packs every PNG in a directory into atlas.png and atlas.idx in the output directory.
+   *
+   * @param imagesDir the directory holding the source images
+   * @param outputDir the directory to write the atlas to, created if necessary
+   * @return the number of sprites packed
+   * @throws IOException if an image cannot be read or the atlas cannot be written
+   */
+  static int generate(Path imagesDir, Path outputDir) throws IOException {
+    // Sorted by name so repeated builds produce the same atlas
+    TreeMap<String, BufferedImage> scaled = new TreeMap<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(imagesDir)) {
+      for (Path file : files) {
+        String fileName = file.getFileName().toString();
+        if (!fileName.toLowerCase(Locale.ROOT).endsWith(".png")) {
+          continue;
+        }
+        String name = fileName.substring(0, fileName.length() - 4);
+        if (name.equals("atlas")) {
+          continue;
+        }
+        BufferedImage image = ImageIO.read(file.toFile());
+        if (image == null) {
+          throw new IOException("Unsupported image format: " + file);
+        }
+        scaled.put(name, name.equals("step")
+            ? SpriteCache.scale(image, STEP_INDICATOR_WIDTH, STEP_INDICATOR_HEIGHT)
+            : SpriteCache.scale(image, SPRITE_WIDTH, SPRITE_HEIGHT));
+      }
+    }
+    if (scaled.isEmpty()) {
+      throw new IOException("No images found in " + imagesDir);
+    }
+
+    // Shelf packing: sprites of the same height share a row until it is full
+    List<String> order = new ArrayList<>(scaled.keySet());
+    order.sort((a, b) -> scaled.get(b).getHeight() - scaled.get(a).getHeight());
+    int[][] positions = new int[order.size()][];
+    int x = 0;
+    int y = 0;
+    int shelfHeight = 0;
+    int atlasWidth = 0;
+    for (int i = 0; i < order.size(); i++) {
+      BufferedImage sprite = scaled.get(order.get(i));
+      if (x > 0 && (x + sprite.getWidth() > MAX_ATLAS_WIDTH
+          || sprite.getHeight() != shelfHeight)) {
+        x = 0;
+        y += shelfHeight;
+      }
+      if (x == 0) {
+        shelfHeight = sprite.getHeight();
+      }
+      positions[i] = new int[] {x, y};
+      x += sprite.getWidth();
+      atlasWidth = Math.max(atlasWidth, x);
+    }
+    int atlasHeight = y + shelfHeight;
+
+    BufferedImage atlas = new BufferedImage(atlasWidth, atlasHeight, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = atlas.createGraphics();
+    Files.createDirectories(outputDir);
+    try (Writer index = Files.newBufferedWriter(outputDir.resolve("atlas.idx"),
+        StandardCharsets.UTF_8)) {
+      index.write("# name x y width height\n");
+      for (int i = 0; i < order.size(); i++) {
+        BufferedImage sprite = scaled.get(order.get(i));
+        g.drawImage(sprite, positions[i][0], positions[i][1], null);
+        index.write(order.get(i) + ' ' + positions[i][0] + ' ' + positions[i][1] + ' '
+            + sprite.getWidth() + ' ' + sprite.getHeight() + '\n');
+      }
+    } finally {
+      g.dispose();
+    }
+    ImageIO.write(atlas, "png", outputDir.resolve("atlas.png").toFile());
+    return order.size();
+  }
+}
@@ -0,0 +1,236 @@
+package pet;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+/**
+ * An LRU cache of decoded and scaled sprites.
+ * Sprites are keyed by their image name, which PetView builds from the (mood, species, action)
+ * being shown, for example "happyFoxFEED". Each PNG is read and scaled once into a
+ * BufferedImage; later lookups reuse the same icon without any I/O.
+ * Lookups never block on another name: images are decoded outside any lock, and a thread asking
+ * for a sprite that is still being decoded waits for that decode instead of starting its own.
+ */
+public class SpriteCache {
+  private final int width;
+  private final int height;
+  private final int capacity;
+  private final Map<String, Entry> sprites = new ConcurrentHashMap<>();
+  // Logical clock stamped on every use, so eviction can find the least recently used sprite
+  private final AtomicLong clock = new AtomicLong();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Creates an empty sprite cache.
+   *
+   * @param capacity the maximum number of sprites kept before the least recently used is evicted
+   * @param width    the width every sprite is scaled to
+   * @param height   the height every sprite is scaled to
+   * @throws IllegalArgumentException if capacity, width or height is not positive
+   */
+  public SpriteCache(int capacity, int width, int height) {
+    if (capacity <= 0 || width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Capacity and sprite size must be positive");
+    }
+    this.width = width;
+    this.height = height;
+    this.capacity = capacity;
+  }
+
+  /**
+   * Returns the scaled sprite for an image name, decoding it on the first request.
+   *
+   * @param name the base file name in /images without extension
+   * @return the cached icon
+   * @throws IOException if the image cannot be found or decoded
+   */
+  public ImageIcon get(String name) throws IOException {
+    Entry entry = sprites.get(name);
+    if (entry == null) {
+      Entry created = new Entry();
+      entry = sprites.putIfAbsent(name, created);
+      if (entry == null) {
+        misses.increment();
+        created.touch();
+        decode(name, created);
+        evictOverflow();
+        return join(created);
+      }
+    }
+    hits.increment();
+    entry.touch();
+    return join(entry);
+  }
+
+  /**
+   * Returns a sprite only if it is already decoded, without doing any I/O.
+   * A sprite found this way counts as a hit; a missing one is not counted.
+   *
+   * @param name the base file name in /images without extension
+   * @return the cached icon, or null if it has not been decoded yet
+   */
+  public ImageIcon peek(String name) {
+    Entry entry = sprites.get(name);
+    ImageIcon sprite = entry == null ? null : entry.sprite.getNow(null);
+    if (sprite != null) {
+      hits.increment();
+      entry.touch();
+    }
+    return sprite;
+  }
+
+  /**
+   * Returns the number of lookups served from the cache.
+   *
+   * @return the hit count
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of lookups that had to decode an image.
+   *
+   * @return the miss count
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * Returns the width sprites are scaled to.
+   *
+   * @return the sprite width
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Returns the height sprites are scaled to.
+   *
+   * @return the sprite height
+   */
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * Returns the number of sprites currently cached.
+   *
+   * @return the cache size
+   */
+  public int size() {
+    return sprites.size();
+  }
+
+  /**
+   * Decodes a sprite into its entry on the calling thread. A failed entry is removed again, so
+   * the next lookup retries instead of seeing the same failure forever.
+   */
+  private void decode(String name, Entry entry) {
+    try {
+      entry.sprite.complete(new ImageIcon(scale(read(name), width, height)));
+    } catch (IOException | RuntimeException e) {
+      sprites.remove(name, entry);
+      entry.sprite.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Drops least recently used sprites until the cache is back within its capacity.
+   * Capacities are small, so a scan is cheaper than keeping the entries ordered under a lock.
+   */
+  private void evictOverflow() {
+    while (sprites.size() > capacity) {
+      Map.Entry<String, Entry> eldest = null;
+      for (Map.Entry<String, Entry> candidate : sprites.entrySet()) {
+        if (eldest == null || candidate.getValue().lastUsed < eldest.getValue().lastUsed) {
+          eldest = candidate;
+        }
+      }
+      if (eldest == null) {
+        return;
+      }
+      sprites.remove(eldest.getKey(), eldest.getValue());
+    }
+  }
+
+  /**
+   * Waits for an entry's sprite and rethrows a failed decode as the IOException it was.
+   */
+  private static ImageIcon join(Entry entry) throws IOException {
+    try {
+      return entry.sprite.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw new IOException(e.getCause().getMessage(), e.getCause());
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Reads an image from /images, trying both extensions and both class loading approaches.
+   */
+  private BufferedImage read(String name) throws IOException {
+    String[] paths = {"/images/" + name + ".png", "/images/" + name + ".PNG"};
+    for (String path : paths) {
+      InputStream is = getClass().getResourceAsStream(path);
+      if (is == null) {
+        is = getClass().getClassLoader().getResourceAsStream(path.substring(1));
+      }
+      if (is == null) {
+        continue;
+      }
+      try (InputStream in = is) {
+        BufferedImage image = ImageIO.read(in);
+        if (image == null) {
+          throw new IOException("Unsupported image format: " + path);
+        }
+        return image;
+      }
+    }
+    throw new IOException("Resource not found: /images/" + name + ".png");
+  }
+
+  /**
+   * Scales an image with the same smooth scaling the view has always used.
+   * Shared with SpriteAtlasGenerator so atlas sprites look identical to decoded ones.
+   */
+  static BufferedImage scale(BufferedImage image, int width, int height) {
+    Image scaled = image.getScaledInstance(width, height, Image.SCALE_SMOOTH);
+    BufferedImage sprite = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = sprite.createGraphics();
+    try {
+      g.drawImage(scaled, 0, 0, null);
+    } finally {
+      g.dispose();
+    }
+    return sprite;
+  }
+
+  /**
+   * A cached sprite, possibly still being decoded, and when it was last used.
+   */
+  private final class Entry {
+    private final CompletableFuture<ImageIcon> sprite = new CompletableFuture<>();
+    private volatile long lastUsed;
+
+    private void touch() {
+      lastUsed = clock.incrementAndGet();
+    }
+  }
+}
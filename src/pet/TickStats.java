@@ -0,0 +1,55 @@
+package pet;
+
+/**
+ * Immutable timing report for a single simulation tick.
+ */
+public class TickStats {
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  private final int petCount;
+  private final long wallTimeNanos;
+
+  /**
+   * Constructs a TickStats for one tick.
+   *
+   * @param petCount      the number of pets stepped during the tick
+   * @param wallTimeNanos the wall-clock time the tick took, in nanoseconds
+   */
+  public TickStats(int petCount, long wallTimeNanos) {
+    this.petCount = petCount;
+    this.wallTimeNanos = wallTimeNanos;
+  }
+
+  /**
+   * Gets the number of pets stepped during the tick.
+   *
+   * @return the pet count
+   */
+  public int getPetCount() {
+    return petCount;
+  }
+
+  /**
+   * Gets the wall-clock time the tick took.
+   *
+   * @return the tick duration in nanoseconds
+   */
+  public long getWallTimeNanos() {
+    return wallTimeNanos;
+  }
+
+  /**
+   * Gets the throughput of the tick.
+   *
+   * @return the number of pets stepped per second, or 0 if the tick took no measurable time
+   */
+  public double getPetsPerSecond() {
+    return wallTimeNanos == 0 ? 0 : petCount * NANOS_PER_SECOND / wallTimeNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("TickStats{petCount=%d, wallTimeMillis=%.3f, petsPerSecond=%.0f}",
+        petCount, wallTimeNanos / 1_000_000.0, getPetsPerSecond());
+  }
+}
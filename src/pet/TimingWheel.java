@@ -0,0 +1,274 @@
+package pet;
+
+/**
+ * A hierarchical hashed timing wheel that runs tasks, typically pet steps, at their own
+ * intervals measured in logical ticks.
+ * It replaces one timer per pet: thousands of pets can each keep their own cadence while a
+ * single thread advances the wheel, for example once per {@link SimulationClock} tick.
+ *
+ * <p>The wheel has {@value #LEVELS} levels of {@value #SLOTS} slots. Level 0 holds tasks due
+ * within the next 64 ticks, level 1 within the next 4096, and so on. Scheduling and cancelling
+ * are O(1), and a task moves down at most one level per cascade, so expiry is amortized O(1).
+ * The wheel is not thread-safe; schedule, cancel and advance from the thread that drives it.
+ * Tasks may schedule and cancel other tasks while they run, but must not throw.
+ */
+public class TimingWheel {
+  /** Number of slots on each level. */
+  public static final int SLOTS = 64;
+  /** Number of levels. */
+  public static final int LEVELS = 6;
+  /** Longest delay or interval that can be scheduled, in ticks. */
+  public static final long MAX_DELAY = (1L << (LEVELS * 6)) - 1;
+
+  private static final int SLOT_BITS = 6;
+  private static final int SLOT_MASK = SLOTS - 1;
+  // Level markers for tasks that are not in a wheel slot
+  private static final int UNSCHEDULED = -1;
+  private static final int EXPIRING = -2;
+
+  // Head of the doubly linked task list in each slot, indexed by [level][slot]
+  private final Timeout[][] wheel = new Timeout[LEVELS][SLOTS];
+  // Tasks detached from the slot being expired and not run yet
+  private Timeout expiring;
+  // The next tick to be processed
+  private long nextTick;
+  private int size;
+
+  /**
+   * A scheduled task. Keep it to cancel the task later.
+   */
+  public static final class Timeout {
+    private final Runnable task;
+    private final long interval;
+    private long deadline;
+    private boolean cancelled;
+    private Timeout prev;
+    private Timeout next;
+    private int level = UNSCHEDULED;
+    private int slot;
+
+    private Timeout(Runnable task, long interval, long deadline) {
+      this.task = task;
+      this.interval = interval;
+      this.deadline = deadline;
+    }
+
+    /**
+     * Returns the tick the task runs at next.
+     *
+     * @return the next deadline
+     */
+    public long getDeadline() {
+      return deadline;
+    }
+
+    /**
+     * Returns whether the task was cancelled.
+     *
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+      return cancelled;
+    }
+  }
+
+  /**
+   * Creates an empty wheel whose current tick is 0.
+   */
+  public TimingWheel() {
+    this(0);
+  }
+
+  /**
+   * Creates an empty wheel starting at the given tick, e.g. a SimulationClock's current tick.
+   *
+   * @param startTick the first tick the wheel will process
+   */
+  public TimingWheel(long startTick) {
+    this.nextTick = startTick;
+  }
+
+  /**
+   * Steps a pet every {@code intervalTicks} ticks, starting one interval from now.
+   *
+   * @param pet           the pet to step
+   * @param intervalTicks the number of ticks between steps
+   * @return the handle to cancel the schedule with
+   * @throws IllegalArgumentException if pet is null or the interval is out of range
+   */
+  public Timeout schedulePet(PetInterface pet, long intervalTicks) {
+    if (pet == null) {
+      throw new IllegalArgumentException("Pet cannot be null");
+    }
+    return scheduleRepeating(pet::step, intervalTicks);
+  }
+
+  /**
+   * Runs a task every {@code intervalTicks} ticks, starting one interval from now.
+   *
+   * @param task          the task to run
+   * @param intervalTicks the number of ticks between runs, from 1 to {@link #MAX_DELAY}
+   * @return the handle to cancel the schedule with
+   * @throws IllegalArgumentException if task is null or the interval is out of range
+   */
+  public Timeout scheduleRepeating(Runnable task, long intervalTicks) {
+    if (intervalTicks < 1) {
+      throw new IllegalArgumentException("Interval must be positive: " + intervalTicks);
+    }
+    return schedule(task, intervalTicks, intervalTicks);
+  }
+
+  /**
+   * Runs a task once after {@code delayTicks} ticks.
+   *
+   * @param task       the task to run
+   * @param delayTicks the number of ticks to wait, from 0 (the next tick) to {@link #MAX_DELAY}
+   * @return the handle to cancel the task with
+   * @throws IllegalArgumentException if task is null or the delay is out of range
+   */
+  public Timeout scheduleOnce(Runnable task, long delayTicks) {
+    if (delayTicks < 0) {
+      throw new IllegalArgumentException("Delay cannot be negative: " + delayTicks);
+    }
+    return schedule(task, delayTicks, 0);
+  }
+
+  /**
+   * Cancels a task. Cancelling a task that already ran once or was cancelled has no effect.
+   *
+   * @param timeout the handle returned when the task was scheduled
+   */
+  public void cancel(Timeout timeout) {
+    if (timeout.cancelled) {
+      return;
+    }
+    timeout.cancelled = true;
+    if (timeout.level != UNSCHEDULED) {
+      unlink(timeout);
+      size--;
+    }
+  }
+
+  /**
+   * Processes the next tick: runs every task due at it and reschedules repeating tasks.
+   */
+  public void advance() {
+    int index = (int) (nextTick & SLOT_MASK);
+    // At the start of each block of 64 ticks, pull the next block's tasks down a level
+    for (int level = 1; index == 0 && level < LEVELS; level++) {
+      index = (int) ((nextTick >>> (level * SLOT_BITS)) & SLOT_MASK);
+      cascade(level, index);
+    }
+    index = (int) (nextTick & SLOT_MASK);
+    long tick = nextTick++;
+
+    // Detach the due tasks first, so tasks rescheduled into this slot wait for its next turn
+    expiring = wheel[0][index];
+    wheel[0][index] = null;
+    for (Timeout timeout = expiring; timeout != null; timeout = timeout.next) {
+      timeout.level = EXPIRING;
+    }
+    while (expiring != null) {
+      Timeout timeout = expiring;
+      unlink(timeout);
+      size--;
+      timeout.task.run();
+      if (timeout.interval > 0 && !timeout.cancelled) {
+        timeout.deadline = tick + timeout.interval;
+        insert(timeout);
+        size++;
+      }
+    }
+  }
+
+  /**
+   * Processes every tick up to and including {@code tick}.
+   *
+   * @param tick the last tick to process, e.g. the current SimulationClock tick
+   */
+  public void advanceTo(long tick) {
+    while (nextTick <= tick) {
+      advance();
+    }
+  }
+
+  /**
+   * Returns the next tick the wheel will process.
+   *
+   * @return the next tick
+   */
+  public long getNextTick() {
+    return nextTick;
+  }
+
+  /**
+   * Returns the number of scheduled tasks.
+   *
+   * @return the number of tasks waiting to run
+   */
+  public int size() {
+    return size;
+  }
+
+  private Timeout schedule(Runnable task, long delay, long interval) {
+    if (task == null) {
+      throw new IllegalArgumentException("Task cannot be null");
+    }
+    if (delay > MAX_DELAY) {
+      throw new IllegalArgumentException("Delay exceeds " + MAX_DELAY + " ticks: " + delay);
+    }
+    // A delay of d ticks makes the task due d ticks after the last processed tick
+    Timeout timeout = new Timeout(task, interval, nextTick - 1 + Math.max(1, delay));
+    insert(timeout);
+    size++;
+    return timeout;
+  }
+
+  private void insert(Timeout timeout) {
+    long delta = timeout.deadline - nextTick;
+    int level = 0;
+    if (delta < 0) {
+      // Already due: run on the next tick processed
+      timeout.deadline = nextTick;
+    } else {
+      while (level < LEVELS - 1 && delta >= 1L << ((level + 1) * SLOT_BITS)) {
+        level++;
+      }
+    }
+    int slot = (int) ((timeout.deadline >>> (level * SLOT_BITS)) & SLOT_MASK);
+    timeout.level = level;
+    timeout.slot = slot;
+    timeout.prev = null;
+    timeout.next = wheel[level][slot];
+    if (timeout.next != null) {
+      timeout.next.prev = timeout;
+    }
+    wheel[level][slot] = timeout;
+  }
+
+  private void cascade(int level, int slot) {
+    Timeout timeout = wheel[level][slot];
+    wheel[level][slot] = null;
+    while (timeout != null) {
+      Timeout next = timeout.next;
+      insert(timeout);
+      timeout = next;
+    }
+  }
+
+  private void unlink(Timeout timeout) {
+    if (timeout.prev != null) {
+      timeout.prev.next = timeout.next;
+    } else if (timeout.level == EXPIRING) {
+      expiring = timeout.next;
+    } else {
+      wheel[timeout.level][timeout.slot] = timeout.next;
+    }
+    if (timeout.next != null) {
+      timeout.next.prev = timeout.prev;
+    }
+    timeout.prev = null;
+    timeout.next = null;
+    timeout.level = UNSCHEDULED;
+  }
+}
@@ -0,0 +1,162 @@
+package pet;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Precomputed per-species lookup tables for the deterministic mood transitions.
+ * Every health value lies in [0-100] and each strategy changes each value independently
+ * by a fixed delta followed by a clamp, so a transition is four byte-array lookups:
+ * one table per (mood, input, dimension), where the input is a step or one of the actions.
+ * The tables are generated by running the shared strategies once for every value,
+ * so they can never disagree with them. Sad steps are random and fall back to the strategy.
+ * Mood and death checks are likewise reduced to per-dimension flag lookups.
+ */
+public final class TransitionTable {
+  private static final int VALUE_COUNT = AbstractMoodStrategy.VALUE_CEILING + 1;
+  private static final int DIMENSIONS = 4;
+  private static final int HUNGER = 0;
+  private static final int HYGIENE = 1;
+  private static final int SOCIAL = 2;
+  private static final int SLEEP = 3;
+
+  private static final Action[] ACTIONS = Action.values();
+  // Inputs are the actions by ordinal, followed by a natural step
+  private static final int STEP_INPUT = ACTIONS.length;
+  private static final int INPUT_COUNT = ACTIONS.length + 1;
+
+  private static final TransitionTable[] TABLES = buildTables();
+
+  private final Species species;
+  // [(mood * INPUT_COUNT + input) * DIMENSIONS + dimension][value]; null where random
+  private final byte[][] transitions;
+  // [dimension][value]
+  private final boolean[][] sadFlags;
+  private final boolean[][] deadFlags;
+
+  private TransitionTable(Species species) {
+    this.species = species;
+    this.transitions = new byte[MoodEnum.values().length * INPUT_COUNT * DIMENSIONS][];
+    this.sadFlags = new boolean[DIMENSIONS][VALUE_COUNT];
+    this.deadFlags = new boolean[DIMENSIONS][VALUE_COUNT];
+
+    for (MoodEnum mood : MoodEnum.values()) {
+      AbstractMoodStrategy strategy = MoodStrategyRegistry.get(species, mood);
+      for (int input = 0; input < INPUT_COUNT; input++) {
+        if (input == STEP_INPUT && !(strategy instanceof HappyStrategy)) {
+          continue; // Only happy steps are deterministic
+        }
+        int row = rowOf(mood, input);
+        for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+          transitions[row + dimension] = new byte[VALUE_COUNT];
+        }
+        for (int value = 0; value < VALUE_COUNT; value++) {
+          long start = HealthStatus.pack(value, value, value, value);
+          long end = input == STEP_INPUT
+              ? strategy.applyStep(start)
+              : strategy.applyInteraction(start, ACTIONS[input]);
+          transitions[row + HUNGER][value] = (byte) HealthStatus.hungerOf(end);
+          transitions[row + HYGIENE][value] = (byte) HealthStatus.hygieneOf(end);
+          transitions[row + SOCIAL][value] = (byte) HealthStatus.socialOf(end);
+          transitions[row + SLEEP][value] = (byte) HealthStatus.sleepOf(end);
+        }
+      }
+    }
+
+    DeathThreshold threshold = species.getDeathThreshold();
+    for (int value = 0; value < VALUE_COUNT; value++) {
+      sadFlags[HUNGER][value] = value > species.getHungerSadThreshold();
+      sadFlags[HYGIENE][value] = value < species.getHygieneSadThreshold();
+      sadFlags[SOCIAL][value] = value < species.getSocialSadThreshold();
+      sadFlags[SLEEP][value] = value < species.getSleepSadThreshold();
+      deadFlags[HUNGER][value] = value > threshold.getHungerLimit();
+      deadFlags[HYGIENE][value] = value < threshold.getHygieneLimit();
+      deadFlags[SOCIAL][value] = value < threshold.getSocialLimit();
+      deadFlags[SLEEP][value] = value < threshold.getSleepLimit();
+    }
+  }
+
+  /**
+   * Returns the shared transition table for a species.
+   *
+   * @param species the species whose table is requested
+   * @return the table, built once when this class is loaded
+   */
+  public static TransitionTable of(Species species) {
+    return TABLES[species.ordinal()];
+  }
+
+  /**
+   * Applies one step. Happy steps are table lookups; sad steps use the SadStrategy.
+   *
+   * @param health the current packed health, with every value in [0-100]
+   * @param mood   the current mood
+   * @param random the source of randomness for sad steps
+   * @return the new packed health
+   */
+  public long applyStep(long health, MoodEnum mood, RandomGenerator random) {
+    int row = rowOf(mood, STEP_INPUT);
+    if (transitions[row] == null) {
+      return MoodStrategyRegistry.get(species, mood).applyStep(health, random);
+    }
+    return lookup(row, health);
+  }
+
+  /**
+   * Applies an interaction with four table lookups.
+   *
+   * @param health the current packed health, with every value in [0-100]
+   * @param mood   the current mood
+   * @param action the action being performed
+   * @return the new packed health
+   */
+  public long applyInteraction(long health, MoodEnum mood, Action action) {
+    return lookup(rowOf(mood, action.ordinal()), health);
+  }
+
+  /**
+   * Checks whether packed health values put a pet of this species in a sad mood.
+   *
+   * @param health the packed health, with every value in [0-100]
+   * @return true if any mood threshold is crossed
+   */
+  public boolean isSad(long health) {
+    return sadFlags[HUNGER][HealthStatus.hungerOf(health)]
+        | sadFlags[HYGIENE][HealthStatus.hygieneOf(health)]
+        | sadFlags[SOCIAL][HealthStatus.socialOf(health)]
+        | sadFlags[SLEEP][HealthStatus.sleepOf(health)];
+  }
+
+  /**
+   * Checks whether packed health values cross any death threshold of this species.
+   *
+   * @param health the packed health, with every value in [0-100]
+   * @return true if the pet should be dead
+   */
+  public boolean isDead(long health) {
+    return deadFlags[HUNGER][HealthStatus.hungerOf(health)]
+        | deadFlags[HYGIENE][HealthStatus.hygieneOf(health)]
+        | deadFlags[SOCIAL][HealthStatus.socialOf(health)]
+        | deadFlags[SLEEP][HealthStatus.sleepOf(health)];
+  }
+
+  private long lookup(int row, long health) {
+    return HealthStatus.pack(
+        transitions[row + HUNGER][HealthStatus.hungerOf(health)],
+        transitions[row + HYGIENE][HealthStatus.hygieneOf(health)],
+        transitions[row + SOCIAL][HealthStatus.socialOf(health)],
+        transitions[row + SLEEP][HealthStatus.sleepOf(health)]);
+  }
+
+  private static int rowOf(MoodEnum mood, int input) {
+    return (mood.ordinal() * INPUT_COUNT + input) * DIMENSIONS;
+  }
+
+  private static TransitionTable[] buildTables() {
+    Species[] species = Species.values();
+    TransitionTable[] tables = new TransitionTable[species.length];
+    for (Species type : species) {
+      tables[type.ordinal()] = new TransitionTable(type);
+    }
+    return tables;
+  }
+}
@@ -0,0 +1,280 @@
+package pet;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Runs every pet as its own simple loop on a virtual thread: wait for the next tick, apply the
+ * actions queued in the pet's mailbox, step. Each pet is confined to its thread, so interactions
+ * from other threads go through {@link #send} instead of calling {@code interactWith} directly.
+ *
+ * <p>Virtual threads need Java 21, while the project targets Java 17, so the executor is looked up
+ * reflectively. On older runtimes the runner falls back to one platform thread per pet, which is
+ * only practical for small populations: the fallback refuses more than
+ * {@link #MAX_PLATFORM_THREADS} pets, and {@link #usesVirtualThreads()} tells which mode is active.
+ *
+ * <p>For every tick the runner records jitter, the time between a tick's deadline and the moment
+ * the pet's thread actually woke up for it.
+ */
+public class VirtualThreadPetRunner implements AutoCloseable {
+  /** Largest number of pets run when the runtime has no virtual threads. */
+  public static final int MAX_PLATFORM_THREADS = 10_000;
+
+  private static final Method NEW_VIRTUAL_EXECUTOR = findVirtualExecutorFactory();
+  private static final int JITTER_BUCKETS = 64;
+
+  private final PetLoop[] loops;
+  private final long tickNanos;
+  private final ExecutorService executor;
+  private final boolean virtual;
+  // Released once every loop is submitted, so thread creation does not count as jitter
+  private final CountDownLatch started = new CountDownLatch(1);
+  private volatile boolean running;
+  private long startNanos;
+  private final LongAdder ticks = new LongAdder();
+  private final LongAdder totalJitter = new LongAdder();
+  private final LongAccumulator maxJitter = new LongAccumulator(Math::max, 0);
+  // Bucket b counts jitter values with b significant bits, for approximate percentiles
+  private final LongAdder[] jitterBuckets = new LongAdder[JITTER_BUCKETS];
+
+  /**
+   * Creates a runner; the pet loops start with {@link #start()}.
+   *
+   * @param pets      the pets to run, each on its own thread
+   * @param tickNanos the time between steps of every pet, in nanoseconds
+   * @throws IllegalArgumentException      if pets is null or tickNanos is not positive
+   * @throws UnsupportedOperationException if the runtime has no virtual threads and there are
+   *                                       more than {@link #MAX_PLATFORM_THREADS} pets
+   */
+  public VirtualThreadPetRunner(Collection<? extends PetInterface> pets, long tickNanos) {
+    if (pets == null) {
+      throw new IllegalArgumentException("Pets cannot be null");
+    }
+    if (tickNanos <= 0) {
+      throw new IllegalArgumentException("Tick length must be positive: " + tickNanos);
+    }
+    this.loops = new PetLoop[pets.size()];
+    int i = 0;
+    for (PetInterface pet : pets) {
+      loops[i++] = new PetLoop(pet);
+    }
+    this.tickNanos = tickNanos;
+    ExecutorService virtualExecutor = newVirtualThreadExecutor();
+    this.virtual = virtualExecutor != null;
+    if (!virtual && loops.length > MAX_PLATFORM_THREADS) {
+      throw new UnsupportedOperationException("Without virtual threads at most "
+          + MAX_PLATFORM_THREADS + " pets can run, one platform thread each: " + loops.length);
+    }
+    this.executor = virtual ? virtualExecutor : newPlatformThreadExecutor(loops.length);
+    for (int b = 0; b < JITTER_BUCKETS; b++) {
+      jitterBuckets[b] = new LongAdder();
+    }
+  }
+
+  /**
+   * Returns whether this runtime can create virtual threads.
+   *
+   * @return true on Java 21 or newer
+   */
+  public static boolean isVirtualThreadSupported() {
+    return NEW_VIRTUAL_EXECUTOR != null;
+  }
+
+  /**
+   * Returns whether the pet loops run on virtual threads rather than platform threads.
+   *
+   * @return true if virtual threads are used
+   */
+  public boolean usesVirtualThreads() {
+    return virtual;
+  }
+
+  /**
+   * Starts one loop per pet. All loops share the same tick deadlines, counted from the moment
+   * the last loop was submitted.
+   *
+   * @throws IllegalStateException if the runner was already started
+   */
+  public synchronized void start() {
+    if (started.getCount() == 0) {
+      throw new IllegalStateException("Runner already started");
+    }
+    running = true;
+    for (PetLoop loop : loops) {
+      executor.execute(loop);
+    }
+    startNanos = System.nanoTime();
+    started.countDown();
+  }
+
+  /**
+   * Queues an action for a pet; its own thread applies it before the pet's next step.
+   *
+   * @param index  the pet's index in the collection given to the constructor
+   * @param action the action to apply
+   * @throws IndexOutOfBoundsException if index is out of range
+   * @throws IllegalArgumentException  if action is null
+   */
+  public void send(int index, Action action) {
+    loops[index].mailbox.offer(action);
+  }
+
+  /**
+   * Stops every pet loop and waits for the threads to finish.
+   */
+  @Override
+  public void close() {
+    running = false;
+    executor.shutdownNow();
+    try {
+      executor.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Returns the number of pets run.
+   *
+   * @return the pet count
+   */
+  public int getPetCount() {
+    return loops.length;
+  }
+
+  /**
+   * Returns the total number of pet steps so far.
+   *
+   * @return the step count
+   */
+  public long getTicks() {
+    return ticks.sum();
+  }
+
+  /**
+   * Returns the mean delay between a tick's deadline and the pet waking up for it.
+   *
+   * @return the mean jitter in nanoseconds, or 0 before the first tick
+   */
+  public long getMeanJitterNanos() {
+    long count = ticks.sum();
+    return count == 0 ? 0 : totalJitter.sum() / count;
+  }
+
+  /**
+   * Returns the largest delay between a tick's deadline and the pet waking up for it.
+   *
+   * @return the maximum jitter in nanoseconds
+   */
+  public long getMaxJitterNanos() {
+    return maxJitter.get();
+  }
+
+  /**
+   * Returns an upper bound for a jitter percentile, accurate to a factor of two and never above
+   * the maximum jitter.
+   *
+   * @param fraction the percentile as a fraction, e.g. 0.99
+   * @return the upper bound of the bucket holding the percentile, in nanoseconds
+   * @throws IllegalArgumentException if fraction is not between 0 and 1
+   */
+  public long getJitterPercentileNanos(double fraction) {
+    if (!(fraction >= 0 && fraction <= 1)) {
+      throw new IllegalArgumentException("Fraction must be between 0 and 1: " + fraction);
+    }
+    long[] counts = new long[JITTER_BUCKETS];
+    long total = 0;
+    for (int b = 0; b < JITTER_BUCKETS; b++) {
+      counts[b] = jitterBuckets[b].sum();
+      total += counts[b];
+    }
+    long target = (long) Math.ceil(fraction * total);
+    long seen = 0;
+    for (int b = 0; b < JITTER_BUCKETS; b++) {
+      seen += counts[b];
+      if (seen >= target && counts[b] > 0) {
+        return b == 0 ? 0 : Math.min((1L << b) - 1, maxJitter.get());
+      }
+    }
+    return 0;
+  }
+
+  private void recordJitter(long jitterNanos) {
+    ticks.increment();
+    totalJitter.add(jitterNanos);
+    maxJitter.accumulate(jitterNanos);
+    jitterBuckets[JITTER_BUCKETS - Long.numberOfLeadingZeros(jitterNanos)].increment();
+  }
+
+  private static ExecutorService newVirtualThreadExecutor() {
+    if (NEW_VIRTUAL_EXECUTOR == null) {
+      return null;
+    }
+    try {
+      return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+  private static ExecutorService newPlatformThreadExecutor(int threads) {
+    return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+      Thread thread = new Thread(runnable, "pet-loop");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private static Method findVirtualExecutorFactory() {
+    try {
+      return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  /**
+   * The lifecycle of one pet, run on its own thread.
+   */
+  private final class PetLoop implements Runnable {
+    private final PetInterface pet;
+    private final ActionMailbox mailbox = new ActionMailbox();
+    private final Consumer<Action> apply;
+
+    private PetLoop(PetInterface pet) {
+      this.pet = pet;
+      this.apply = pet::interactWith;
+    }
+
+    @Override
+    public void run() {
+      try {
+        started.await();
+      } catch (InterruptedException e) {
+        return;
+      }
+      long deadline = startNanos;
+      while (running) {
+        deadline += tickNanos;
+        long now;
+        while ((now = System.nanoTime()) < deadline) {
+          LockSupport.parkNanos(deadline - now);
+          if (!running) {
+            return;
+          }
+        }
+        recordJitter(now - deadline);
+        mailbox.drain(apply);
+        pet.step();
+      }
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+
+/**
+ * Tests for the ActionMailbox.
+ * Every offered action must be drained exactly once and in order, even while
+ * producers and the consumer run concurrently.
+ */
+public class ActionMailboxTest {
+
+  @Test
+  public void testDrainsInOrder() {
+    ActionMailbox mailbox = new ActionMailbox();
+    assertTrue(mailbox.isEmpty());
+    mailbox.offer(Action.FEED);
+    mailbox.offer(Action.PLAY);
+    mailbox.offer(Action.CLEAN);
+
+    List<Action> drained = new ArrayList<>();
+    assertEquals(3, mailbox.drain(drained::add));
+    assertEquals(List.of(Action.FEED, Action.PLAY, Action.CLEAN), drained);
+    assertTrue(mailbox.isEmpty());
+    assertEquals(0, mailbox.drain(drained::add));
+
+    mailbox.offer(Action.SLEEP);
+    assertEquals(1, mailbox.drain(drained::add));
+    assertEquals(Action.SLEEP, drained.get(3));
+  }
+
+  @Test
+  public void testConcurrentProducersLoseNothing() throws InterruptedException {
+    int producers = 4;
+    int perProducer = 50_000;
+    ActionMailbox mailbox = new ActionMailbox();
+    CountDownLatch go = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      // Each producer sends only its own action, so the counts show which producer lost one
+      Action action = Action.values()[p];
+      Thread thread = new Thread(() -> {
+        try {
+          go.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        for (int i = 0; i < perProducer; i++) {
+          mailbox.offer(action);
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+
+    int[] counts = new int[Action.values().length];
+    go.countDown();
+    boolean producing = true;
+    while (producing) {
+      producing = false;
+      for (Thread thread : threads) {
+        producing |= thread.isAlive();
+      }
+      mailbox.drain(action -> counts[action.ordinal()]++);
+    }
+    mailbox.drain(action -> counts[action.ordinal()]++);
+
+    for (int p = 0; p < producers; p++) {
+      assertEquals(perProducer, counts[p]);
+    }
+    assertTrue(mailbox.isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullAction() {
+    new ActionMailbox().offer(null);
+  }
+}
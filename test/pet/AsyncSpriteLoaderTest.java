@@ -0,0 +1,101 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.ImageIcon;
+import org.junit.Test;
+
+/**
+ * Tests for the AsyncSpriteLoader.
+ * Decodes run only on the given executor, and a sprite is never decoded twice at the same time.
+ */
+public class AsyncSpriteLoaderTest {
+  private final Queue<Runnable> tasks = new ArrayDeque<>();
+  private final AtomicInteger decodes = new AtomicInteger();
+
+  @Test
+  public void testDecodeRunsOnExecutor() throws Exception {
+    AsyncSpriteLoader loader = new AsyncSpriteLoader(this::decode, tasks::add);
+    CompletableFuture<ImageIcon> future = loader.load("happyFox");
+
+    assertFalse(future.isDone());
+    assertEquals(0, decodes.get());
+    runAll();
+    assertEquals(1, decodes.get());
+    assertEquals(7, future.get().getIconWidth());
+  }
+
+  @Test
+  public void testConcurrentRequestsShareDecode() {
+    AsyncSpriteLoader loader = new AsyncSpriteLoader(this::decode, tasks::add);
+    CompletableFuture<ImageIcon> first = loader.load("sadFox");
+    CompletableFuture<ImageIcon> second = loader.load("sadFox");
+
+    assertSame(first, second);
+    assertEquals(1, loader.getPendingCount());
+    runAll();
+    assertEquals(0, loader.getPendingCount());
+
+    // A finished decode is not remembered by the loader; the decoder's cache answers it
+    loader.load("sadFox");
+    runAll();
+    assertEquals(2, decodes.get());
+  }
+
+  @Test
+  public void testWarmStartsEveryDecode() {
+    AsyncSpriteLoader loader = new AsyncSpriteLoader(this::decode, tasks::add);
+    loader.warm(Arrays.asList("happyPet", "sadPet", "happyPet"));
+
+    assertEquals(2, loader.getPendingCount());
+    runAll();
+    assertEquals(2, decodes.get());
+  }
+
+  @Test
+  public void testFailedDecodeCompletesExceptionally() throws InterruptedException {
+    AsyncSpriteLoader loader = new AsyncSpriteLoader(name -> {
+      throw new IOException("missing " + name);
+    }, tasks::add);
+    CompletableFuture<ImageIcon> future = loader.load("noSuchSprite");
+    runAll();
+
+    assertTrue(future.isCompletedExceptionally());
+    assertEquals(0, loader.getPendingCount());
+    try {
+      future.get();
+      fail("Expected the decode failure");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof IOException);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullExecutor() {
+    new AsyncSpriteLoader(this::decode, null);
+  }
+
+  private ImageIcon decode(String name) {
+    decodes.incrementAndGet();
+    return new ImageIcon(new BufferedImage(7, 9, BufferedImage.TYPE_INT_ARGB));
+  }
+
+  private void runAll() {
+    Runnable task;
+    while ((task = tasks.poll()) != null) {
+      task.run();
+    }
+  }
+}
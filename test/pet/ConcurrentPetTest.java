@@ -0,0 +1,128 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Tests for the ConcurrentPet.
+ * Interactions must be deferred to the stepping thread, applied in order before each step,
+ * and never lost under concurrent producers.
+ */
+public class ConcurrentPetTest {
+
+  @Test
+  public void testActionsApplyBeforeStep() {
+    Pet expected = new Pet();
+    expected.interactWith(Action.FEED);
+    expected.interactWith(Action.PLAY);
+    expected.step();
+
+    ConcurrentPet pet = new ConcurrentPet(new Pet());
+    pet.interactWith(Action.FEED);
+    pet.interactWith(Action.PLAY);
+    // Nothing changes until the owner drains the mailbox
+    assertEquals(new HealthStatus(50, 50, 50, 50), pet.getHealth());
+    pet.step();
+    assertEquals(expected.getHealth(), pet.getHealth());
+    assertEquals(expected.getMood(), pet.getMood());
+  }
+
+  @Test
+  public void testApplyPendingActions() {
+    ConcurrentPet pet = new ConcurrentPet(new Pet());
+    assertEquals(0, pet.applyPendingActions());
+    pet.interactWith(Action.CLEAN);
+    assertEquals(1, pet.applyPendingActions());
+    assertTrue(pet.getHealth().getHygiene() > 50);
+    assertFalse(pet.isDead());
+  }
+
+  @Test
+  public void testNoLostUpdatesUnderContention() throws InterruptedException {
+    CountingPet counter = new CountingPet();
+    ConcurrentPet pet = new ConcurrentPet(counter);
+    int producers = 4;
+    int perProducer = 25_000;
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      Thread thread = new Thread(() -> {
+        for (int i = 0; i < perProducer; i++) {
+          pet.interactWith(Action.PLAY);
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    // This thread owns the pet and keeps stepping while the producers run
+    boolean producing = true;
+    while (producing) {
+      pet.step();
+      producing = false;
+      for (Thread thread : threads) {
+        producing |= thread.isAlive();
+      }
+    }
+    pet.step();
+
+    assertEquals(producers * perProducer, counter.interactions);
+    assertTrue(counter.steps > 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullPet() {
+    new ConcurrentPet(null);
+  }
+
+  /**
+   * A pet that only counts calls; it is not thread-safe, so any call off the owner
+   * thread would show up as a lost update.
+   */
+  private static final class CountingPet implements PetInterface {
+    private int interactions;
+    private int steps;
+
+    @Override
+    public void step() {
+      steps++;
+    }
+
+    @Override
+    public void fastForward(int steps) {
+      this.steps += steps;
+    }
+
+    @Override
+    public void interactWith(Action action) {
+      interactions++;
+    }
+
+    @Override
+    public HealthStatus getHealth() {
+      return new HealthStatus(50, 50, 50, 50);
+    }
+
+    @Override
+    public MoodEnum getMood() {
+      return MoodEnum.HAPPY;
+    }
+
+    @Override
+    public void setMood(MoodEnum mood) {
+    }
+
+    @Override
+    public boolean isDead() {
+      return false;
+    }
+
+    @Override
+    public DeathThreshold getDeathThreshold() {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+/**
+ * Tests for AbstractPet.fastForward.
+ * Every fast-forward must end in exactly the same state as calling step() the same number
+ * of times with the same random seed.
+ */
+public class FastForwardTest {
+
+  @Test
+  public void testFastForwardMatchesSteppingForAllSpecies() {
+    int[] stepCounts = {0, 1, 2, 5, 6, 7, 13, 20, 40, 1000};
+    for (Species species : Species.values()) {
+      for (int steps : stepCounts) {
+        AbstractPet stepped = createPet(species, steps);
+        AbstractPet jumped = createPet(species, steps);
+
+        for (int i = 0; i < steps; i++) {
+          stepped.step();
+        }
+        jumped.fastForward(steps);
+
+        assertSameState(species + " after " + steps + " steps", stepped, jumped);
+      }
+    }
+  }
+
+  @Test
+  public void testFastForwardFromManyStartingPoints() {
+    for (Species species : Species.values()) {
+      for (int start = 0; start <= 100; start += 5) {
+        AbstractPet stepped = createPet(species, start);
+        AbstractPet jumped = createPet(species, start);
+        stepped.setHealthStateAndUpdateState(100 - start, start, start, start);
+        jumped.setHealthStateAndUpdateState(100 - start, start, start, start);
+
+        for (int i = 0; i < 30; i++) {
+          stepped.step();
+        }
+        jumped.fastForward(30);
+
+        assertSameState(species + " from " + start, stepped, jumped);
+      }
+    }
+  }
+
+  @Test
+  public void testFastForwardHonorsManualMood() {
+    // Forced happy while health says sad: the first step must flip the mood
+    Fox forcedHappy = new Fox();
+    forcedHappy.setHealthStateAndUpdateState(75, 50, 50, 50);
+    forcedHappy.setMood(MoodEnum.HAPPY);
+    forcedHappy.fastForward(1);
+    assertEquals(new HealthStatus(78, 48, 48, 48), forcedHappy.getHealth());
+    assertEquals(MoodEnum.SAD, forcedHappy.getMood());
+
+    // Forced sad while healthy: the first step uses the sad strategy
+    Fox forcedSad = new Fox();
+    forcedSad.setMood(MoodEnum.SAD);
+    forcedSad.fastForward(1);
+    assertEquals(55, forcedSad.getHealth().getHunger()); // 50 + 5
+  }
+
+  @Test
+  public void testFastForwardZeroStepsChangesNothing() {
+    Snake snake = new Snake();
+    snake.fastForward(0);
+    assertEquals(new HealthStatus(50, 50, 50, 50), snake.getHealth());
+    assertEquals(MoodEnum.HAPPY, snake.getMood());
+    assertFalse(snake.isDead());
+  }
+
+  @Test
+  public void testFastForwardStopsAtDeath() {
+    Pet pet = new Pet();
+    pet.fastForward(Integer.MAX_VALUE);
+    assertTrue(pet.isDead());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeSteps() {
+    new Pet().fastForward(-1);
+  }
+
+  private AbstractPet createPet(Species species, long seed) {
+    AbstractPet pet = species.createPet();
+    pet.setRandomSource(new SplittableRandom(seed));
+    return pet;
+  }
+
+  private void assertSameState(String message, AbstractPet expected, AbstractPet actual) {
+    assertEquals(message, expected.getHealth(), actual.getHealth());
+    assertEquals(message, expected.getMood(), actual.getMood());
+    assertEquals(message, expected.isDead(), actual.isDead());
+  }
+}
@@ -4,6 +4,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.SplittableRandom;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -213,6 +215,43 @@ public class FoxTest {
             fox.getHealth().getSleep() <= 47); // 50 - (3 + 0-3 random)
   }
 
+  @Test
+  public void testSeededStepInSadMoodIsExact() {
+    // A seeded generator makes the random part of a sad step predictable
+    fox.setHealthStateAndUpdateState(50, 50, 50, 50);
+    fox.setMood(MoodEnum.SAD);
+    fox.setRandomSource(new SplittableRandom(42));
+    SplittableRandom expected = new SplittableRandom(42);
+
+    fox.step();
+
+    assertEquals(55, fox.getHealth().getHunger()); // 50 + 5
+    assertEquals(50 - (3 + expected.nextInt(4)), fox.getHealth().getHygiene());
+    assertEquals(50 - (3 + expected.nextInt(4)), fox.getHealth().getSocial());
+    assertEquals(50 - (3 + expected.nextInt(4)), fox.getHealth().getSleep());
+  }
+
+  @Test
+  public void testSameSeedReproducesRun() {
+    Fox first = new Fox();
+    Fox second = new Fox();
+    first.setRandomSource(new SplittableRandom(7));
+    second.setRandomSource(new SplittableRandom(7));
+
+    while (!first.isDead()) {
+      first.step();
+      second.step();
+      assertEquals(first.getHealth(), second.getHealth());
+      assertEquals(first.getMood(), second.getMood());
+    }
+    assertTrue(second.isDead());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullRandomSource() {
+    fox.setRandomSource(null);
+  }
+
   // Mood transition tests
 
   @Test
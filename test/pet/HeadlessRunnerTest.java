@@ -0,0 +1,118 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+/**
+ * Tests for the HeadlessRunner.
+ * Populations must follow the requested species mix and every tick must be recorded.
+ */
+public class HeadlessRunnerTest {
+
+  @Test
+  public void testPopulationFollowsMix() {
+    List<AbstractPet> pets = HeadlessRunner.createPopulation(400,
+        HeadlessRunner.parseSpeciesMix("fox=2, SNAKE=1,PET=1"));
+
+    Map<Species, Integer> counts = new EnumMap<>(Species.class);
+    for (AbstractPet pet : pets) {
+      counts.merge(pet.getSpecies(), 1, Integer::sum);
+    }
+    assertEquals(400, pets.size());
+    assertEquals(Integer.valueOf(200), counts.get(Species.FOX));
+    assertEquals(Integer.valueOf(100), counts.get(Species.SNAKE));
+    assertEquals(Integer.valueOf(100), counts.get(Species.PET));
+    // Interleaved rather than grouped
+    assertEquals(Species.FOX, pets.get(0).getSpecies());
+    assertTrue(pets.get(1).getSpecies() != pets.get(2).getSpecies());
+  }
+
+  @Test
+  public void testMissingSpeciesAreNotCreated() {
+    for (AbstractPet pet : HeadlessRunner.createPopulation(10,
+        HeadlessRunner.parseSpeciesMix("SNAKE=3"))) {
+      assertEquals(Species.SNAKE, pet.getSpecies());
+    }
+  }
+
+  @Test
+  public void testManualTicksAreRecorded() {
+    List<AbstractPet> pets = HeadlessRunner.createPopulation(50,
+        HeadlessRunner.parseSpeciesMix("PET=1"));
+    try (HeadlessRunner runner = new HeadlessRunner(pets, 5)) {
+      runner.tick();
+      runner.tick();
+
+      RunnerStats stats = runner.getStats();
+      assertEquals(2, stats.getTicks());
+      assertEquals(100, stats.getPetSteps());
+      assertTrue(stats.getMaxLatencyNanos() >= stats.getMedianLatencyNanos());
+      assertEquals(200_000_000L, runner.getTickIntervalNanos());
+    }
+    assertEquals(new HealthStatus(56, 46, 46, 46), pets.get(0).getHealth());
+  }
+
+  @Test
+  public void testScheduledTicksRun() throws InterruptedException {
+    List<AbstractPet> pets = HeadlessRunner.createPopulation(100,
+        HeadlessRunner.parseSpeciesMix("FOX=1,SNAKE=1"));
+    HeadlessRunner runner = new HeadlessRunner(pets, 200);
+    try (runner) {
+      runner.start();
+      long deadline = System.currentTimeMillis() + 10_000;
+      while (runner.getStats().getTicks() < 5 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(5);
+      }
+    }
+
+    // Read once the runner is closed, so no tick completes between the two counters
+    RunnerStats stats = runner.getStats();
+    assertTrue(stats.getTicks() >= 5);
+    assertEquals(stats.getTicks() * 100, stats.getPetSteps());
+    assertTrue(stats.getStepsPerSecond() > 0);
+  }
+
+  @Test
+  public void testFailingTickDoesNotStopTheSchedule() throws InterruptedException {
+    List<AbstractPet> pets = List.of(new Fox() {
+      @Override
+      public void step() {
+        throw new IllegalStateException("broken pet");
+      }
+    });
+    HeadlessRunner runner = new HeadlessRunner(pets, 200);
+    try (runner) {
+      runner.start();
+      long deadline = System.currentTimeMillis() + 10_000;
+      while (runner.getStats().getFailedTicks() < 3 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(5);
+      }
+    }
+
+    RunnerStats stats = runner.getStats();
+    assertTrue(stats.getFailedTicks() >= 3);
+    assertEquals(0, stats.getTicks());
+    assertTrue(stats.toString().endsWith(" failed=" + stats.getFailedTicks()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownSpecies() {
+    HeadlessRunner.parseSpeciesMix("DRAGON=1");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAllWeightsZero() {
+    HeadlessRunner.createPopulation(5, HeadlessRunner.parseSpeciesMix("FOX=0"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidTickRate() {
+    new HeadlessRunner(HeadlessRunner.createPopulation(1,
+        HeadlessRunner.parseSpeciesMix("PET=1")), 0);
+  }
+}
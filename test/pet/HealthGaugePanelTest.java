@@ -0,0 +1,92 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the HealthGaugePanel.
+ * Only gauges whose value changed may be repainted, and gauges must not overlap.
+ */
+public class HealthGaugePanelTest {
+  private final List<Rectangle> repaints = new ArrayList<>();
+  private HealthGaugePanel panel;
+
+  @Before
+  public void setUp() {
+    panel = new HealthGaugePanel(new Font("Courier", Font.BOLD, 18), Color.BLACK, Color.MAGENTA,
+        Color.WHITE) {
+      @Override
+      public void repaint(Rectangle r) {
+        repaints.add(r);
+      }
+    };
+    panel.setSize(600, 100);
+  }
+
+  @Test
+  public void testFirstUpdatePaintsEveryGauge() {
+    panel.setHealth(new HealthStatus(50, 50, 50, 50));
+    assertEquals(HealthGaugePanel.GAUGE_COUNT, repaints.size());
+  }
+
+  @Test
+  public void testOnlyChangedGaugesRepaint() {
+    panel.setHealth(new HealthStatus(50, 50, 50, 50));
+    repaints.clear();
+
+    panel.setHealth(new HealthStatus(50, 50, 50, 50));
+    assertTrue(repaints.isEmpty());
+
+    panel.setHealth(new HealthStatus(50, 48, 50, 47));
+    assertEquals(2, repaints.size());
+    assertEquals(panel.getGaugeBounds(1), repaints.get(0));
+    assertEquals(panel.getGaugeBounds(3), repaints.get(1));
+    assertEquals(48, panel.getValue(1));
+    assertEquals(47, panel.getValue(3));
+  }
+
+  @Test
+  public void testGaugesDoNotOverlap() {
+    for (int i = 0; i < HealthGaugePanel.GAUGE_COUNT; i++) {
+      for (int j = i + 1; j < HealthGaugePanel.GAUGE_COUNT; j++) {
+        assertFalse(panel.getGaugeBounds(i).intersects(panel.getGaugeBounds(j)));
+      }
+    }
+  }
+
+  @Test
+  public void testBarLengthFollowsValue() {
+    panel.setHealth(new HealthStatus(100, 0, 50, 50));
+    BufferedImage image = new BufferedImage(600, 100, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = image.createGraphics();
+    panel.paint(g);
+    g.dispose();
+
+    assertTrue(countColor(image, panel.getGaugeBounds(0), Color.MAGENTA)
+        > countColor(image, panel.getGaugeBounds(2), Color.MAGENTA));
+    assertEquals(0, countColor(image, panel.getGaugeBounds(1), Color.MAGENTA));
+  }
+
+  private static int countColor(BufferedImage image, Rectangle bounds, Color color) {
+    int count = 0;
+    for (int y = bounds.y; y < bounds.y + bounds.height; y++) {
+      for (int x = bounds.x; x < bounds.x + bounds.width; x++) {
+        if (image.getRGB(x, y) == color.getRGB()) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+}
@@ -118,5 +118,44 @@ public class HealthStatusTest {
     assertNotEquals(status1.hashCode(), status2.hashCode());
   }
 
+  @Test
+  public void testPackRoundTrip() {
+    long packed = HealthStatus.pack(10, 20, 30, 40);
+    assertEquals(10, HealthStatus.hungerOf(packed));
+    assertEquals(20, HealthStatus.hygieneOf(packed));
+    assertEquals(30, HealthStatus.socialOf(packed));
+    assertEquals(40, HealthStatus.sleepOf(packed));
+    assertEquals(new HealthStatus(10, 20, 30, 40), HealthStatus.fromPacked(packed));
+  }
+
+  @Test
+  public void testToPackedMatchesPack() {
+    HealthStatus health = new HealthStatus(0, 100, 55, 1);
+    assertEquals(HealthStatus.pack(0, 100, 55, 1), health.toPacked());
+    assertEquals(health, HealthStatus.fromPacked(health.toPacked()));
+  }
+
+  @Test
+  public void testPackKeepsNegativeValues() {
+    // Values outside 0-100 are never produced by strategies, but must not corrupt other lanes
+    long packed = HealthStatus.pack(-1, 200, -300, 0);
+    assertEquals(-1, HealthStatus.hungerOf(packed));
+    assertEquals(200, HealthStatus.hygieneOf(packed));
+    assertEquals(-300, HealthStatus.socialOf(packed));
+    assertEquals(0, HealthStatus.sleepOf(packed));
+    long extremes = HealthStatus.pack(Short.MIN_VALUE, Short.MAX_VALUE, 0, 0);
+    assertEquals(Short.MIN_VALUE, HealthStatus.hungerOf(extremes));
+    assertEquals(Short.MAX_VALUE, HealthStatus.hygieneOf(extremes));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPackRejectsValuesOutsideLane() {
+    HealthStatus.pack(50, 40000, 50, 50);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSetHealthRejectsValuesOutsideLane() {
+    new Pet().setHealthStateAndUpdateState(50, 50, 50, Short.MIN_VALUE - 1);
+  }
 
-}
\ No newline at end of file
+}
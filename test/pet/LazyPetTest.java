@@ -0,0 +1,94 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for LazyPet and SimulationClock.
+ * A lazily evaluated pet must always read the same as a pet stepped once per clock tick.
+ */
+public class LazyPetTest {
+  private SimulationClock clock;
+  private Fox eager;
+  private LazyPet lazy;
+
+  /**
+   * Creates an eagerly stepped fox and a lazily evaluated fox with the same seed.
+   */
+  @Before
+  public void setUp() {
+    clock = new SimulationClock();
+    eager = new Fox();
+    eager.setRandomSource(new SplittableRandom(3));
+    Fox inner = new Fox();
+    inner.setRandomSource(new SplittableRandom(3));
+    lazy = new LazyPet(inner, clock);
+  }
+
+  @Test
+  public void testAdvancingClockDoesNotEvaluatePet() {
+    clock.advance(500);
+    assertEquals(0, lazy.getLastEvaluatedTick());
+  }
+
+  @Test
+  public void testReadCatchesUpToClock() {
+    for (int tick = 1; tick <= 40; tick++) {
+      clock.advance();
+      eager.step();
+      if (tick % 7 == 0) {
+        assertEquals(eager.getHealth(), lazy.getHealth());
+        assertEquals(eager.getMood(), lazy.getMood());
+        assertEquals(eager.isDead(), lazy.isDead());
+        assertEquals(tick, lazy.getLastEvaluatedTick());
+      }
+    }
+  }
+
+  @Test
+  public void testInteractionAppliesAfterCatchUp() {
+    clock.advance(5);
+    eager.fastForward(5);
+
+    lazy.interactWith(Action.FEED);
+    eager.interactWith(Action.FEED);
+
+    assertEquals(eager.getHealth(), lazy.getHealth());
+  }
+
+  @Test
+  public void testStepAddsOneExtraStep() {
+    clock.advance(3);
+    lazy.step();
+    eager.fastForward(4);
+    assertEquals(eager.getHealth(), lazy.getHealth());
+  }
+
+  @Test
+  public void testLongIdlePeriodEndsInDeath() {
+    clock.advance(10L * Integer.MAX_VALUE);
+    assertTrue(lazy.isDead());
+    assertEquals(clock.currentTick(), lazy.getLastEvaluatedTick());
+  }
+
+  @Test
+  public void testPetCreatedLaterStartsAtCurrentTick() {
+    clock.advance(100);
+    LazyPet late = new LazyPet(new Snake(), clock);
+    assertEquals(new HealthStatus(50, 50, 50, 50), late.getHealth());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeClockAdvance() {
+    clock.advance(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullClock() {
+    new LazyPet(new Pet(), null);
+  }
+}
@@ -0,0 +1,131 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for MappedPetStore.
+ * Pets in the mapped file must follow the same rules as PetPopulation and survive
+ * closing and reopening the file unchanged.
+ */
+public class MappedPetStoreTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testStepsLikePetPopulation() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("pets.map");
+    PetPopulation population = new PetPopulation();
+    population.setRandomSource(new SplittableRandom(7));
+    try (MappedPetStore store = new MappedPetStore(file, 4)) {
+      store.setRandomSource(new SplittableRandom(7));
+      // More pets than the initial capacity, so the mapping has to grow
+      for (int i = 0; i < 30; i++) {
+        Species type = Species.values()[i % Species.values().length];
+        assertEquals(population.add(type), store.add(type));
+      }
+      assertTrue(store.capacity() >= 30);
+      for (int step = 0; step < 40; step++) {
+        population.stepAll();
+        store.stepAll();
+        population.interactWith(step % 30, Action.values()[step % 4]);
+        store.interactWith(step % 30, Action.values()[step % 4]);
+      }
+      for (int i = 0; i < 30; i++) {
+        assertEquals(population.getHealth(i), store.getHealth(i));
+        assertEquals(population.getMood(i), store.getMood(i));
+        assertEquals(population.isDead(i), store.isDead(i));
+        assertEquals(population.getSpecies(i), store.getSpecies(i));
+      }
+    }
+  }
+
+  @Test
+  public void testReopenKeepsPets() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("pets.map");
+    Fox fox = new Fox();
+    fox.interactWith(Action.PLAY);
+    HealthStatus stepped;
+    try (MappedPetStore store = new MappedPetStore(file)) {
+      store.add(Species.SNAKE);
+      store.add(fox);
+      store.stepAll();
+      stepped = store.getHealth(0);
+    }
+
+    try (MappedPetStore store = new MappedPetStore(file)) {
+      assertEquals(2, store.size());
+      assertEquals(Species.SNAKE, store.getSpecies(0));
+      assertEquals(stepped, store.getHealth(0));
+      assertEquals(Species.FOX, store.getSpecies(1));
+      // Appending after reattaching continues at the next record
+      assertEquals(2, store.add(Species.PET));
+    }
+    try (MappedPetStore store = new MappedPetStore(file, 10_000)) {
+      assertEquals(3, store.size());
+      assertEquals(10_000, store.capacity());
+      assertEquals(MappedPetStore.HEADER_BYTES + 10_000L * MappedPetStore.RECORD_BYTES,
+          Files.size(file));
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testRejectsOtherFiles() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("other.bin");
+    Files.write(file, new byte[MappedPetStore.HEADER_BYTES + MappedPetStore.RECORD_BYTES]);
+    new MappedPetStore(file).close();
+  }
+
+  @Test
+  public void testAddClampsHealthOutsideByteRange() throws IOException {
+    Snake snake = new Snake();
+    snake.setHealthStateAndUpdateState(200, -5, 50, 50);
+    try (MappedPetStore store = new MappedPetStore(folder.getRoot().toPath().resolve("p"))) {
+      int index = store.add(snake);
+      assertEquals(new HealthStatus(100, 0, 50, 50), store.getHealth(index));
+      assertTrue(store.isDead(index));
+    }
+  }
+
+  @Test
+  public void testRejectsCorruptRecords() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("pets.map");
+    try (MappedPetStore store = new MappedPetStore(file)) {
+      store.add(Species.PET);
+      store.add(Species.FOX);
+    }
+    byte[] valid = Files.readAllBytes(file);
+    int second = MappedPetStore.HEADER_BYTES + MappedPetStore.RECORD_BYTES;
+    // Hunger, species, mood and dead flag of the second pet
+    int[][] corruptions = {{0, 101}, {0, -1}, {4, Species.values().length}, {4, -128},
+        {5, MoodEnum.values().length}, {6, 2}};
+    for (int[] corruption : corruptions) {
+      byte[] bytes = valid.clone();
+      bytes[second + corruption[0]] = (byte) corruption[1];
+      Files.write(file, bytes);
+      try {
+        new MappedPetStore(file).close();
+        fail("Accepted byte " + corruption[1] + " at field " + corruption[0]);
+      } catch (IOException e) {
+        assertTrue(e.getMessage().startsWith("Corrupt record for pet 1"));
+      }
+    }
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testIndexOutOfRange() throws IOException {
+    try (MappedPetStore store = new MappedPetStore(folder.getRoot().toPath().resolve("p"))) {
+      store.add(Species.PET);
+      store.getMood(1);
+    }
+  }
+}
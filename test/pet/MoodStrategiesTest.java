@@ -4,6 +4,8 @@ package pet;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.SplittableRandom;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -40,6 +42,20 @@ public class MoodStrategiesTest {
     initialHealth = new HealthStatus(50, 50, 50, 50);
   }
 
+  @Test
+  public void testObjectApiClampsValuesOutsidePackedRange() {
+    // The HealthStatus overloads clamp changed values and pass untouched ones through, as they
+    // did before health was packed into 16-bit lanes
+    HealthStatus extreme = new HealthStatus(40_000, -40_000, 50, 1_000_000);
+    assertEquals(new HealthStatus(100, 0, 48, 100), happyStrategy.applyStep(extreme));
+    assertEquals(new HealthStatus(40_000, 0, 50, 1_000_000),
+        happyStrategy.applyInteraction(new HealthStatus(40_000, -40, 50, 1_000_000),
+            Action.CLEAN));
+    assertEquals(new HealthStatus(40_000, 7, 50, 1_000_000),
+        happyStrategy.applyInteraction(new HealthStatus(40_000, 0, 50, 1_000_000),
+            Action.CLEAN));
+  }
+
   // Happy strategy tests
 
   @Test
@@ -296,4 +312,33 @@ public class MoodStrategiesTest {
     HealthStatus sadResult = sadStrategy.applyStep(initialHealth);
     assertEquals("Sad step should increase hunger to 53", 53, sadResult.getHunger());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testPackedStepMatchesObjectStep() {
+    long packed = happyStrategy.applyStep(initialHealth.toPacked());
+    assertEquals(happyStrategy.applyStep(initialHealth), HealthStatus.fromPacked(packed));
+  }
+
+  @Test
+  public void testPackedInteractionMatchesObjectInteraction() {
+    long packed = initialHealth.toPacked();
+    for (Action action : Action.values()) {
+      assertEquals(happyStrategy.applyInteraction(initialHealth, action),
+          HealthStatus.fromPacked(happyStrategy.applyInteraction(packed, action)));
+      assertEquals(sadStrategy.applyInteraction(initialHealth, action),
+          HealthStatus.fromPacked(sadStrategy.applyInteraction(packed, action)));
+    }
+  }
+
+  @Test
+  public void testSadStrategySeededStepIsExact() {
+    SplittableRandom expected = new SplittableRandom(123);
+    long result = sadStrategy.applyStep(initialHealth.toPacked(), new SplittableRandom(123));
+
+    assertEquals(53, HealthStatus.hungerOf(result)); // 50 + 3
+    assertEquals(50 - (2 + expected.nextInt(4)), HealthStatus.hygieneOf(result));
+    assertEquals(50 - (2 + expected.nextInt(4)), HealthStatus.socialOf(result));
+    assertEquals(50 - (2 + expected.nextInt(4)), HealthStatus.sleepOf(result));
+  }
+
+}
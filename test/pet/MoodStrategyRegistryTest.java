@@ -0,0 +1,72 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for the shared MoodStrategyRegistry.
+ * Verifies that strategies are built once and reused by every pet and every step.
+ */
+public class MoodStrategyRegistryTest {
+
+  @Test
+  public void testRegistryReturnsSameInstance() {
+    for (Species species : Species.values()) {
+      for (MoodEnum mood : MoodEnum.values()) {
+        assertSame(MoodStrategyRegistry.get(species, mood),
+            MoodStrategyRegistry.get(species, mood));
+      }
+    }
+  }
+
+  @Test
+  public void testStrategyTypeMatchesMood() {
+    for (Species species : Species.values()) {
+      assertTrue(MoodStrategyRegistry.get(species, MoodEnum.HAPPY) instanceof HappyStrategy);
+      assertTrue(MoodStrategyRegistry.get(species, MoodEnum.SAD) instanceof SadStrategy);
+    }
+  }
+
+  @Test
+  public void testSpeciesHaveDistinctStrategies() {
+    assertNotSame(MoodStrategyRegistry.get(Species.FOX, MoodEnum.HAPPY),
+        MoodStrategyRegistry.get(Species.SNAKE, MoodEnum.HAPPY));
+  }
+
+  @Test
+  public void testRegistryUsesSpeciesRates() {
+    HealthStatus initial = new HealthStatus(50, 50, 50, 50);
+
+    // Fox happy rates: hunger +3, others -2, boost 8
+    AbstractMoodStrategy foxHappy = MoodStrategyRegistry.get(Species.FOX, MoodEnum.HAPPY);
+    assertEquals(new HealthStatus(53, 48, 48, 48), foxHappy.applyStep(initial));
+    assertEquals(34, foxHappy.applyInteraction(initial, Action.FEED).getHunger()); // 50 - 2 * 8
+
+    // Snake happy rates: hunger +2, others -1, boost 10
+    AbstractMoodStrategy snakeHappy = MoodStrategyRegistry.get(Species.SNAKE, MoodEnum.HAPPY);
+    assertEquals(new HealthStatus(52, 49, 49, 49), snakeHappy.applyStep(initial));
+
+    // Pet sad rates: hunger +5, boost 4
+    AbstractMoodStrategy petSad = MoodStrategyRegistry.get(Species.PET, MoodEnum.SAD);
+    assertEquals(55, petSad.applyStep(initial).getHunger());
+    assertEquals(54, petSad.applyInteraction(initial, Action.CLEAN).getHygiene());
+  }
+
+  @Test
+  public void testPetsShareStrategiesAcrossSteps() {
+    Fox first = new Fox();
+    Fox second = new Fox();
+    assertSame(first.moodStrategy, second.moodStrategy);
+
+    AbstractMoodStrategy happy = first.moodStrategy;
+    first.step();
+    assertSame("Stepping a happy fox should not build a new strategy", happy, first.moodStrategy);
+
+    first.setMood(MoodEnum.SAD);
+    assertSame(MoodStrategyRegistry.get(Species.FOX, MoodEnum.SAD), first.moodStrategy);
+  }
+}
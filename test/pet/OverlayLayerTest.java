@@ -0,0 +1,76 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the OverlayLayer.
+ * Overlays are placed relative to their anchor corner and only show once they have an image.
+ */
+public class OverlayLayerTest {
+  private OverlayLayer layer;
+
+  @Before
+  public void setUp() {
+    layer = new OverlayLayer();
+    layer.setSize(400, 300);
+    layer.addOverlay("step", OverlayLayer.Anchor.TOP_RIGHT, 17, 20, 1500);
+    layer.addOverlay("warning", OverlayLayer.Anchor.BOTTOM_LEFT, 10, 5, 3000);
+  }
+
+  @Test
+  public void testOverlayWithoutImageIsNotShown() {
+    assertFalse(layer.show("step"));
+    assertFalse(layer.isShowing("step"));
+    assertNull(layer.getOverlayBounds("step"));
+  }
+
+  @Test
+  public void testShowAndHide() {
+    layer.setImage("step", image(133, 63));
+    assertTrue(layer.show("step"));
+    assertTrue(layer.isShowing("step"));
+    assertFalse(layer.isShowing("warning"));
+
+    layer.hide("step");
+    assertFalse(layer.isShowing("step"));
+  }
+
+  @Test
+  public void testOverlaysAreAnchored() {
+    layer.setImage("step", image(133, 63));
+    layer.show("warning", image(50, 20));
+
+    // Same place the step indicator label used to have
+    assertEquals(new Rectangle(250, 20, 133, 63), layer.getOverlayBounds("step"));
+    assertEquals(new Rectangle(10, 275, 50, 20), layer.getOverlayBounds("warning"));
+  }
+
+  @Test
+  public void testShowWithImageReplacesDefault() {
+    layer.setImage("step", image(133, 63));
+    layer.show("step", image(40, 40));
+    assertEquals(new Rectangle(343, 20, 40, 40), layer.getOverlayBounds("step"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownOverlay() {
+    layer.show("badge");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDuplicateOverlay() {
+    layer.addOverlay("step", OverlayLayer.Anchor.TOP_LEFT, 0, 0, 100);
+  }
+
+  private static BufferedImage image(int width, int height) {
+    return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+  }
+}
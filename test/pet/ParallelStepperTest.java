@@ -0,0 +1,95 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the fork/join ParallelStepper.
+ * Verifies that parallel ticks give the same results as stepping every pet sequentially.
+ */
+public class ParallelStepperTest {
+  private static final int PET_COUNT = 10_000;
+
+  private ForkJoinPool pool;
+
+  @Before
+  public void setUp() {
+    pool = new ForkJoinPool(4);
+  }
+
+  @After
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Test
+  public void testParallelTicksMatchSequentialSteps() {
+    List<AbstractPet> parallel = createPets();
+    List<AbstractPet> sequential = createPets();
+    ParallelStepper stepper = new ParallelStepper(parallel, pool, 64);
+
+    for (int tick = 0; tick < 30; tick++) {
+      stepper.tick();
+      for (AbstractPet pet : sequential) {
+        pet.step();
+      }
+    }
+
+    for (int i = 0; i < PET_COUNT; i++) {
+      assertEquals(sequential.get(i).getHealth(), parallel.get(i).getHealth());
+      assertEquals(sequential.get(i).getMood(), parallel.get(i).getMood());
+      assertEquals(sequential.get(i).isDead(), parallel.get(i).isDead());
+    }
+  }
+
+  @Test
+  public void testTickReportsStats() {
+    ParallelStepper stepper = new ParallelStepper(createPets(), pool, 1000);
+    assertNull(stepper.getLastTick());
+
+    TickStats stats = stepper.tick();
+
+    assertSame(stats, stepper.getLastTick());
+    assertEquals(PET_COUNT, stats.getPetCount());
+    assertTrue(stats.getWallTimeNanos() > 0);
+    assertTrue(stats.getPetsPerSecond() > 0);
+  }
+
+  @Test
+  public void testEmptyCollection() {
+    ParallelStepper stepper = new ParallelStepper(Collections.<PetInterface>emptyList());
+    assertEquals(0, stepper.tick().getPetCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidChunkSize() {
+    new ParallelStepper(createPets(), pool, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullPool() {
+    new ParallelStepper(createPets(), null, 10);
+  }
+
+  private List<AbstractPet> createPets() {
+    List<AbstractPet> pets = new ArrayList<>();
+    Species[] species = Species.values();
+    for (int i = 0; i < PET_COUNT; i++) {
+      AbstractPet pet = species[i % species.length].createPet();
+      pet.setRandomSource(new SplittableRandom(i));
+      pets.add(pet);
+    }
+    return pets;
+  }
+}
@@ -0,0 +1,181 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for PetCheckpointStore.
+ * Deltas must hold only changed pets, and base plus deltas must always load to the state
+ * of the last checkpoint, before and after compaction and across reopening.
+ */
+public class PetCheckpointStoreTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testOnlyDirtyPetsAreWritten() throws IOException {
+    Path dir = folder.newFolder().toPath();
+    PetPopulation population = createPopulation(500);
+    try (PetCheckpointStore store = new PetCheckpointStore(dir)) {
+      assertNull(store.load());
+      assertEquals(500, store.checkpoint(population));
+      assertEquals(0, store.checkpoint(population));
+
+      population.interactWith(7, Action.PLAY);
+      population.interactWith(300, Action.CLEAN);
+      assertEquals(2, store.checkpoint(population));
+      assertEquals(1, store.getDeltaCount());
+      assertEquals(0, population.getDirtyCount());
+
+      population.add(Species.FOX);
+      population.stepAll();
+      assertEquals(501, store.checkpoint(population));
+      assertSamePets(population, store.load());
+    }
+  }
+
+  @Test
+  public void testReopenLoadsLatestState() throws IOException {
+    Path dir = folder.newFolder().toPath();
+    PetPopulation population = createPopulation(200);
+    try (PetCheckpointStore store = new PetCheckpointStore(dir)) {
+      for (int round = 0; round < 5; round++) {
+        population.stepAll();
+        population.interactWith(round * 13, Action.FEED);
+        store.checkpoint(population);
+      }
+    }
+    // A leftover temporary file from a crash is ignored and removed
+    Files.write(dir.resolve("delta-99.bin.tmp"), new byte[] {1, 2, 3});
+
+    try (PetCheckpointStore store = new PetCheckpointStore(dir)) {
+      assertEquals(4, store.getDeltaCount());
+      assertSamePets(population, store.load());
+      assertFalse(Files.exists(dir.resolve("delta-99.bin.tmp")));
+      population.interactWith(1, Action.SLEEP);
+      assertEquals(1, store.checkpoint(population));
+      assertSamePets(population, store.load());
+    }
+  }
+
+  @Test
+  public void testCompactMergesDeltas() throws IOException {
+    Path dir = folder.newFolder().toPath();
+    PetPopulation population = createPopulation(100);
+    try (PetCheckpointStore store = new PetCheckpointStore(dir, 1000)) {
+      store.checkpoint(population);
+      for (int round = 0; round < 3; round++) {
+        population.stepAll();
+        store.checkpoint(population);
+      }
+      store.compact();
+      assertEquals(0, store.getDeltaCount());
+      assertEquals(List.of("base-3.snap"), listFiles(dir));
+      assertSamePets(population, store.load());
+
+      population.interactWith(42, Action.PLAY);
+      store.checkpoint(population);
+      assertEquals(List.of("base-3.snap", "delta-4.bin"), listFiles(dir));
+      assertSamePets(population, store.load());
+    }
+  }
+
+  @Test
+  public void testBackgroundCompaction() throws Exception {
+    Path dir = folder.newFolder().toPath();
+    PetPopulation population = createPopulation(1000);
+    try (PetCheckpointStore store = new PetCheckpointStore(dir, 3)) {
+      store.checkpoint(population);
+      for (int round = 0; round < 3; round++) {
+        population.interactWith(round, Action.CLEAN);
+        store.checkpoint(population);
+      }
+      long deadline = System.currentTimeMillis() + 10_000;
+      while (store.getDeltaCount() > 0 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(5);
+      }
+      assertEquals(0, store.getDeltaCount());
+      assertSamePets(population, store.load());
+    }
+    assertTrue(listFiles(dir).contains("base-3.snap"));
+  }
+
+  @Test
+  public void testDeltaIndexCannotOverflow() throws IOException {
+    Path dir = folder.newFolder().toPath();
+    PetPopulation population = createPopulation(10);
+    try (PetCheckpointStore store = new PetCheckpointStore(dir)) {
+      store.checkpoint(population);
+    }
+    // Two records: pet 0, then a gap so large that adding it to the index wraps to negative
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream data = new DataOutputStream(bytes);
+    data.writeInt(0x50444c54);
+    data.writeShort(1);
+    PetSnapshotCodec.writeSpeciesTable(data);
+    data.writeInt(10);
+    data.writeInt(2);
+    byte[] record = new byte[PetSnapshotCodec.RECORD_BYTES];
+    PetSnapshotCodec.encodeRecord(population, 0, record, 0);
+    data.writeByte(0);
+    data.write(record);
+    data.write(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07});
+    data.write(record);
+    Files.write(dir.resolve("delta-1.bin"), bytes.toByteArray());
+
+    try (PetCheckpointStore store = new PetCheckpointStore(dir)) {
+      store.load();
+      fail("Loaded a delta whose index overflows");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().startsWith("Corrupt delta record"));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidThreshold() throws IOException {
+    new PetCheckpointStore(folder.newFolder().toPath(), 0);
+  }
+
+  private static PetPopulation createPopulation(int size) {
+    PetPopulation population = new PetPopulation(size);
+    population.setRandomSource(new SplittableRandom(5));
+    for (int i = 0; i < size; i++) {
+      population.add(Species.values()[i % Species.values().length]);
+    }
+    return population;
+  }
+
+  private static List<String> listFiles(Path dir) throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.map(file -> file.getFileName().toString()).sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static void assertSamePets(PetPopulation expected, PetPopulation actual) {
+    assertEquals(expected.size(), actual.size());
+    assertEquals(0, actual.getDirtyCount());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.getHealth(i), actual.getHealth(i));
+      assertEquals(expected.getMood(i), actual.getMood(i));
+      assertEquals(expected.isDead(i), actual.isDead(i));
+      assertEquals(expected.getSpecies(i), actual.getSpecies(i));
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the PetDashboard.
+ * Painting must only touch the cells inside the clip, however many pets are added.
+ */
+public class PetDashboardTest {
+  private PetDashboard dashboard;
+
+  @Before
+  public void setUp() {
+    dashboard = new PetDashboard(Runnable::run);
+    Species[] species = Species.values();
+    for (int i = 0; i < 1000; i++) {
+      AbstractPet pet = species[i % species.length].createPet();
+      dashboard.addPet(pet, pet.getSpecies());
+    }
+    dashboard.setSize(3 * PetDashboard.CELL_WIDTH + 50, 400);
+  }
+
+  @Test
+  public void testGridReflowsToWidth() {
+    assertEquals(1000, dashboard.getPetCount());
+    assertEquals(3 * PetDashboard.CELL_WIDTH, dashboard.getPreferredSize().width);
+    // 1000 pets in 3 columns need 334 rows
+    assertEquals(334 * PetDashboard.CELL_HEIGHT, dashboard.getPreferredSize().height);
+  }
+
+  @Test
+  public void testOnlyVisibleCellsArePainted() {
+    // A viewport two rows high, scrolled into the middle of the grid
+    int height = 2 * PetDashboard.CELL_HEIGHT;
+    BufferedImage image = new BufferedImage(dashboard.getWidth(), height,
+        BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = image.createGraphics();
+    g.translate(0, -100 * PetDashboard.CELL_HEIGHT - 10);
+    g.setClip(new Rectangle(0, 100 * PetDashboard.CELL_HEIGHT + 10, dashboard.getWidth(), height));
+    dashboard.paint(g);
+    g.dispose();
+
+    // Partially visible rows are painted too: three rows of three cells
+    assertEquals(9, dashboard.getLastPaintedCellCount());
+  }
+
+  @Test
+  public void testLastRowStopsAtPetCount() {
+    Rectangle last = dashboard.getCellBounds(999);
+    BufferedImage image = new BufferedImage(dashboard.getWidth(), 400,
+        BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = image.createGraphics();
+    g.translate(0, -last.y);
+    g.setClip(new Rectangle(0, last.y, dashboard.getWidth(), last.height));
+    dashboard.paint(g);
+    g.dispose();
+
+    assertEquals(1, dashboard.getLastPaintedCellCount());
+  }
+
+  @Test
+  public void testPetIndexAt() {
+    Rectangle cell = dashboard.getCellBounds(7);
+    assertEquals(7, dashboard.getPetIndexAt(cell.x + 5, cell.y + 5));
+    assertEquals(-1, dashboard.getPetIndexAt(3 * PetDashboard.CELL_WIDTH + 10, 5));
+    assertTrue(dashboard.getPetIndexAt(5, 400 * PetDashboard.CELL_HEIGHT) < 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullPet() {
+    dashboard.addPet(null, Species.FOX);
+  }
+}
@@ -0,0 +1,274 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for PetHttpServer.
+ * Each endpoint must answer with the pet's state as seen through PetInterface, errors must map
+ * to the right status codes, and keep-alive connections must carry pipelined requests. Event
+ * streams must push changed pets, coalescing changes within one push interval.
+ */
+public class PetHttpServerTest {
+  private PetHttpServer server;
+
+  @Before
+  public void setUp() throws IOException {
+    server = new PetHttpServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2);
+    server.start();
+  }
+
+  @After
+  public void tearDown() {
+    server.close();
+  }
+
+  @Test
+  public void testCreateAndGetPet() throws IOException {
+    String created = request("POST", "/pets?species=fox", null, 201);
+    assertTrue(created, created.startsWith("{\"id\":1,\"species\":\"FOX\""));
+    String fetched = request("GET", "/pets/1", null, 200);
+    assertEquals(stateOf(1, Species.FOX), fetched);
+
+    String fromBody = request("POST", "/pets", "{\"species\": \"SNAKE\"}", 201);
+    assertTrue(fromBody, fromBody.startsWith("{\"id\":2,\"species\":\"SNAKE\""));
+    assertTrue(server.getPet(2) instanceof ConcurrentPet);
+  }
+
+  @Test
+  public void testActionsAndSteps() throws IOException {
+    int id = server.createPet(Species.PET);
+    PetInterface pet = server.getPet(id);
+    int hunger = pet.getHealth().getHunger();
+
+    String stepped = request("POST", "/pets/" + id + "/step", null, 200);
+    assertEquals(stateOf(id, Species.PET), stepped);
+    assertTrue(pet.getHealth().getHunger() > hunger);
+
+    request("POST", "/pets/" + id + "/step?steps=5", null, 200);
+    int hungry = pet.getHealth().getHunger();
+    String fed = request("POST", "/pets/" + id + "/actions", "{\"action\":\"feed\"}", 200);
+    assertEquals(stateOf(id, Species.PET), fed);
+    assertTrue(pet.getHealth().getHunger() < hungry);
+
+    request("POST", "/pets/" + id + "/step?steps=" + PetHttpServer.MAX_STEPS, null, 200);
+    assertTrue(request("GET", "/pets/" + id, null, 200).endsWith("\"dead\":true}"));
+  }
+
+  @Test
+  public void testErrors() throws IOException {
+    int id = server.createPet(Species.SNAKE);
+    assertEquals("{\"error\":\"No pet with id 99\"}", request("GET", "/pets/99", null, 404));
+    request("GET", "/pets/abc", null, 404);
+    request("GET", "/pets/" + id + "/mood", null, 404);
+    request("GET", "/other", null, 404);
+    request("POST", "/pets?species=DRAGON", null, 400);
+    request("POST", "/pets", null, 400);
+    request("POST", "/pets/" + id + "/actions?action=DANCE", null, 400);
+    request("POST", "/pets/" + id + "/step?steps=0", null, 400);
+    request("POST", "/pets/" + id, null, 405);
+    request("GET", "/pets/" + id + "/step", null, 405);
+    request("POST", "/pets", "{\"species\":\"" + "x".repeat(5000) + "\"}", 413);
+  }
+
+  @Test
+  public void testPipelinedRequestsOnOneConnection() throws IOException {
+    int id = server.createPet(Species.FOX);
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+      String get = "GET /pets/" + id + " HTTP/1.1\r\nHost: localhost\r\n\r\n";
+      String feed = "POST /pets/" + id + "/actions HTTP/1.1\r\nHost: localhost\r\n"
+          + "Content-Length: 17\r\n\r\n{\"action\":\"PLAY\"}";
+      String last = "GET /pets/" + id + " HTTP/1.1\r\nConnection: close\r\n\r\n";
+      OutputStream out = socket.getOutputStream();
+      out.write((get + feed + last).getBytes(StandardCharsets.US_ASCII));
+      out.flush();
+
+      // The server closes the connection after the third response
+      String responses = readAll(socket.getInputStream());
+      assertEquals(3, responses.split("HTTP/1.1 200 OK", -1).length - 1);
+      assertTrue(responses, responses.endsWith(stateOf(id, Species.FOX)));
+    }
+  }
+
+  @Test
+  public void testEventStreamPushesChanges() throws IOException {
+    int fox = server.createPet(Species.FOX);
+    int snake = server.createPet(Species.SNAKE);
+    try (Socket socket = openStream("/events?pets=" + fox + "," + snake)) {
+      BufferedReader reader = reader(socket);
+      assertEquals("HTTP/1.1 200 OK", reader.readLine());
+      skipHeaders(reader);
+      assertEquals(stateOf(fox, Species.FOX), readEvent(reader));
+      assertEquals(stateOf(snake, Species.SNAKE), readEvent(reader));
+
+      server.step(snake, 1);
+      assertEquals(stateOf(snake, Species.SNAKE), readEvent(reader));
+      request("POST", "/pets/" + fox + "/actions?action=PLAY", null, 200);
+      assertEquals(stateOf(fox, Species.FOX), readEvent(reader));
+    }
+  }
+
+  @Test
+  public void testChangesWithinOnePushAreCoalesced() throws IOException {
+    server.close();
+    server = new PetHttpServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1, 400);
+    server.start();
+    int id = server.createPet(Species.PET);
+    try (Socket socket = openStream("/events?pets=" + id)) {
+      BufferedReader reader = reader(socket);
+      skipHeaders(reader);
+      readEvent(reader);
+
+      for (int i = 0; i < 20; i++) {
+        server.step(id, 1);
+      }
+      // Twenty changes give one event, or two if a push fell in between, ending at the last state
+      socket.setSoTimeout(1500);
+      String last = readEvent(reader);
+      try {
+        last = readEvent(reader);
+        socket.setSoTimeout(1000);
+        assertNull(readEvent(reader));
+      } catch (SocketTimeoutException e) {
+        // No further event
+      }
+      assertEquals(stateOf(id, Species.PET), last);
+    }
+  }
+
+  @Test
+  public void testStreamOpenedDuringChangesEndsAtLatestState() throws Exception {
+    server.close();
+    server = new PetHttpServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2, 10);
+    server.start();
+    Action[] actions = Action.values();
+    for (int round = 0; round < 100; round++) {
+      int id = server.createPet(Species.FOX);
+      // A short burst of changes, whose last one may land while the stream subscribes
+      int changes = round % 50;
+      Thread changer = new Thread(() -> {
+        for (int i = 0; i < changes; i++) {
+          server.interactWith(id, actions[i % actions.length]);
+        }
+      });
+      try (Socket socket = openStream("/events?pets=" + id)) {
+        changer.start();
+        BufferedReader reader = reader(socket);
+        skipHeaders(reader);
+        String last = readEvent(reader);
+        changer.join();
+        socket.setSoTimeout(100);
+        try {
+          for (String event = readEvent(reader); event != null; event = readEvent(reader)) {
+            last = event;
+          }
+        } catch (SocketTimeoutException e) {
+          // Quiet: every change has been pushed
+        }
+        assertEquals("round " + round, stateOf(id, Species.FOX), last);
+      }
+    }
+  }
+
+  @Test
+  public void testEventStreamErrors() throws IOException {
+    int id = server.createPet(Species.FOX);
+    request("GET", "/events", null, 400);
+    request("GET", "/events?pets=" + id + ",99", null, 404);
+    request("POST", "/events?pets=" + id, null, 405);
+  }
+
+  private Socket openStream(String target) throws IOException {
+    Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+    socket.setSoTimeout(5000);
+    OutputStream out = socket.getOutputStream();
+    out.write(("GET " + target + " HTTP/1.1\r\nHost: localhost\r\n\r\n")
+        .getBytes(StandardCharsets.US_ASCII));
+    out.flush();
+    return socket;
+  }
+
+  private static BufferedReader reader(Socket socket) throws IOException {
+    return new BufferedReader(new InputStreamReader(socket.getInputStream(),
+        StandardCharsets.UTF_8));
+  }
+
+  private static void skipHeaders(BufferedReader reader) throws IOException {
+    for (String line = reader.readLine(); !line.isEmpty(); line = reader.readLine()) {
+      if (line.startsWith("Content-Type:")) {
+        assertEquals("Content-Type: text/event-stream", line);
+      }
+    }
+  }
+
+  /**
+   * Reads one server-sent event and returns its data, or null if the stream ended.
+   */
+  private static String readEvent(BufferedReader reader) throws IOException {
+    String line = reader.readLine();
+    if (line == null) {
+      return null;
+    }
+    assertEquals("event: pet", line);
+    String data = reader.readLine();
+    assertTrue(data, data.startsWith("data: "));
+    assertEquals("", reader.readLine());
+    return data.substring("data: ".length());
+  }
+
+  private String stateOf(int id, Species species) {
+    PetInterface pet = server.getPet(id);
+    HealthStatus health = pet.getHealth();
+    return "{\"id\":" + id + ",\"species\":\"" + species.name()
+        + "\",\"health\":{\"hunger\":" + health.getHunger() + ",\"hygiene\":"
+        + health.getHygiene() + ",\"social\":" + health.getSocial() + ",\"sleep\":"
+        + health.getSleep() + "},\"mood\":\"" + pet.getMood().name() + "\",\"dead\":"
+        + pet.isDead() + "}";
+  }
+
+  private String request(String method, String path, String body, int expectedStatus)
+      throws IOException {
+    URL url = new URL("http", InetAddress.getLoopbackAddress().getHostAddress(),
+        server.getPort(), path);
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    connection.setRequestMethod(method);
+    if (body != null) {
+      connection.setDoOutput(true);
+      connection.setRequestProperty("Content-Type", "application/json");
+      try (OutputStream out = connection.getOutputStream()) {
+        out.write(body.getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    assertEquals(method + " " + path, expectedStatus, connection.getResponseCode());
+    assertEquals("application/json", connection.getContentType());
+    InputStream in = expectedStatus < 400 ? connection.getInputStream()
+        : connection.getErrorStream();
+    try (InputStream stream = in) {
+      return readAll(stream);
+    }
+  }
+
+  private static String readAll(InputStream in) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    in.transferTo(bytes);
+    return bytes.toString(StandardCharsets.UTF_8);
+  }
+}
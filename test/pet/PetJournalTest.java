@@ -0,0 +1,293 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for PetJournal and JournaledPet.
+ * Recovery from snapshot plus journal tail must reproduce every pet exactly,
+ * including its random generator, so recovered pets continue as if nothing happened.
+ */
+public class PetJournalTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testRecoverFromJournalOnly() throws IOException {
+    Path dir = folder.newFolder().toPath();
+    List<HealthStatus> expected = new ArrayList<>();
+    try (PetJournal journal = new PetJournal(dir)) {
+      runScript(journal, 3);
+      for (JournaledPet pet : journal.getPets()) {
+        expected.add(pet.getHealth());
+      }
+    }
+
+    try (PetJournal recovered = new PetJournal(dir)) {
+      assertEquals(3, recovered.getPets().size());
+      List<HealthStatus> actual = new ArrayList<>();
+      for (JournaledPet pet : recovered.getPets()) {
+        actual.add(pet.getHealth());
+      }
+      assertEquals(expected, actual);
+    }
+  }
+
+  @Test
+  public void testRecoveredPetsContinueIdentically() throws IOException {
+    Path interrupted = folder.newFolder().toPath();
+    Path uninterrupted = folder.newFolder().toPath();
+
+    // Small snapshot interval so recovery uses a snapshot plus a journal tail
+    try (PetJournal journal = new PetJournal(interrupted, 8, 50)) {
+      runScript(journal, 4);
+    }
+    try (PetJournal journal = new PetJournal(interrupted, 8, 50)) {
+      continueScript(journal);
+    }
+
+    try (PetJournal journal = new PetJournal(uninterrupted, 8, 50)) {
+      runScript(journal, 4);
+      continueScript(journal);
+
+      try (PetJournal recovered = new PetJournal(interrupted, 8, 50)) {
+        for (JournaledPet pet : journal.getPets()) {
+          JournaledPet other = recovered.getPet(pet.getId());
+          assertEquals(pet.getSpecies(), other.getSpecies());
+          assertEquals(pet.getHealth(), other.getHealth());
+          assertEquals(pet.getMood(), other.getMood());
+          assertEquals(pet.isDead(), other.isDead());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSnapshotStartsNewGeneration() throws IOException {
+    Path dir = folder.newFolder().toPath();
+    try (PetJournal journal = new PetJournal(dir)) {
+      JournaledPet fox = journal.createPet(Species.FOX, 1);
+      fox.setMood(MoodEnum.SAD);
+      journal.snapshot();
+      fox.interactWith(Action.CLEAN);
+    }
+
+    assertTrue(Files.exists(dir.resolve("snapshot.bin")));
+    assertTrue(Files.exists(dir.resolve("journal-1.log")));
+    assertTrue(Files.notExists(dir.resolve("journal-0.log")));
+
+    try (PetJournal recovered = new PetJournal(dir)) {
+      JournaledPet fox = recovered.getPet(0);
+      // The manually set SAD mood came from the snapshot, the clean from the journal tail
+      assertEquals(new HealthStatus(50, 54, 50, 50), fox.getHealth());
+      assertEquals(MoodEnum.HAPPY, fox.getMood());
+
+      // New ids continue after the recovered ones
+      assertEquals(1, recovered.createPet(Species.PET).getId());
+    }
+  }
+
+  @Test
+  public void testTornRecordIsDiscarded() throws IOException {
+    Path dir = folder.newFolder().toPath();
+    try (PetJournal journal = new PetJournal(dir)) {
+      JournaledPet snake = journal.createPet(Species.SNAKE, 9);
+      snake.interactWith(Action.FEED);
+    }
+    // Simulate a crash in the middle of writing a step record
+    Files.write(dir.resolve("journal-0.log"), new byte[] {2, 0, 0},
+        StandardOpenOption.APPEND);
+
+    try (PetJournal recovered = new PetJournal(dir)) {
+      JournaledPet snake = recovered.getPet(0);
+      assertEquals(new HealthStatus(30, 50, 50, 50), snake.getHealth()); // 50 - 2 * 10
+      snake.step();
+    }
+    try (PetJournal recovered = new PetJournal(dir)) {
+      assertEquals(new HealthStatus(32, 49, 49, 49), recovered.getPet(0).getHealth());
+    }
+  }
+
+  @Test
+  public void testZeroFilledAndGarbageTailsAreDiscarded() throws IOException {
+    byte[] garbage = new byte[64];
+    new Random(5).nextBytes(garbage);
+    for (byte[] tail : new byte[][] {new byte[4096], garbage}) {
+      Path dir = folder.newFolder().toPath();
+      try (PetJournal journal = new PetJournal(dir)) {
+        journal.createPet(Species.FOX, 3).step();
+      }
+      long size = Files.size(dir.resolve("journal-0.log"));
+      // A crash can leave preallocated zeros or stale blocks after the last complete record
+      Files.write(dir.resolve("journal-0.log"), tail, StandardOpenOption.APPEND);
+
+      try (PetJournal recovered = new PetJournal(dir)) {
+        assertEquals(1, recovered.getPets().size());
+        recovered.getPet(0).interactWith(Action.PLAY);
+      }
+      assertTrue(Files.size(dir.resolve("journal-0.log")) > size);
+      try (PetJournal recovered = new PetJournal(dir)) {
+        assertEquals(1, recovered.getPets().size());
+      }
+    }
+  }
+
+  @Test
+  public void testCorruptRecordTruncatesTheRest() throws IOException {
+    Path dir = folder.newFolder().toPath();
+    HealthStatus afterFirstStep;
+    try (PetJournal journal = new PetJournal(dir)) {
+      JournaledPet pet = journal.createPet(Species.PET, 4);
+      pet.step();
+      afterFirstStep = pet.getHealth();
+      pet.step();
+    }
+    // Flip a bit in the last record's checksum
+    Path log = dir.resolve("journal-0.log");
+    byte[] bytes = Files.readAllBytes(log);
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(log, bytes);
+
+    try (PetJournal recovered = new PetJournal(dir)) {
+      assertEquals(afterFirstStep, recovered.getPet(0).getHealth());
+    }
+    assertEquals(bytes.length - 10, Files.size(log)); // One step record is 10 bytes
+  }
+
+  @Test
+  public void testFailedInteractionLeavesNoRecord() throws IOException {
+    Path dir = folder.newFolder().toPath();
+    HealthStatus expected;
+    try (PetJournal journal = new PetJournal(dir)) {
+      JournaledPet pet = journal.createPet(Species.SNAKE, 6);
+      try {
+        pet.interactWith(null);
+        fail("A null action must be rejected");
+      } catch (NullPointerException e) {
+        // Expected
+      }
+      // A half-written record would end replay before this step
+      pet.step();
+      expected = pet.getHealth();
+    }
+    try (PetJournal recovered = new PetJournal(dir)) {
+      assertEquals(expected, recovered.getPet(0).getHealth());
+    }
+  }
+
+  @Test
+  public void testDeadPetEventsAreNotJournaled() throws IOException {
+    Path dir = folder.newFolder().toPath();
+    try (PetJournal journal = new PetJournal(dir)) {
+      JournaledPet pet = journal.createPet(Species.PET, 2);
+      pet.fastForward(1000);
+      assertTrue(pet.isDead());
+      journal.sync();
+      long size = Files.size(dir.resolve("journal-0.log"));
+
+      pet.step();
+      pet.interactWith(Action.FEED);
+      journal.sync();
+      assertEquals(size, Files.size(dir.resolve("journal-0.log")));
+    }
+  }
+
+  @Test
+  public void testUnknownPet() throws IOException {
+    try (PetJournal journal = new PetJournal(folder.newFolder().toPath())) {
+      assertNull(journal.getPet(5));
+    }
+  }
+
+  @Test
+  public void testEventAfterCloseFailsWithoutChangingThePet() throws IOException {
+    PetJournal journal = new PetJournal(folder.newFolder().toPath());
+    JournaledPet pet = journal.createPet(Species.FOX);
+    HealthStatus before = pet.getHealth();
+    journal.close();
+    try {
+      pet.step();
+      fail("Stepping after close must fail");
+    } catch (IllegalStateException e) {
+      assertEquals(before, pet.getHealth());
+    }
+  }
+
+  @Test
+  public void testConcurrentStepsWithSnapshotsReplayExactly() throws Exception {
+    Path dir = folder.newFolder().toPath();
+    List<HealthStatus> expected = new ArrayList<>();
+    // Snapshots every few events, so they keep landing while other threads step their pets
+    try (PetJournal journal = new PetJournal(dir, 4, 7)) {
+      List<Thread> threads = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        JournaledPet pet = journal.createPet(Species.values()[t % Species.values().length], t);
+        threads.add(new Thread(() -> {
+          for (int i = 0; i < 500 && !pet.isDead(); i++) {
+            pet.step();
+            pet.interactWith(Action.values()[i % Action.values().length]);
+          }
+        }));
+      }
+      for (Thread thread : threads) {
+        thread.start();
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      for (JournaledPet pet : journal.getPets()) {
+        expected.add(pet.getHealth());
+      }
+    }
+
+    try (PetJournal recovered = new PetJournal(dir, 4, 7)) {
+      List<HealthStatus> actual = new ArrayList<>();
+      for (JournaledPet pet : recovered.getPets()) {
+        actual.add(pet.getHealth());
+      }
+      assertEquals(expected, actual);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBatchSize() throws IOException {
+    new PetJournal(folder.newFolder().toPath(), 0, 10);
+  }
+
+  private void runScript(PetJournal journal, int petCount) {
+    Species[] species = Species.values();
+    for (int i = 0; i < petCount; i++) {
+      journal.createPet(species[i % species.length], 100 + i);
+    }
+    Action[] actions = Action.values();
+    for (int round = 0; round < 40; round++) {
+      for (JournaledPet pet : journal.getPets()) {
+        pet.step();
+        if (round % 3 == 0) {
+          pet.interactWith(actions[(round + pet.getId()) % actions.length]);
+        }
+      }
+    }
+  }
+
+  private void continueScript(PetJournal journal) {
+    for (JournaledPet pet : journal.getPets()) {
+      pet.fastForward(5);
+      pet.interactWith(Action.FEED);
+      pet.step();
+    }
+  }
+}
@@ -0,0 +1,189 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the struct-of-arrays PetPopulation.
+ * Verifies that every pet in a population behaves exactly like the equivalent AbstractPet.
+ */
+public class PetPopulationTest {
+  private PetPopulation population;
+
+  @Before
+  public void setUp() {
+    population = new PetPopulation(1);
+  }
+
+  @Test
+  public void testAddUsesDefaultValues() {
+    int index = population.add(Species.FOX);
+
+    assertEquals(1, population.size());
+    assertEquals(new HealthStatus(50, 50, 50, 50), population.getHealth(index));
+    assertEquals(MoodEnum.HAPPY, population.getMood(index));
+    assertEquals(Species.FOX, population.getSpecies(index));
+    assertFalse(population.isDead(index));
+  }
+
+  @Test
+  public void testPopulationGrowsPastInitialCapacity() {
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, population.add(Species.values()[i % Species.values().length]));
+    }
+    assertEquals(100, population.size());
+    assertEquals(Species.SNAKE, population.getSpecies(98));
+  }
+
+  @Test
+  public void testHappyStepsMatchAbstractPet() {
+    for (Species type : Species.values()) {
+      AbstractPet pet = type.createPet();
+      PetPopulation single = new PetPopulation();
+      int index = single.add(type);
+
+      // Happy steps are deterministic, so every step must match exactly
+      while (pet.getMood() == MoodEnum.HAPPY) {
+        pet.step();
+        single.stepAll();
+        assertEquals(type + " health", pet.getHealth(), single.getHealth(index));
+        assertEquals(type + " mood", pet.getMood(), single.getMood(index));
+        assertEquals(type + " death", pet.isDead(), single.isDead(index));
+      }
+    }
+  }
+
+  @Test
+  public void testSeededLifetimeMatchesAbstractPet() {
+    for (Species type : Species.values()) {
+      AbstractPet pet = type.createPet();
+      pet.setRandomSource(new SplittableRandom(99));
+      PetPopulation single = new PetPopulation();
+      single.setRandomSource(new SplittableRandom(99));
+      int index = single.add(type);
+
+      // With the same seed, happy and sad steps match exactly until the pet dies
+      while (!pet.isDead()) {
+        pet.step();
+        single.stepAll();
+        assertEquals(type + " health", pet.getHealth(), single.getHealth(index));
+        assertEquals(type + " mood", pet.getMood(), single.getMood(index));
+      }
+      assertTrue(single.isDead(index));
+    }
+  }
+
+  @Test
+  public void testSadStepStaysInRange() {
+    Fox fox = new Fox();
+    fox.setHealthStateAndUpdateState(50, 50, 50, 50);
+    fox.setMood(MoodEnum.SAD);
+    int index = population.add(fox);
+
+    population.stepAll();
+
+    HealthStatus health = population.getHealth(index);
+    assertEquals(55, health.getHunger()); // 50 + 5
+    assertTrue(health.getHygiene() >= 44 && health.getHygiene() <= 47);
+    assertTrue(health.getSocial() >= 44 && health.getSocial() <= 47);
+    assertTrue(health.getSleep() >= 44 && health.getSleep() <= 47);
+  }
+
+  @Test
+  public void testInteractionsMatchAbstractPet() {
+    for (Species type : Species.values()) {
+      for (MoodEnum mood : MoodEnum.values()) {
+        for (Action action : Action.values()) {
+          AbstractPet pet = type.createPet();
+          pet.setMood(mood);
+          int index = population.add(pet);
+
+          pet.interactWith(action);
+          population.interactWith(index, action);
+
+          String message = type + " " + mood + " " + action;
+          assertEquals(message, pet.getHealth(), population.getHealth(index));
+          assertEquals(message, pet.getMood(), population.getMood(index));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testDeadPetsDoNotChange() {
+    Snake snake = new Snake();
+    snake.setHealthStateAndUpdateState(81, 50, 50, 50); // > 80 hunger limit
+    int index = population.add(snake);
+    assertTrue(population.isDead(index));
+
+    population.stepAll();
+    population.interactWith(index, Action.FEED);
+
+    assertEquals(new HealthStatus(81, 50, 50, 50), population.getHealth(index));
+  }
+
+  @Test
+  public void testAddClampsHealthOutsideByteRange() {
+    Snake snake = new Snake();
+    snake.setHealthStateAndUpdateState(200, -5, 50, 50);
+    int index = population.add(snake);
+    assertEquals(new HealthStatus(100, 0, 50, 50), population.getHealth(index));
+    assertTrue(population.isDead(index));
+  }
+
+  @Test
+  public void testDirtyTracksRealChanges() {
+    for (int i = 0; i < 130; i++) {
+      population.add(Species.PET);
+    }
+    Snake snake = new Snake();
+    snake.setHealthStateAndUpdateState(81, 50, 50, 50);
+    int deadIndex = population.add(snake);
+    // New pets are dirty until the first checkpoint clears them
+    assertEquals(131, population.getDirtyCount());
+    population.clearDirty();
+    assertEquals(0, population.getDirtyCount());
+    assertEquals(-1, population.nextDirty(0));
+
+    population.interactWith(64, Action.FEED);
+    population.interactWith(deadIndex, Action.FEED);
+    assertEquals(1, population.getDirtyCount());
+    assertTrue(population.isDirty(64));
+    assertEquals(64, population.nextDirty(0));
+    assertEquals(-1, population.nextDirty(65));
+
+    // Every living pet changes when stepped, the dead one does not
+    population.stepAll();
+    assertEquals(130, population.getDirtyCount());
+    assertFalse(population.isDirty(deadIndex));
+    assertEquals(129, population.nextDirty(129));
+  }
+
+  @Test
+  public void testInteractionWithoutEffectIsNotDirty() {
+    int index = population.add(Species.PET);
+    for (int i = 0; i < 20; i++) {
+      population.interactWith(index, Action.FEED);
+    }
+    population.clearDirty();
+    // Hunger is already at the floor, so feeding again changes nothing
+    population.interactWith(index, Action.FEED);
+    assertFalse(population.isDirty(index));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testInvalidIndex() {
+    population.getHealth(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeCapacity() {
+    new PetPopulation(-1);
+  }
+}
@@ -0,0 +1,175 @@
+package pet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+/**
+ * Tests for PetSnapshotCodec and its LZ4 block compression.
+ * Snapshots must restore every pet exactly, compressed or not, and reject corrupt input.
+ * Throughput is measured by PetSnapshotBenchmark in the benchmarks module.
+ */
+public class PetSnapshotCodecTest {
+  private static final int BLOCK_SPANNING_SIZE = 2 * PetSnapshotCodec.BLOCK_RECORDS + 123;
+
+  @Test
+  public void testRoundTripUncompressed() throws IOException {
+    PetPopulation population = createPopulation(BLOCK_SPANNING_SIZE);
+    byte[] snapshot = write(population, false);
+    assertTrue(snapshot.length < 64 + BLOCK_SPANNING_SIZE * PetSnapshotCodec.RECORD_BYTES
+        + 8 * 3);
+    assertSamePets(population, PetSnapshotCodec.read(new ByteArrayInputStream(snapshot)));
+  }
+
+  @Test
+  public void testRoundTripCompressed() throws IOException {
+    PetPopulation population = createPopulation(BLOCK_SPANNING_SIZE);
+    byte[] raw = write(population, false);
+    byte[] compressed = write(population, true);
+    // Sad pets decay randomly, so only part of their records repeat
+    assertTrue(compressed.length < raw.length);
+    assertSamePets(population, PetSnapshotCodec.read(new ByteArrayInputStream(compressed)));
+  }
+
+  @Test
+  public void testIdenticalPetsCompressWell() throws IOException {
+    PetPopulation population = new PetPopulation();
+    for (int i = 0; i < BLOCK_SPANNING_SIZE; i++) {
+      population.add(Species.values()[i % Species.values().length]);
+    }
+    byte[] compressed = write(population, true);
+    assertTrue(compressed.length < write(population, false).length / 50);
+    assertSamePets(population, PetSnapshotCodec.read(new ByteArrayInputStream(compressed)));
+  }
+
+  @Test
+  public void testEmptyPopulation() throws IOException {
+    byte[] snapshot = write(new PetPopulation(), true);
+    assertEquals(0, PetSnapshotCodec.read(new ByteArrayInputStream(snapshot)).size());
+  }
+
+  @Test
+  public void testLz4RoundTrip() throws IOException {
+    SplittableRandom random = new SplittableRandom(3);
+    byte[][] inputs = {
+        new byte[0],
+        new byte[] {1, 2, 3},
+        new byte[100_000],
+        randomBytes(random, 5000, 256),
+        randomBytes(random, 70_000, 3),
+    };
+    int[] table = new int[Lz4Block.HASH_TABLE_SIZE];
+    for (byte[] input : inputs) {
+      byte[] compressed = new byte[Lz4Block.maxCompressedLength(input.length)];
+      int length = Lz4Block.compress(input, 0, input.length, compressed, table);
+      byte[] output = new byte[input.length];
+      Lz4Block.decompress(compressed, 0, length, output, output.length);
+      assertArrayEquals(input, output);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testRejectsMalformedLz4() throws IOException {
+    byte[] input = new byte[1000];
+    byte[] compressed = new byte[Lz4Block.maxCompressedLength(input.length)];
+    int length = Lz4Block.compress(input, 0, input.length, compressed,
+        new int[Lz4Block.HASH_TABLE_SIZE]);
+    Lz4Block.decompress(compressed, 0, length, new byte[999], 999);
+  }
+
+  @Test(expected = IOException.class)
+  public void testRejectsWrongMagic() throws IOException {
+    PetSnapshotCodec.read(new ByteArrayInputStream(new byte[32]));
+  }
+
+  @Test(expected = IOException.class)
+  public void testRejectsTruncatedSnapshot() throws IOException {
+    byte[] snapshot = write(createPopulation(1000), true);
+    PetSnapshotCodec.read(new ByteArrayInputStream(Arrays.copyOf(snapshot,
+        snapshot.length - 10)));
+  }
+
+  @Test(expected = IOException.class)
+  public void testRejectsUnknownSpecies() throws IOException {
+    byte[] snapshot = write(createPopulation(3), false);
+    // The first species name starts after magic, version, flags and table length bytes
+    snapshot[9] = 'X';
+    PetSnapshotCodec.read(new ByteArrayInputStream(snapshot));
+  }
+
+  @Test(expected = IOException.class)
+  public void testRejectsCorruptPetCount() throws IOException {
+    byte[] snapshot = write(createPopulation(3), false);
+    // The count follows the species table; a huge one must fail on the missing blocks
+    int countOffset = countOffset(snapshot);
+    snapshot[countOffset] = 0x7f;
+    snapshot[countOffset + 1] = (byte) 0xff;
+    snapshot[countOffset + 2] = (byte) 0xff;
+    snapshot[countOffset + 3] = (byte) 0xff;
+    PetSnapshotCodec.read(new ByteArrayInputStream(snapshot));
+  }
+
+  @Test(expected = IOException.class)
+  public void testRejectsHealthAboveCeiling() throws IOException {
+    byte[] snapshot = write(createPopulation(3), false);
+    // Raw block: count, then stored and decoded lengths, then the first record's hunger
+    snapshot[countOffset(snapshot) + 12] = 101;
+    PetSnapshotCodec.read(new ByteArrayInputStream(snapshot));
+  }
+
+  private static PetPopulation createPopulation(int size) {
+    PetPopulation population = new PetPopulation(size);
+    population.setRandomSource(new SplittableRandom(11));
+    for (int i = 0; i < size; i++) {
+      population.add(Species.values()[i % Species.values().length]);
+    }
+    for (int step = 0; step < 12; step++) {
+      population.stepAll();
+      population.interactWith((step * 7919) % size, Action.values()[step % 4]);
+    }
+    return population;
+  }
+
+  /**
+   * Returns the offset of the pet count, which follows the variable-length species table.
+   */
+  private static int countOffset(byte[] snapshot) {
+    int pos = 7; // Magic, version and flags
+    int species = snapshot[pos++];
+    for (int i = 0; i < species; i++) {
+      pos += 1 + snapshot[pos];
+    }
+    return pos;
+  }
+
+  private static byte[] write(PetPopulation population, boolean compress) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PetSnapshotCodec.write(population, out, compress);
+    return out.toByteArray();
+  }
+
+  private static byte[] randomBytes(SplittableRandom random, int length, int range) {
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = (byte) random.nextInt(range);
+    }
+    return bytes;
+  }
+
+  private static void assertSamePets(PetPopulation expected, PetPopulation actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.getHealth(i), actual.getHealth(i));
+      assertEquals(expected.getMood(i), actual.getMood(i));
+      assertEquals(expected.isDead(i), actual.isDead(i));
+      assertEquals(expected.getSpecies(i), actual.getSpecies(i));
+    }
+  }
+}
@@ -4,6 +4,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.SplittableRandom;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -212,6 +214,43 @@ public class PetTest {
             pet.getHealth().getSleep() <= 47); // 50 - (3 + 0-3 random)
   }
 
+  @Test
+  public void testSeededStepInSadMoodIsExact() {
+    // A seeded generator makes the random part of a sad step predictable
+    pet.setHealthStateAndUpdateState(50, 50, 50, 50);
+    pet.setMood(MoodEnum.SAD);
+    pet.setRandomSource(new SplittableRandom(42));
+    SplittableRandom expected = new SplittableRandom(42);
+
+    pet.step();
+
+    assertEquals(55, pet.getHealth().getHunger()); // 50 + 5
+    assertEquals(50 - (3 + expected.nextInt(4)), pet.getHealth().getHygiene());
+    assertEquals(50 - (3 + expected.nextInt(4)), pet.getHealth().getSocial());
+    assertEquals(50 - (3 + expected.nextInt(4)), pet.getHealth().getSleep());
+  }
+
+  @Test
+  public void testSameSeedReproducesRun() {
+    Pet first = new Pet();
+    Pet second = new Pet();
+    first.setRandomSource(new SplittableRandom(7));
+    second.setRandomSource(new SplittableRandom(7));
+
+    while (!first.isDead()) {
+      first.step();
+      second.step();
+      assertEquals(first.getHealth(), second.getHealth());
+      assertEquals(first.getMood(), second.getMood());
+    }
+    assertTrue(second.isDead());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullRandomSource() {
+    pet.setRandomSource(null);
+  }
+
   // Mood transition tests
 
   @Test
@@ -4,6 +4,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.SplittableRandom;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -243,6 +245,43 @@ public class SnakeTest {
             snake.getHealth().getSleep() <= 48); // 50 - (2 + 0-3 random)
   }
 
+  @Test
+  public void testSeededStepInSadMoodIsExact() {
+    // A seeded generator makes the random part of a sad step predictable
+    snake.setHealthStateAndUpdateState(50, 50, 50, 50);
+    snake.setMood(MoodEnum.SAD);
+    snake.setRandomSource(new SplittableRandom(42));
+    SplittableRandom expected = new SplittableRandom(42);
+
+    snake.step();
+
+    assertEquals(54, snake.getHealth().getHunger()); // 50 + 4
+    assertEquals(50 - (2 + expected.nextInt(4)), snake.getHealth().getHygiene());
+    assertEquals(50 - (2 + expected.nextInt(4)), snake.getHealth().getSocial());
+    assertEquals(50 - (2 + expected.nextInt(4)), snake.getHealth().getSleep());
+  }
+
+  @Test
+  public void testSameSeedReproducesRun() {
+    Snake first = new Snake();
+    Snake second = new Snake();
+    first.setRandomSource(new SplittableRandom(7));
+    second.setRandomSource(new SplittableRandom(7));
+
+    while (!first.isDead()) {
+      first.step();
+      second.step();
+      assertEquals(first.getHealth(), second.getHealth());
+      assertEquals(first.getMood(), second.getMood());
+    }
+    assertTrue(second.isDead());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullRandomSource() {
+    snake.setRandomSource(null);
+  }
+
   // Mood transition tests - Note: Snake mood is unaffected by hygiene unlike other pets
 
   @Test
@@ -0,0 +1,87 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for SpriteAtlasGenerator and SpriteAtlas.
+ * Every sprite read from the generated atlas must match the individually decoded image.
+ */
+public class SpriteAtlasTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testAtlasMatchesIndividualSprites() throws IOException {
+    Path images = Paths.get("src", "images");
+    Path output = folder.newFolder().toPath();
+    int count = SpriteAtlasGenerator.generate(images, output);
+
+    SpriteAtlas atlas = open(output);
+    assertEquals(count, atlas.size());
+
+    SpriteCache sprites = new SpriteCache(1, 350, 400);
+    for (String name : new String[] {"happyFox", "sadSnakeFEED", "happyFoxSLEEP", "flower"}) {
+      assertSamePixels(name, sprites.get(name), atlas.get(name, 350, 400));
+    }
+    assertSamePixels("step", new SpriteCache(1, 133, 63).get("step"), atlas.get("step", 133, 63));
+  }
+
+  @Test
+  public void testUnknownSpriteOrSize() throws IOException {
+    Path output = folder.newFolder().toPath();
+    SpriteAtlasGenerator.generate(Paths.get("src", "images"), output);
+    SpriteAtlas atlas = open(output);
+
+    assertNull(atlas.get("noSuchSprite", 350, 400));
+    assertNull(atlas.get("step", 350, 400));
+  }
+
+  @Test(expected = IOException.class)
+  public void testMalformedIndex() throws IOException {
+    InputStream index = new ByteArrayInputStream(
+        "# comment\nhappyFox 0 0\n".getBytes(StandardCharsets.UTF_8));
+    new SpriteAtlas(new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB), index);
+  }
+
+  @Test(expected = IOException.class)
+  public void testIndexOutsideImage() throws IOException {
+    InputStream index = new ByteArrayInputStream(
+        "happyFox 5 5 10 10\n".getBytes(StandardCharsets.UTF_8));
+    new SpriteAtlas(new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB), index);
+  }
+
+  private SpriteAtlas open(Path output) throws IOException {
+    try (InputStream index = Files.newInputStream(output.resolve("atlas.idx"))) {
+      return new SpriteAtlas(ImageIO.read(output.resolve("atlas.png").toFile()), index);
+    }
+  }
+
+  private void assertSamePixels(String name, ImageIcon expected, ImageIcon actual) {
+    assertNotNull(name, actual);
+    BufferedImage want = (BufferedImage) expected.getImage();
+    BufferedImage got = (BufferedImage) actual.getImage();
+    assertEquals(want.getWidth(), got.getWidth());
+    assertEquals(want.getHeight(), got.getHeight());
+    for (int y = 0; y < want.getHeight(); y++) {
+      for (int x = 0; x < want.getWidth(); x++) {
+        assertEquals(name + " at " + x + "," + y, want.getRGB(x, y), got.getRGB(x, y));
+      }
+    }
+  }
+}
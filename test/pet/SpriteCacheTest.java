@@ -0,0 +1,94 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.swing.ImageIcon;
+import org.junit.Test;
+
+/**
+ * Tests for the SpriteCache.
+ * Sprites must be decoded once, scaled to the requested size and evicted least recently used first.
+ */
+public class SpriteCacheTest {
+
+  @Test
+  public void testSpriteIsScaledOnce() throws IOException {
+    SpriteCache cache = new SpriteCache(4, 35, 40);
+    ImageIcon first = cache.get("happyFox");
+    ImageIcon second = cache.get("happyFox");
+
+    assertSame(first, second);
+    assertEquals(35, first.getIconWidth());
+    assertEquals(40, first.getIconHeight());
+    assertEquals(1, cache.getMisses());
+    assertEquals(1, cache.getHits());
+  }
+
+  @Test
+  public void testLowerCaseExtensionIsFound() throws IOException {
+    SpriteCache cache = new SpriteCache(4, 10, 10);
+    assertEquals(10, cache.get("happyFoxSLEEP").getIconWidth());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedIsEvicted() throws IOException {
+    SpriteCache cache = new SpriteCache(2, 10, 10);
+    ImageIcon pet = cache.get("happyPet");
+    cache.get("sadPet");
+    cache.get("happyPet"); // sadPet is now the eldest
+    cache.get("sadFox");
+
+    assertEquals(2, cache.size());
+    assertSame(pet, cache.get("happyPet"));
+    cache.get("sadPet");
+    assertEquals(4, cache.getMisses());
+    assertEquals(2, cache.getHits());
+  }
+
+  @Test
+  public void testConcurrentLookupsDecodeOnce() throws Exception {
+    SpriteCache cache = new SpriteCache(4, 35, 40);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<ImageIcon>> lookups = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        lookups.add(executor.submit(() -> cache.get("sadFox")));
+      }
+      ImageIcon first = lookups.get(0).get();
+      for (Future<ImageIcon> lookup : lookups) {
+        assertSame(first, lookup.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(1, cache.getMisses());
+    assertEquals(31, cache.getHits());
+    assertSame(cache.peek("sadFox"), cache.get("sadFox"));
+  }
+
+  @Test
+  public void testPeekDoesNotDecode() {
+    SpriteCache cache = new SpriteCache(4, 10, 10);
+    assertNull(cache.peek("happyFox"));
+    assertEquals(0, cache.getMisses());
+    assertEquals(0, cache.size());
+  }
+
+  @Test(expected = IOException.class)
+  public void testMissingSprite() throws IOException {
+    new SpriteCache(2, 10, 10).get("noSuchSprite");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidCapacity() {
+    new SpriteCache(0, 10, 10);
+  }
+}
@@ -0,0 +1,131 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+/**
+ * Tests for the TimingWheel.
+ * Every task must run exactly at its deadline, including tasks that cascade down from
+ * the higher levels and tasks that are scheduled or cancelled while the wheel is expiring.
+ */
+public class TimingWheelTest {
+
+  @Test
+  public void testRepeatingTaskRunsEveryInterval() {
+    TimingWheel wheel = new TimingWheel();
+    List<Long> runs = new ArrayList<>();
+    wheel.scheduleRepeating(() -> runs.add(wheel.getNextTick() - 1), 5);
+
+    wheel.advanceTo(20);
+    assertEquals(List.of(4L, 9L, 14L, 19L), runs);
+    assertEquals(1, wheel.size());
+  }
+
+  @Test
+  public void testPetIsSteppedAtItsInterval() {
+    TimingWheel wheel = new TimingWheel();
+    Pet pet = new Pet();
+    Pet reference = new Pet();
+    wheel.schedulePet(pet, 3);
+
+    wheel.advanceTo(8); // Ticks 0-8: steps at 2, 5 and 8
+    for (int i = 0; i < 3; i++) {
+      reference.step();
+    }
+    assertEquals(reference.getHealth(), pet.getHealth());
+  }
+
+  @Test
+  public void testDeadlinesMatchAcrossLevels() {
+    SplittableRandom random = new SplittableRandom(7);
+    TimingWheel wheel = new TimingWheel(12_345);
+    int count = 2000;
+    long[] expected = new long[count];
+    long[] actual = new long[count];
+    for (int i = 0; i < count; i++) {
+      // Delays spread over the first three levels
+      long delay = random.nextLong(1, 300_000);
+      expected[i] = 12_345 - 1 + delay;
+      int task = i;
+      wheel.scheduleOnce(() -> actual[task] = wheel.getNextTick() - 1, delay);
+    }
+
+    wheel.advanceTo(12_345 + 300_000);
+    for (int i = 0; i < count; i++) {
+      assertEquals("task " + i, expected[i], actual[i]);
+    }
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  public void testIntervalOfOneSlotRotationWaitsForNextTurn() {
+    TimingWheel wheel = new TimingWheel();
+    List<Long> runs = new ArrayList<>();
+    wheel.scheduleRepeating(() -> runs.add(wheel.getNextTick() - 1), TimingWheel.SLOTS);
+
+    wheel.advanceTo(3 * TimingWheel.SLOTS);
+    assertEquals(List.of(63L, 127L, 191L), runs);
+  }
+
+  @Test
+  public void testCancel() {
+    TimingWheel wheel = new TimingWheel();
+    int[] runs = new int[1];
+    TimingWheel.Timeout timeout = wheel.scheduleRepeating(() -> runs[0]++, 10);
+    wheel.advanceTo(25);
+    wheel.cancel(timeout);
+    wheel.cancel(timeout);
+
+    wheel.advanceTo(100);
+    assertEquals(2, runs[0]);
+    assertEquals(0, wheel.size());
+    assertTrue(timeout.isCancelled());
+  }
+
+  @Test
+  public void testTaskCanCancelAnotherDueTask() {
+    TimingWheel wheel = new TimingWheel();
+    int[] runs = new int[3];
+    TimingWheel.Timeout[] timeouts = new TimingWheel.Timeout[3];
+    // All three are due at the same tick; whichever runs first cancels the other two
+    for (int i = 0; i < 3; i++) {
+      int task = i;
+      timeouts[i] = wheel.scheduleOnce(() -> {
+        runs[task]++;
+        for (TimingWheel.Timeout other : timeouts) {
+          wheel.cancel(other);
+        }
+      }, 4);
+    }
+
+    wheel.advanceTo(10);
+    assertEquals(1, runs[0] + runs[1] + runs[2]);
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  public void testTaskScheduledWhileExpiringRunsLater() {
+    TimingWheel wheel = new TimingWheel();
+    List<Long> runs = new ArrayList<>();
+    wheel.scheduleOnce(() -> wheel.scheduleOnce(() -> runs.add(wheel.getNextTick() - 1), 0), 2);
+
+    wheel.advanceTo(10);
+    // The outer task runs at tick 1; the inner one on the following tick, not during tick 1
+    assertEquals(List.of(2L), runs);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIntervalMustBePositive() {
+    new TimingWheel().scheduleRepeating(() -> { }, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDelayTooLong() {
+    new TimingWheel().scheduleOnce(() -> { }, TimingWheel.MAX_DELAY + 1);
+  }
+}
@@ -0,0 +1,77 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+/**
+ * Tests for the precomputed TransitionTable.
+ * Every table lookup must give exactly the same result as the strategy it replaces.
+ */
+public class TransitionTableTest {
+
+  @Test
+  public void testTableIsSharedPerSpecies() {
+    assertSame(TransitionTable.of(Species.FOX), TransitionTable.of(Species.FOX));
+  }
+
+  @Test
+  public void testInteractionsMatchStrategies() {
+    for (Species species : Species.values()) {
+      TransitionTable table = TransitionTable.of(species);
+      for (MoodEnum mood : MoodEnum.values()) {
+        AbstractMoodStrategy strategy = MoodStrategyRegistry.get(species, mood);
+        for (Action action : Action.values()) {
+          for (int value = 0; value <= 100; value++) {
+            long health = HealthStatus.pack(value, 100 - value, value, 100 - value);
+            assertEquals(species + " " + mood + " " + action + " " + value,
+                strategy.applyInteraction(health, action),
+                table.applyInteraction(health, mood, action));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testHappyStepMatchesStrategy() {
+    for (Species species : Species.values()) {
+      TransitionTable table = TransitionTable.of(species);
+      AbstractMoodStrategy strategy = MoodStrategyRegistry.get(species, MoodEnum.HAPPY);
+      for (int value = 0; value <= 100; value++) {
+        long health = HealthStatus.pack(value, value, 100 - value, value);
+        assertEquals(species + " " + value, strategy.applyStep(health),
+            table.applyStep(health, MoodEnum.HAPPY, null));
+      }
+    }
+  }
+
+  @Test
+  public void testSadStepFallsBackToStrategy() {
+    long health = HealthStatus.pack(50, 50, 50, 50);
+    AbstractMoodStrategy strategy = MoodStrategyRegistry.get(Species.SNAKE, MoodEnum.SAD);
+
+    assertEquals(strategy.applyStep(health, new SplittableRandom(5)),
+        TransitionTable.of(Species.SNAKE).applyStep(health, MoodEnum.SAD,
+            new SplittableRandom(5)));
+  }
+
+  @Test
+  public void testMoodAndDeathFlagsMatchSpecies() {
+    for (Species species : Species.values()) {
+      TransitionTable table = TransitionTable.of(species);
+      DeathThreshold threshold = species.getDeathThreshold();
+      for (int hunger = 0; hunger <= 100; hunger += 3) {
+        for (int other = 0; other <= 100; other += 3) {
+          long health = HealthStatus.pack(hunger, other, 100 - other, other);
+          assertEquals(species.isSadCondition(hunger, other, 100 - other, other),
+              table.isSad(health));
+          assertEquals(threshold.isDeadCondition(hunger, other, 100 - other, other),
+              table.isDead(health));
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Tests for the VirtualThreadPetRunner.
+ * Each pet must step on its own thread and apply queued actions only from that thread.
+ * On runtimes without virtual threads the platform-thread fallback is exercised instead, and it
+ * must refuse populations too large for one platform thread per pet.
+ */
+public class VirtualThreadPetRunnerTest {
+
+  @Test
+  public void testPetsStepOnTheirOwnThreads() throws InterruptedException {
+    List<AbstractPet> pets = HeadlessRunner.createPopulation(20,
+        HeadlessRunner.parseSpeciesMix("PET=1,FOX=1"));
+    VirtualThreadPetRunner runner = new VirtualThreadPetRunner(pets, 2_000_000);
+    try (runner) {
+      assertEquals(VirtualThreadPetRunner.isVirtualThreadSupported(),
+          runner.usesVirtualThreads());
+      runner.start();
+      long deadline = System.currentTimeMillis() + 10_000;
+      while (!allStepped(pets) && System.currentTimeMillis() < deadline) {
+        Thread.sleep(2);
+      }
+    }
+
+    // Checked once the runner is closed, so no pet is stepped meanwhile
+    assertTrue(runner.getTicks() >= pets.size());
+    assertTrue(runner.getMaxJitterNanos() >= runner.getMeanJitterNanos());
+    assertTrue(runner.getJitterPercentileNanos(1) >= runner.getJitterPercentileNanos(0.5));
+    assertTrue(allStepped(pets));
+  }
+
+  @Test
+  public void testQueuedActionsAreApplied() throws InterruptedException {
+    List<AbstractPet> pets = HeadlessRunner.createPopulation(2,
+        HeadlessRunner.parseSpeciesMix("PET=1"));
+    try (VirtualThreadPetRunner runner = new VirtualThreadPetRunner(pets, 1_000_000_000L)) {
+      runner.start();
+      runner.send(1, Action.FEED);
+      waitForTicks(runner, 2);
+    }
+    // One step each, but only the second pet was fed before stepping
+    assertTrue(pets.get(1).getHealth().getHunger() < pets.get(0).getHealth().getHunger());
+  }
+
+  @Test
+  public void testEmptyPercentile() {
+    try (VirtualThreadPetRunner runner = new VirtualThreadPetRunner(List.of(), 1000)) {
+      assertEquals(0, runner.getJitterPercentileNanos(0.99));
+      assertEquals(0, runner.getMeanJitterNanos());
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testStartTwice() {
+    try (VirtualThreadPetRunner runner = new VirtualThreadPetRunner(List.of(), 1000)) {
+      runner.start();
+      runner.start();
+    }
+  }
+
+  @Test
+  public void testPlatformFallbackIsCapped() {
+    List<AbstractPet> pets = Collections.nCopies(VirtualThreadPetRunner.MAX_PLATFORM_THREADS + 1,
+        new Pet());
+    try (VirtualThreadPetRunner runner = new VirtualThreadPetRunner(pets, 1000)) {
+      assertTrue(VirtualThreadPetRunner.isVirtualThreadSupported());
+      assertTrue(runner.usesVirtualThreads());
+    } catch (UnsupportedOperationException e) {
+      assertFalse(VirtualThreadPetRunner.isVirtualThreadSupported());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNonPositiveTick() {
+    new VirtualThreadPetRunner(List.of(), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullAction() {
+    try (VirtualThreadPetRunner runner = new VirtualThreadPetRunner(
+        HeadlessRunner.createPopulation(1, HeadlessRunner.parseSpeciesMix("PET=1")), 1000)) {
+      runner.send(0, null);
+    }
+  }
+
+  private static boolean allStepped(List<AbstractPet> pets) {
+    for (AbstractPet pet : pets) {
+      if (pet.getHealth().getHunger() <= 50) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void waitForTicks(VirtualThreadPetRunner runner, long ticks)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (runner.getTicks() < ticks && System.currentTimeMillis() < deadline) {
+      Thread.sleep(2);
+    }
+  }
+}